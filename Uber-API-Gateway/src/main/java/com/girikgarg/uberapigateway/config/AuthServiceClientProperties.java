@@ -0,0 +1,62 @@
+package com.girikgarg.uberapigateway.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Type-safe configuration properties for the gateway's Auth Service client.
+ * Binds to properties prefixed with 'gateway.auth.client' in application.yml.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "gateway.auth.client")
+@Data
+public class AuthServiceClientProperties {
+
+    /**
+     * Eureka service id of Auth Service.
+     * Default: UBER-AUTH-SERVICE
+     */
+    private String serviceId = "UBER-AUTH-SERVICE";
+
+    /**
+     * How requests are spread over the Auth Service instances.
+     * Default: LEAST_OUTSTANDING
+     */
+    private LoadBalancing loadBalancing = LoadBalancing.LEAST_OUTSTANDING;
+
+    /**
+     * Maximum number of pooled connections (over all instances).
+     * Default: 200
+     */
+    private Integer maxConnections = 200;
+
+    /**
+     * How long (in ms) a request waits for a free pooled connection before failing.
+     * Default: 2000 ms
+     */
+    private Long pendingAcquireTimeoutMs = 2000L;
+
+    /**
+     * Idle keep-alive connections are closed after this many ms.
+     * Default: 30000 ms
+     */
+    private Long maxIdleTimeMs = 30000L;
+
+    /**
+     * TCP connect timeout in ms.
+     * Default: 1000 ms
+     */
+    private Integer connectTimeoutMs = 1000;
+
+    /**
+     * Maximum time (in ms) to wait for the /validate response.
+     * Default: 2000 ms
+     */
+    private Long responseTimeoutMs = 2000L;
+
+    public enum LoadBalancing {
+        ROUND_ROBIN,
+        LEAST_OUTSTANDING
+    }
+}
@@ -0,0 +1,51 @@
+package com.girikgarg.uberapigateway.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Type-safe configuration properties for gateway authentication.
+ * Binds to properties prefixed with 'gateway.auth' in application.yml.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "gateway.auth")
+@Data
+public class GatewayAuthProperties {
+
+    /**
+     * LOCAL verifies the JwtToken signature, expiry and role claim in the gateway;
+     * REMOTE delegates every request to Auth Service /validate.
+     * Tokens without a role claim (issued before the claim existed) always go to Auth Service.
+     * Default: LOCAL
+     */
+    private VerificationMode verificationMode = VerificationMode.LOCAL;
+
+    /**
+     * HMAC secret shared with Auth Service (its jwt.secret). Required for LOCAL verification.
+     */
+    private String jwtSecret;
+
+    /**
+     * Cache successful Auth Service validations (REMOTE mode and tokens without a role claim).
+     * Default: true
+     */
+    private Boolean validationCacheEnabled = true;
+
+    /**
+     * How long (in seconds) a validation result is reused; never longer than the token's own expiry.
+     * Default: 60 seconds
+     */
+    private Long validationCacheTtlSeconds = 60L;
+
+    /**
+     * Maximum number of cached validation results; the least recently used entry is evicted first.
+     * Default: 10000
+     */
+    private Integer validationCacheMaxEntries = 10000;
+
+    public enum VerificationMode {
+        LOCAL,
+        REMOTE
+    }
+}
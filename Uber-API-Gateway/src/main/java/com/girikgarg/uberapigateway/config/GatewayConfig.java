@@ -1,33 +1,53 @@
 package com.girikgarg.uberapigateway.config;
 
+import io.netty.channel.ChannelOption;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cloud.client.loadbalancer.LoadBalanced;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.web.cors.CorsConfiguration;
-import org.springframework.web.cors.reactive.CorsWebFilter;
-import org.springframework.web.cors.reactive.UrlBasedCorsConfigurationSource;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
 
-import java.util.Arrays;
+import java.time.Duration;
 
 @Configuration
 @Slf4j
 public class GatewayConfig {
 
     /**
-     * WebClient Builder with Load Balancing
+     * Connection pool for gateway-to-Auth Service calls.
      * 
-     * This WebClient is used by AuthenticationDelegationFilter to call Auth Service.
-     * The @LoadBalanced annotation enables client-side load balancing via Eureka.
+     * Connections are kept alive and reused across requests instead of a fresh client per request.
+     * metrics(true) publishes the pool gauges (reactor.netty.connection.provider.*: active, idle,
+     * pending, total connections) through Actuator /actuator/metrics.
+     */
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider authServiceConnectionProvider(AuthServiceClientProperties properties) {
+        log.info("✅ Auth Service connection pool initialized (max {} connections)", properties.getMaxConnections());
+        return ConnectionProvider.builder("auth-service")
+                .maxConnections(properties.getMaxConnections())
+                .pendingAcquireTimeout(Duration.ofMillis(properties.getPendingAcquireTimeoutMs()))
+                .maxIdleTime(Duration.ofMillis(properties.getMaxIdleTimeMs()))
+                .metrics(true)
+                .build();
+    }
+
+    /**
+     * WebClient used by AuthServiceClient to call Auth Service.
      * 
-     * Gateway uses this to delegate authentication decisions to Auth Service.
-     * Gateway doesn't know about authentication mechanisms - it just forwards requests.
+     * Not @LoadBalanced: AuthServiceClient picks the instance itself (round-robin or
+     * least-outstanding-requests) and calls it by its resolved address.
      */
     @Bean
-    @LoadBalanced
-    public WebClient.Builder webClientBuilder() {
-        log.info("✅ WebClient Builder initialized with load balancing");
-        return WebClient.builder();
+    public WebClient authServiceWebClient(ConnectionProvider authServiceConnectionProvider,
+                                          AuthServiceClientProperties properties) {
+        HttpClient httpClient = HttpClient.create(authServiceConnectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, properties.getConnectTimeoutMs())
+                .keepAlive(true)
+                .responseTimeout(Duration.ofMillis(properties.getResponseTimeoutMs()));
+        return WebClient.builder()
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .build();
     }
 }
@@ -0,0 +1,36 @@
+package com.girikgarg.uberapigateway.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Type-safe configuration properties for rate limiting and admission control.
+ * Binds to properties prefixed with 'gateway.rate-limit' in application.yml.
+ * Per-route rates are set on the TokenBucketRateLimitFilter of each route.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "gateway.rate-limit")
+@Data
+public class RateLimitProperties {
+
+    /**
+     * Keep token buckets in Redis so every gateway instance enforces the same limit;
+     * otherwise each instance keeps its own buckets in memory.
+     * Default: false
+     */
+    private Boolean redisEnabled = false;
+
+    /**
+     * Maximum number of in-memory buckets; beyond it, buckets that have refilled completely are dropped.
+     * Default: 100000
+     */
+    private Integer maxInMemoryBuckets = 100000;
+
+    /**
+     * Maximum number of requests in flight through this gateway instance; further requests get
+     * 429 immediately instead of queueing in front of the downstream services. 0 disables the limit.
+     * Default: 1000
+     */
+    private Integer maxConcurrentRequests = 1000;
+}
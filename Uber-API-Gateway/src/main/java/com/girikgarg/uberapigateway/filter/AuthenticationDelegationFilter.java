@@ -1,31 +1,39 @@
 package com.girikgarg.uberapigateway.filter;
 
+import com.girikgarg.uberapigateway.config.GatewayAuthProperties;
+import com.girikgarg.uberapigateway.security.AuthServiceClient;
+import com.girikgarg.uberapigateway.security.LocalJwtVerifier;
+import com.girikgarg.uberapigateway.security.ValidationResultCache;
+import com.girikgarg.uberapigateway.security.VerifiedToken;
+import io.jsonwebtoken.JwtException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.cloud.client.ServiceInstance;
-import org.springframework.cloud.client.discovery.DiscoveryClient;
 import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
 import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.http.server.reactive.ServerHttpResponse;
 import org.springframework.stereotype.Component;
-import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
 
-import java.util.List;
 
 /**
  * Authentication & Authorization Delegation Filter
  * 
  * Centralized security at API Gateway level:
  * 1. Extracts required role from route metadata
- * 2. Forwards Cookie header + required role to Auth Service /validate endpoint
- * 3. Auth Service validates token AND checks if user has the required role
+ * 2. LOCAL mode (default): verifies the token signature, expiry and signed role claim in-process
+ *    (no Auth Service call, no database lookup)
+ * 3. REMOTE mode, or a token without a role claim: forwards Cookie header + required role to
+ *    Auth Service /validate, which validates the token AND checks the user's role
  * 4. Only forwards request to downstream service if both authentication and authorization succeed
  * 
+ * Auth Service keeps no revocation list, so in LOCAL mode a token is trusted until it expires (jwt.expiry),
+ * exactly as it would be by /validate.
+ * 
  * Benefits:
  * - Security at the edge: Invalid/unauthorized requests never reach downstream services
  * - Single point of control: All auth logic centralized
@@ -36,10 +44,16 @@ import java.util.List;
 public class AuthenticationDelegationFilter extends AbstractGatewayFilterFactory<AuthenticationDelegationFilter.Config> {
 
     @Autowired
-    private WebClient.Builder webClientBuilder;
-    
+    private AuthServiceClient authServiceClient;
+
+    @Autowired
+    private GatewayAuthProperties gatewayAuthProperties;
+
     @Autowired
-    private DiscoveryClient discoveryClient;
+    private LocalJwtVerifier localJwtVerifier;
+
+    @Autowired
+    private ValidationResultCache validationResultCache;
 
     public AuthenticationDelegationFilter() {
         super(Config.class);
@@ -78,7 +92,31 @@ public class AuthenticationDelegationFilter extends AbstractGatewayFilterFactory
             log.info("[AUTH] Validating {} with required role: {}", request.getPath().value(), extractedRole);
             
             final String requiredRole = extractedRole; // Make effectively final for lambda
-            return validateWithAuthService(request, requiredRole)
+
+            if (gatewayAuthProperties.getVerificationMode() == GatewayAuthProperties.VerificationMode.LOCAL) {
+                VerifiedToken verifiedToken;
+                try {
+                    verifiedToken = localJwtVerifier.verify(jwtCookie.getValue());
+                } catch (JwtException | IllegalArgumentException e) {
+                    log.warn("[AUTH] Invalid token for {}: {}", request.getPath().value(), e.getMessage());
+                    return onError(exchange, "Authentication failed", HttpStatus.UNAUTHORIZED);
+                }
+
+                if (verifiedToken.getRole() != null) {
+                    if (!requiredRole.equals(verifiedToken.getRole())) {
+                        log.warn("[AUTH] Forbidden: {} has role {}, {} requires {}", verifiedToken.getEmail(),
+                                verifiedToken.getRole(), request.getPath().value(), requiredRole);
+                        return onError(exchange, "Forbidden: Insufficient permissions", HttpStatus.FORBIDDEN);
+                    }
+                    return forwardAuthorized(exchange, chain, verifiedToken, requiredRole);
+                }
+                // Issued before tokens carried a role claim - let Auth Service look the role up
+                log.debug("[AUTH] Token without role claim, delegating to Auth Service");
+            }
+
+            // Repeated validations of the same token are served from the cache; concurrent misses share one call
+            return validationResultCache.getOrValidate(jwtCookie.getValue(), requiredRole,
+                            () -> validateWithAuthService(request, requiredRole))
                     .onErrorResume(error -> {
                         // Handle authentication/authorization errors from Auth Service
                         if (error.getMessage() != null && error.getMessage().contains("403")) {
@@ -86,21 +124,7 @@ public class AuthenticationDelegationFilter extends AbstractGatewayFilterFactory
                         }
                         return Mono.error(new AuthenticationException("Authentication failed"));
                     })
-                    .flatMap(email -> {
-                        if (email == null || email.isEmpty()) {
-                            return onError(exchange, "Authentication failed", HttpStatus.UNAUTHORIZED);
-                        }
-
-                        log.info("[AUTH] Authorized: {} with role {} -> {}", email, requiredRole, request.getPath().value());
-
-                        ServerHttpRequest modifiedRequest = request.mutate()
-                                .header("X-User-Email", email)
-                                .header("X-User-Role", requiredRole)
-                                .build();
-
-                        // Forward to downstream service - let service unavailability errors propagate
-                        return chain.filter(exchange.mutate().request(modifiedRequest).build());
-                    })
+                    .flatMap(validated -> forwardAuthorized(exchange, chain, validated, requiredRole))
                     .onErrorResume(AuthenticationException.class, error -> 
                         onError(exchange, error.getMessage(), HttpStatus.UNAUTHORIZED)
                     )
@@ -110,6 +134,29 @@ public class AuthenticationDelegationFilter extends AbstractGatewayFilterFactory
         };
     }
 
+    private Mono<Void> forwardAuthorized(ServerWebExchange exchange, GatewayFilterChain chain,
+                                         VerifiedToken verifiedToken, String requiredRole) {
+        ServerHttpRequest request = exchange.getRequest();
+        String email = verifiedToken.getEmail();
+        log.info("[AUTH] Authorized: {} with role {} -> {}", email, requiredRole, request.getPath().value());
+
+        // Identity headers are always overwritten (or removed) so a client cannot supply its own
+        ServerHttpRequest modifiedRequest = request.mutate()
+                .headers(headers -> {
+                    headers.set("X-User-Email", email);
+                    headers.set("X-User-Role", requiredRole);
+                    if (verifiedToken.getUserId() != null) {
+                        headers.set("X-User-Id", verifiedToken.getUserId());
+                    } else {
+                        headers.remove("X-User-Id");
+                    }
+                })
+                .build();
+
+        // Forward to downstream service - let service unavailability errors propagate
+        return chain.filter(exchange.mutate().request(modifiedRequest).build());
+    }
+
     private Mono<Void> onError(ServerWebExchange exchange, String message, HttpStatus status) {
         ServerHttpResponse response = exchange.getResponse();
         response.setStatusCode(status);
@@ -123,43 +170,8 @@ public class AuthenticationDelegationFilter extends AbstractGatewayFilterFactory
         return response.writeWith(Mono.just(response.bufferFactory().wrap(errorJson.getBytes())));
     }
 
-    private Mono<String> validateWithAuthService(ServerHttpRequest request, String requiredRole) {
-        List<ServiceInstance> instances = discoveryClient.getInstances("UBER-AUTH-SERVICE");
-        
-        if (instances.isEmpty()) {
-            log.error("[AUTH] Auth Service not found in Eureka");
-            return Mono.error(new RuntimeException("Auth Service unavailable"));
-        }
-        
-        String authServiceUrl = instances.get(0).getUri() + "/api/v1/auth/validate";
-        java.util.Map<String, String> requestBody = java.util.Map.of("requiredRole", requiredRole);
-        
-        // Forward Cookie header as-is to Auth Service (no manipulation)
-        // Use WebClient.create() instead of builder to avoid load balancing issues
-        return WebClient.create()
-                .post()
-                .uri(authServiceUrl)
-                .contentType(org.springframework.http.MediaType.APPLICATION_JSON)
-                .headers(headers -> {
-                    List<String> cookies = request.getHeaders().get(HttpHeaders.COOKIE);
-                    if (cookies != null) {
-                        headers.addAll(HttpHeaders.COOKIE, cookies);
-                    }
-                })
-                .bodyValue(requestBody)
-                .retrieve()
-                .onStatus(status -> status.value() == 403, 
-                         clientResponse -> Mono.error(new RuntimeException("403 Forbidden")))
-                .bodyToMono(java.util.Map.class)
-                .map(response -> {
-                    Boolean valid = (Boolean) response.get("valid");
-                    String email = (String) response.get("email");
-                    return (valid != null && valid && email != null) ? email : null;
-                })
-                .onErrorResume(error -> {
-                    log.error("[AUTH] Validation failed: {}", error.getMessage());
-                    return Mono.error(error);
-                });
+    private Mono<VerifiedToken> validateWithAuthService(ServerHttpRequest request, String requiredRole) {
+        return authServiceClient.validate(request.getHeaders().get(HttpHeaders.COOKIE), requiredRole);
     }
 
     public static class Config {
@@ -0,0 +1,68 @@
+package com.girikgarg.uberapigateway.filter;
+
+import com.girikgarg.uberapigateway.config.RateLimitProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Global admission control: caps the number of requests in flight through this gateway instance.
+ * 
+ * Once gateway.rate-limit.max-concurrent-requests are in flight, further requests are shed with 429
+ * straight away. Downstream services then see a bounded load instead of an ever-growing queue
+ * (where every queued request times out and the whole system stops making progress).
+ * Runs before every other filter, including authentication.
+ * 
+ * WebSocket upgrades (e.g. the location-driver-stream route) are not counted: the filter chain of an
+ * upgraded request only completes when the socket closes, so each open stream would hold a slot for
+ * its whole lifetime and enough of them would shed every REST request.
+ */
+@Component
+@Slf4j
+public class ConcurrencyLimitFilter implements GlobalFilter, Ordered {
+
+    private final RateLimitProperties properties;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    public ConcurrencyLimitFilter(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        Gauge.builder("gateway.requests.in-flight", inFlight, AtomicInteger::get)
+                .description("Requests currently admitted by the gateway concurrency limiter")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        int limit = properties.getMaxConcurrentRequests();
+        if (limit <= 0 || isWebSocketUpgrade(exchange)) {
+            return chain.filter(exchange);
+        }
+
+        if (inFlight.incrementAndGet() > limit) {
+            inFlight.decrementAndGet();
+            log.warn("[ADMISSION] Shedding {} - {} requests in flight", exchange.getRequest().getPath().value(), limit);
+            return TokenBucketRateLimitFilter.tooManyRequests(exchange, "Gateway overloaded, retry shortly");
+        }
+
+        return chain.filter(exchange)
+                .doFinally(signal -> inFlight.decrementAndGet());
+    }
+
+    private static boolean isWebSocketUpgrade(ServerWebExchange exchange) {
+        return "websocket".equalsIgnoreCase(exchange.getRequest().getHeaders().getFirst(HttpHeaders.UPGRADE));
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+}
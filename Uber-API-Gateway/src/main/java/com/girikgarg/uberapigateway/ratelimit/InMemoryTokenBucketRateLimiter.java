@@ -0,0 +1,87 @@
+package com.girikgarg.uberapigateway.ratelimit;
+
+import com.girikgarg.uberapigateway.config.RateLimitProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Buckets kept in this gateway instance. With N gateway instances a user effectively gets N times the rate;
+ * enable gateway.rate-limit.redis-enabled for one shared limit.
+ */
+@Component
+@ConditionalOnProperty(name = "gateway.rate-limit.redis-enabled", havingValue = "false", matchIfMissing = true)
+public class InMemoryTokenBucketRateLimiter implements TokenBucketRateLimiter {
+
+    private static final long EVICTION_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final RateLimitProperties properties;
+    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+    private final AtomicLong lastEvictionNanos = new AtomicLong(System.nanoTime());
+
+    public InMemoryTokenBucketRateLimiter(RateLimitProperties properties) {
+        this.properties = properties;
+    }
+
+    @Override
+    public Mono<Boolean> tryConsume(String key, double replenishRate, int burstCapacity) {
+        long nowNanos = System.nanoTime();
+        if (buckets.size() > properties.getMaxInMemoryBuckets()) {
+            evictIdle(nowNanos);
+        }
+        Bucket bucket = buckets.computeIfAbsent(key, k -> new Bucket(replenishRate, burstCapacity, nowNanos));
+        return Mono.just(bucket.tryConsume(nowNanos));
+    }
+
+    /**
+     * Drops buckets that have been idle long enough to be full again - recreating them is equivalent.
+     * Runs at most once per second, so a map full of active buckets is not rescanned on every request.
+     */
+    private void evictIdle(long nowNanos) {
+        long last = lastEvictionNanos.get();
+        if (nowNanos - last >= EVICTION_INTERVAL_NANOS && lastEvictionNanos.compareAndSet(last, nowNanos)) {
+            buckets.values().removeIf(bucket -> bucket.isFull(nowNanos));
+        }
+    }
+
+    private static final class Bucket {
+        private final double replenishRate;
+        private final int capacity;
+        private double tokens;
+        private long lastRefillNanos;
+
+        private Bucket(double replenishRate, int capacity, long nowNanos) {
+            this.replenishRate = replenishRate;
+            this.capacity = capacity;
+            this.tokens = capacity;
+            this.lastRefillNanos = nowNanos;
+        }
+
+        private synchronized boolean tryConsume(long nowNanos) {
+            refill(nowNanos);
+            if (tokens >= 1) {
+                tokens -= 1;
+                return true;
+            }
+            return false;
+        }
+
+        private synchronized boolean isFull(long nowNanos) {
+            refill(nowNanos);
+            return tokens >= capacity;
+        }
+
+        private void refill(long nowNanos) {
+            // nowNanos may be slightly older than a concurrent caller's refill; never move the clock back
+            if (nowNanos > lastRefillNanos) {
+                tokens = Math.min(capacity, tokens + (nowNanos - lastRefillNanos) / 1e9 * replenishRate);
+                lastRefillNanos = nowNanos;
+            }
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.girikgarg.uberapigateway.ratelimit;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Buckets shared by all gateway instances: one Redis hash "gateway:ratelimit:{key}" updated atomically
+ * by scripts/token-bucket.lua (one round trip per request).
+ * If Redis is unreachable requests are let through - rate limiting must not take the gateway down.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "gateway.rate-limit.redis-enabled", havingValue = "true")
+public class RedisTokenBucketRateLimiter implements TokenBucketRateLimiter {
+
+    private static final String KEY_PREFIX = "gateway:ratelimit:";
+
+    private final ReactiveStringRedisTemplate redisTemplate;
+    private final RedisScript<Long> tokenBucketScript =
+            RedisScript.of(new ClassPathResource("scripts/token-bucket.lua"), Long.class);
+
+    public RedisTokenBucketRateLimiter(ReactiveStringRedisTemplate redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    @Override
+    public Mono<Boolean> tryConsume(String key, double replenishRate, int burstCapacity) {
+        List<String> keys = Collections.singletonList(KEY_PREFIX + key);
+        return redisTemplate.execute(tokenBucketScript, keys,
+                        List.of(String.valueOf(replenishRate), String.valueOf(burstCapacity)))
+                .next()
+                .map(allowed -> allowed == 1L)
+                .defaultIfEmpty(true)
+                .onErrorResume(error -> {
+                    log.error("[RATE-LIMIT] Redis unavailable, allowing request for {}: {}", key, error.getMessage());
+                    return Mono.just(true);
+                });
+    }
+}
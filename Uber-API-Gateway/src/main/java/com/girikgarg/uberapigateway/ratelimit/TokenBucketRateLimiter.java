@@ -0,0 +1,17 @@
+package com.girikgarg.uberapigateway.ratelimit;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Token bucket: a bucket holds at most burstCapacity tokens and refills at replenishRate tokens per second.
+ * Each request takes one token and is rejected when the bucket is empty.
+ */
+public interface TokenBucketRateLimiter {
+
+    /**
+     * Takes one token from the bucket identified by key.
+     *
+     * @return true when the request is allowed
+     */
+    Mono<Boolean> tryConsume(String key, double replenishRate, int burstCapacity);
+}
@@ -0,0 +1,135 @@
+package com.girikgarg.uberapigateway.security;
+
+import com.girikgarg.uberapigateway.config.AuthServiceClientProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Calls Auth Service /validate over the pooled authServiceWebClient, spreading requests
+ * over every registered Auth Service instance.
+ *
+ * - ROUND_ROBIN: instances in turn
+ * - LEAST_OUTSTANDING: the instance with the fewest requests in flight from this gateway
+ *   (ties go round-robin), so a slow instance stops receiving new work
+ *
+ * In-flight counts are exposed as the gauge gateway.auth.client.outstanding.
+ */
+@Component
+@Slf4j
+public class AuthServiceClient {
+
+    private static final String VALIDATE_PATH = "/api/v1/auth/validate";
+
+    private final WebClient authServiceWebClient;
+    private final DiscoveryClient discoveryClient;
+    private final AuthServiceClientProperties properties;
+
+    private final AtomicInteger nextIndex = new AtomicInteger();
+    private final Map<String, AtomicInteger> outstandingByInstance = new ConcurrentHashMap<>();
+    private final AtomicInteger totalOutstanding = new AtomicInteger();
+
+    public AuthServiceClient(WebClient authServiceWebClient,
+                             DiscoveryClient discoveryClient,
+                             AuthServiceClientProperties properties,
+                             MeterRegistry meterRegistry) {
+        this.authServiceWebClient = authServiceWebClient;
+        this.discoveryClient = discoveryClient;
+        this.properties = properties;
+        Gauge.builder("gateway.auth.client.outstanding", totalOutstanding, AtomicInteger::get)
+                .description("Auth Service validations in flight from this gateway")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Validates the caller's cookies against the required role.
+     *
+     * @return the validated caller; errors with "403 Forbidden" when the role does not match
+     *         and with "Token not valid" when Auth Service does not confirm the token
+     */
+    public Mono<VerifiedToken> validate(List<String> cookies, String requiredRole) {
+        List<ServiceInstance> instances = discoveryClient.getInstances(properties.getServiceId());
+        if (instances.isEmpty()) {
+            log.error("[AUTH] Auth Service not found in Eureka");
+            return Mono.error(new RuntimeException("Auth Service unavailable"));
+        }
+
+        ServiceInstance instance = choose(instances);
+        AtomicInteger outstanding = outstandingByInstance.computeIfAbsent(key(instance), k -> new AtomicInteger());
+
+        return Mono.defer(() -> {
+                    outstanding.incrementAndGet();
+                    totalOutstanding.incrementAndGet();
+                    return authServiceWebClient
+                            .post()
+                            .uri(instance.getUri() + VALIDATE_PATH)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .headers(headers -> {
+                                // Forward Cookie header as-is to Auth Service (no manipulation)
+                                if (cookies != null) {
+                                    headers.addAll(HttpHeaders.COOKIE, cookies);
+                                }
+                            })
+                            .bodyValue(Map.of("requiredRole", requiredRole))
+                            .retrieve()
+                            .onStatus(status -> status.value() == 403,
+                                    clientResponse -> Mono.error(new RuntimeException("403 Forbidden")))
+                            .bodyToMono(Map.class);
+                })
+                .doFinally(signal -> {
+                    outstanding.decrementAndGet();
+                    totalOutstanding.decrementAndGet();
+                })
+                .map(response -> {
+                    Boolean valid = (Boolean) response.get("valid");
+                    String email = (String) response.get("email");
+                    if (valid == null || !valid || email == null || email.isEmpty()) {
+                        // Errors are never cached and end up as 401 in the filter
+                        throw new IllegalStateException("Token not valid");
+                    }
+                    Object userId = response.get("userId");
+                    return new VerifiedToken(email, (String) response.get("role"), null,
+                            userId == null || userId.toString().isEmpty() ? null : userId.toString());
+                })
+                .onErrorResume(error -> {
+                    log.error("[AUTH] Validation via {} failed: {}", instance.getUri(), error.getMessage());
+                    return Mono.error(error);
+                });
+    }
+
+    ServiceInstance choose(List<ServiceInstance> instances) {
+        int start = Math.floorMod(nextIndex.getAndIncrement(), instances.size());
+        if (properties.getLoadBalancing() == AuthServiceClientProperties.LoadBalancing.ROUND_ROBIN) {
+            return instances.get(start);
+        }
+
+        ServiceInstance best = null;
+        int bestOutstanding = Integer.MAX_VALUE;
+        for (int i = 0; i < instances.size(); i++) {
+            ServiceInstance candidate = instances.get((start + i) % instances.size());
+            AtomicInteger count = outstandingByInstance.get(key(candidate));
+            int candidateOutstanding = count == null ? 0 : count.get();
+            if (candidateOutstanding < bestOutstanding) {
+                best = candidate;
+                bestOutstanding = candidateOutstanding;
+            }
+        }
+        return best;
+    }
+
+    private static String key(ServiceInstance instance) {
+        return instance.getHost() + ":" + instance.getPort();
+    }
+}
@@ -0,0 +1,59 @@
+package com.girikgarg.uberapigateway.security;
+
+import com.girikgarg.uberapigateway.config.GatewayAuthProperties;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Verifies JwtToken cookies in-process: HMAC signature, expiry and the signed "role" claim
+ * that Auth Service adds at sign-in. No network hop and no database lookup per request.
+ *
+ * The key and parser are built once - JwtParser is immutable and thread-safe.
+ */
+@Component
+@Slf4j
+public class LocalJwtVerifier {
+
+    public static final String ROLE_CLAIM = "role";
+    public static final String USER_ID_CLAIM = "userId";
+
+    private final JwtParser parser;
+
+    public LocalJwtVerifier(GatewayAuthProperties properties) {
+        String secret = properties.getJwtSecret();
+        if (secret == null || secret.isBlank()) {
+            if (properties.getVerificationMode() == GatewayAuthProperties.VerificationMode.LOCAL) {
+                throw new IllegalStateException("gateway.auth.jwt-secret is required for LOCAL verification");
+            }
+            this.parser = null;
+        } else {
+            SecretKey key = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+            this.parser = Jwts.parser().verifyWith(key).build();
+        }
+    }
+
+    /**
+     * @return the verified token; throws JwtException when the signature is invalid, the token is
+     *         malformed or it has expired
+     */
+    public VerifiedToken verify(String token) {
+        if (parser == null) {
+            throw new IllegalStateException("Local JWT verification is not configured");
+        }
+        Claims claims = parser.parseSignedClaims(token).getPayload();
+        if (claims.getSubject() == null) {
+            throw new JwtException("Token has no subject");
+        }
+        Object userId = claims.get(USER_ID_CLAIM);
+        return new VerifiedToken(claims.getSubject(), claims.get(ROLE_CLAIM, String.class), claims.getExpiration(),
+                userId == null ? null : userId.toString());
+    }
+}
@@ -0,0 +1,132 @@
+package com.girikgarg.uberapigateway.security;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.girikgarg.uberapigateway.config.GatewayAuthProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Short-lived cache of successful Auth Service validations, keyed by SHA-256(token) + required role.
+ *
+ * - Bounded: an access-ordered LinkedHashMap evicts the least recently used entry beyond validationCacheMaxEntries
+ * - TTL: an entry lives validationCacheTtlSeconds, capped at the token's own "exp" claim
+ * - Coalescing: concurrent misses for the same key share one in-flight Mono, so a burst of requests
+ *   with one token makes a single call to Auth Service
+ *
+ * Only successes are cached; failures and 403s always go back to Auth Service.
+ * The raw token is never stored, only its hash.
+ */
+@Component
+@Slf4j
+public class ValidationResultCache {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private final GatewayAuthProperties properties;
+    private final Map<String, CachedValidation> entries;
+    private final Map<String, Mono<VerifiedToken>> inFlight = new ConcurrentHashMap<>();
+
+    public ValidationResultCache(GatewayAuthProperties properties) {
+        this.properties = properties;
+        int maxEntries = properties.getValidationCacheMaxEntries();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedValidation> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Returns the cached validation for this token and role, or subscribes to the validator
+     * (shared with concurrent callers) and caches its result.
+     */
+    public Mono<VerifiedToken> getOrValidate(String token, String requiredRole, Supplier<Mono<VerifiedToken>> validator) {
+        if (!Boolean.TRUE.equals(properties.getValidationCacheEnabled())) {
+            return validator.get();
+        }
+
+        String key = hash(token) + ":" + requiredRole;
+        VerifiedToken cached = lookup(key);
+        if (cached != null) {
+            return Mono.just(cached);
+        }
+
+        return inFlight.computeIfAbsent(key, k -> validator.get()
+                .doOnNext(validated -> store(k, validated, token))
+                .doFinally(signal -> inFlight.remove(k))
+                .cache());
+    }
+
+    private VerifiedToken lookup(String key) {
+        CachedValidation cached;
+        synchronized (entries) {
+            cached = entries.get(key);
+            if (cached != null && cached.expiresAtMs <= System.currentTimeMillis()) {
+                entries.remove(key);
+                cached = null;
+            }
+        }
+        return cached == null ? null : cached.validated;
+    }
+
+    private void store(String key, VerifiedToken validated, String token) {
+        long expiresAtMs = System.currentTimeMillis() + properties.getValidationCacheTtlSeconds() * 1000L;
+        Long tokenExpiryMs = tokenExpiryMs(token);
+        if (tokenExpiryMs != null) {
+            expiresAtMs = Math.min(expiresAtMs, tokenExpiryMs);
+        }
+        synchronized (entries) {
+            entries.put(key, new CachedValidation(validated, expiresAtMs));
+        }
+    }
+
+    /**
+     * Reads "exp" from the token payload without verifying it - Auth Service has just validated
+     * this exact token, the expiry only bounds how long that answer is reused.
+     */
+    private static Long tokenExpiryMs(String token) {
+        try {
+            String[] parts = token.split("\\.");
+            if (parts.length < 2) {
+                return null;
+            }
+            JsonNode exp = OBJECT_MAPPER.readTree(Base64.getUrlDecoder().decode(parts[1])).get("exp");
+            return exp != null && exp.canConvertToLong() ? exp.asLong() * 1000L : null;
+        } catch (Exception e) {
+            log.debug("[AUTH] Could not read token expiry: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static final class CachedValidation {
+        private final VerifiedToken validated;
+        private final long expiresAtMs;
+
+        private CachedValidation(VerifiedToken validated, long expiresAtMs) {
+            this.validated = validated;
+            this.expiresAtMs = expiresAtMs;
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.girikgarg.uberapigateway.security;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Date;
+
+/**
+ * Result of a successful token verification: who the token belongs to, the role it was issued for
+ * (null for tokens without a role claim), when it expires (null when Auth Service validated it)
+ * and the driver / passenger id (null for tokens issued without a userId claim).
+ */
+@Getter
+@AllArgsConstructor
+public class VerifiedToken {
+    private final String email;
+    private final String role;
+    private final Date expiresAt;
+    private final String userId;
+}
@@ -0,0 +1,26 @@
+-- Token bucket in one Redis hash: KEYS[1] = bucket key
+-- ARGV[1] = replenish rate (tokens per second), ARGV[2] = burst capacity
+-- Uses the Redis clock so every gateway instance refills the bucket the same way.
+-- Returns 1 when a token was taken, 0 when the bucket is empty.
+local rate = tonumber(ARGV[1])
+local capacity = tonumber(ARGV[2])
+
+local time = redis.call('TIME')
+local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+
+local bucket = redis.call('HMGET', KEYS[1], 'tokens', 'ts')
+local tokens = tonumber(bucket[1]) or capacity
+local ts = tonumber(bucket[2]) or now
+
+tokens = math.min(capacity, tokens + math.max(0, now - ts) * rate / 1000)
+
+local allowed = 0
+if tokens >= 1 then
+    tokens = tokens - 1
+    allowed = 1
+end
+
+redis.call('HSET', KEYS[1], 'tokens', tostring(tokens), 'ts', tostring(now))
+-- Idle buckets expire once they would have refilled completely
+redis.call('PEXPIRE', KEYS[1], math.ceil(capacity / rate * 1000) + 1000)
+return allowed
@@ -0,0 +1,83 @@
+package com.girikgarg.uberauthservice.utils;
+
+import com.girikgarg.uberauthservice.config.JwtConfigurationProperties;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token validations per second on the authenticated request path.
+ * 
+ * - legacyValidateToken: the previous JWTUtil - key and parser rebuilt on every call,
+ *   the token parsed three times (email, expiration, subject check)
+ * - validateToken / verify: the current JWTUtil - cached key and parser, one parse
+ * 
+ * Run with: ./gradlew jmh
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JWTUtilBenchmark {
+
+    private static final String SECRET = "dGhpc0lzQVNlY3VyZUp3dFNlY3JldEtleUZvckhtYWMyNTZBbGdvcml0aG1EZXZlbG9wbWVudA==";
+    private static final String EMAIL = "driver@example.com";
+
+    private JWTUtil jwtUtil;
+    private String token;
+
+    @Setup
+    public void setup() {
+        JwtConfigurationProperties properties = new JwtConfigurationProperties();
+        properties.setSecret(SECRET);
+        properties.setExpiry(3600);
+        jwtUtil = new JWTUtil(properties);
+        token = jwtUtil.createToken(Map.of(JWTUtil.ROLE_CLAIM, "DRIVER"), EMAIL);
+    }
+
+    @Benchmark
+    public boolean legacyValidateToken() {
+        String email = legacyExtractAllPayloads(token).getSubject();
+        Date expiration = legacyExtractAllPayloads(token).getExpiration();
+        return legacyExtractAllPayloads(token).getSubject().equals(email) && !expiration.before(new Date());
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return jwtUtil.validateToken(token, EMAIL);
+    }
+
+    @Benchmark
+    public VerifiedToken verify() {
+        return jwtUtil.verify(token);
+    }
+
+    @SuppressWarnings("deprecation")
+    private static Claims legacyExtractAllPayloads(String token) {
+        Key signKey = Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+        return Jwts
+                .parser()
+                .setSigningKey(signKey)
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+    }
+}
@@ -21,6 +21,8 @@ import org.springframework.security.authentication.UsernamePasswordAuthenticatio
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.Map;
+
 /**
  * Auth Service controller for user authentication and registration.
  */
@@ -60,7 +62,11 @@ public class AuthController {
         AuthUserDetails userDetails = (AuthUserDetails) authentication.getPrincipal();
         log.info("Authenticated: email={}, role={}", request.getEmail(), userDetails.getRole());
         
-        String jwtToken = jwtUtil.createToken(request.getEmail());
+        // Role and user id are signed claims so the API Gateway can authorize requests without calling /validate
+        // and tell downstream services which driver / passenger the caller is
+        String jwtToken = jwtUtil.createToken(Map.of(
+                JWTUtil.ROLE_CLAIM, userDetails.getRole().name(),
+                JWTUtil.USER_ID_CLAIM, userDetails.getId()), request.getEmail());
 
             ResponseCookie cookie = ResponseCookie.from("JwtToken", jwtToken)
                                         .httpOnly(true)
@@ -95,6 +101,7 @@ public class AuthController {
         
         String userEmail = getAttributeAsString(request, "email", "Unknown");
         String userRole = getAttributeAsString(request, "role", null);
+        String userId = getAttributeAsString(request, "userId", "");
         String expectedRole = validateRequest.getRequiredRole().name();
         
         // Check if user's role matches expected role
@@ -115,6 +122,7 @@ public class AuthController {
             "valid", true,
             "email", userEmail,
             "role", userRole,
+            "userId", userId,
             "message", "Token is valid and role matches"
         ));
     }
@@ -2,6 +2,7 @@ package com.girikgarg.uberauthservice.filters;
 
 import com.girikgarg.uberauthservice.helpers.AuthUserDetails;
 import com.girikgarg.uberauthservice.utils.JWTUtil;
+import com.girikgarg.uberauthservice.utils.VerifiedToken;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.Cookie;
@@ -69,12 +70,14 @@ public class JwtAuthFilter extends OncePerRequestFilter {
         }
 
         try {
-        String email = jwtUtil.extractEmail(token);
+            // One parse checks signature and expiry; a bad or expired token throws
+            VerifiedToken verifiedToken = jwtUtil.verify(token);
+            String email = verifiedToken.getEmail();
 
-            if (email != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+            if (SecurityContextHolder.getContext().getAuthentication() == null) {
             UserDetails userDetails = userDetailsService.loadUserByUsername(email);
                 
-            if (jwtUtil.validateToken(token, userDetails.getUsername())) {
+            if (email.equals(userDetails.getUsername())) {
                     log.info("JWT token validated successfully for user: {}", email);
                     
                     UsernamePasswordAuthenticationToken authToken = 
@@ -82,10 +85,11 @@ public class JwtAuthFilter extends OncePerRequestFilter {
                     authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                     SecurityContextHolder.getContext().setAuthentication(authToken);
                     
-                    // Set email and role in request attributes for controller access
+                    // Set email, role and user id in request attributes for controller access
                     request.setAttribute("email", email);
                     if (userDetails instanceof AuthUserDetails) {
                         request.setAttribute("role", ((AuthUserDetails) userDetails).getRole().name());
+                        request.setAttribute("userId", ((AuthUserDetails) userDetails).getId());
                     }
                 } else {
                     log.warn("JWT token validation failed for user: {}", email);
@@ -2,35 +2,53 @@ package com.girikgarg.uberauthservice.utils;
 
 import com.girikgarg.uberauthservice.config.JwtConfigurationProperties;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
+import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
-import java.security.Key;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.function.Function;
 
+/**
+ * Creates and verifies JWTs.
+ * 
+ * The HMAC key and the parser are built once: JwtParser is immutable and thread-safe,
+ * so every request reuses them instead of rebuilding both per call.
+ * Use {@link #verify(String)} to check a token - it parses it exactly once.
+ */
 @Component
 @Slf4j
-@RequiredArgsConstructor
 public class JWTUtil {
+
+    public static final String ROLE_CLAIM = "role";
+    public static final String USER_ID_CLAIM = "userId";
     
     private final JwtConfigurationProperties jwtConfig;
+    private final SecretKey signKey;
+    private final JwtParser parser;
+
+    public JWTUtil(JwtConfigurationProperties jwtConfig) {
+        this.jwtConfig = jwtConfig;
+        this.signKey = Keys.hmacShaKeyFor(jwtConfig.getSecret().getBytes(StandardCharsets.UTF_8));
+        this.parser = Jwts.parser().verifyWith(signKey).build();
+    }
     
     public String createToken(Map<String, Object> payload, String email) {
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + jwtConfig.getExpiry() * 1000L);
         return Jwts.builder()
                 .claims(payload)
-                .issuedAt(new Date(System.currentTimeMillis()))
+                .issuedAt(now)
                 .expiration(expiryDate)
                 .subject(email)
-                .signWith(getSignKey())
+                .signWith(signKey)
                 .compact();
     }
 
@@ -38,13 +56,23 @@ public class JWTUtil {
         return createToken(new HashMap<>(), email);
     }
 
+    /**
+     * Verifies signature and expiry with a single parse.
+     * 
+     * @param token JWT token
+     * @return subject, role claim and expiry of the token
+     * @throws JwtException if the token is malformed, wrongly signed, expired or has no subject
+     */
+    public VerifiedToken verify(String token) {
+        Claims claims = extractAllPayloads(token);
+        if (claims.getSubject() == null) {
+            throw new JwtException("Token has no subject");
+        }
+        return new VerifiedToken(claims.getSubject(), claims.get(ROLE_CLAIM, String.class), claims.getExpiration());
+    }
+
     public Claims extractAllPayloads(String token) {
-        return Jwts
-                .parser()
-                .setSigningKey(getSignKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        return parser.parseSignedClaims(token).getPayload();
     }
 
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
@@ -69,13 +97,16 @@ public class JWTUtil {
         return extractExpiration(token).before(new Date());
     }
 
-    public Key getSignKey() {
-        return Keys.hmacShaKeyFor(jwtConfig.getSecret().getBytes(StandardCharsets.UTF_8));
+    public SecretKey getSignKey() {
+        return signKey;
     }
 
+    /**
+     * @return true if the token is validly signed, not expired and belongs to email (one parse)
+     */
     public Boolean validateToken(String token, String email) {
-        final String userEmailFetchedFromToken = extractEmail(token);
-        return (userEmailFetchedFromToken.equals(email)) && !isTokenExpired(token);
+        final Claims claims = extractAllPayloads(token);
+        return claims.getSubject().equals(email) && !claims.getExpiration().before(new Date());
     }
 
     public Object extractPayload(String token, String payloadKey) {
@@ -0,0 +1,18 @@
+package com.girikgarg.uberauthservice.utils;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Date;
+
+/**
+ * Result of {@link JWTUtil#verify(String)}: the token's subject (email), its signed role claim
+ * (null for tokens issued without one) and its expiry.
+ */
+@Getter
+@AllArgsConstructor
+public class VerifiedToken {
+    private final String email;
+    private final String role;
+    private final Date expiresAt;
+}
@@ -0,0 +1,71 @@
+package com.girikgarg.uberbookingservice.utils;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Solve time for one batch matching window of 500 bookings x 2000 drivers.
+ * The window (booking.service.batch-matching-window-ms) has to stay well above these times,
+ * otherwise windows start to queue up.
+ * 
+ * - dense: every booking can reach every driver
+ * - candidates: what the matcher builds - each booking only reaches its nearest drivers,
+ *   every other pair is UNREACHABLE
+ * 
+ * Run with: ./gradlew jmh
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HungarianSolverBenchmark {
+
+    private static final int BOOKINGS = 500;
+    private static final int DRIVERS = 2000;
+    private static final int CANDIDATES_PER_BOOKING = 10;
+
+    private double[] denseCost;
+    private double[] candidateCost;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        denseCost = new double[BOOKINGS * DRIVERS];
+        for (int i = 0; i < denseCost.length; i++) {
+            denseCost[i] = random.nextDouble() * 5.0;
+        }
+
+        random = new Random(7);
+        candidateCost = new double[BOOKINGS * DRIVERS];
+        Arrays.fill(candidateCost, HungarianSolver.UNREACHABLE);
+        for (int booking = 0; booking < BOOKINGS; booking++) {
+            for (int c = 0; c < CANDIDATES_PER_BOOKING; c++) {
+                candidateCost[booking * DRIVERS + random.nextInt(DRIVERS)] = random.nextDouble() * 5.0;
+            }
+        }
+    }
+
+    @Benchmark
+    public int[] dense() {
+        return HungarianSolver.solve(denseCost, BOOKINGS, DRIVERS);
+    }
+
+    @Benchmark
+    public int[] candidates() {
+        return HungarianSolver.solve(candidateCost, BOOKINGS, DRIVERS);
+    }
+}
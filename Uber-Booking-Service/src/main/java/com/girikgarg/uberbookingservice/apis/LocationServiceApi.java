@@ -1,7 +1,9 @@
 package com.girikgarg.uberbookingservice.apis;
 
+import com.girikgarg.uberbookingservice.dto.BookingDemandRequestDto;
 import com.girikgarg.uberbookingservice.dto.DriverLocationDto;
 import com.girikgarg.uberbookingservice.dto.NearbyDriversRequestDto;
+import com.girikgarg.uberbookingservice.dto.NearestDriversRequestDto;
 import retrofit2.Call;
 import retrofit2.http.Body;
 import retrofit2.http.POST;
@@ -32,5 +34,29 @@ public interface LocationServiceApi {
      */
     @POST("/api/location/nearby/drivers")
     Call<DriverLocationDto[]> getNearbyDrivers(@Body NearbyDriversRequestDto request);
-}
 
+    /**
+     * Fetch the k nearest drivers within a radius, sorted by distance.
+     * 
+     * @param request Contains the passenger's location, the search radius and k
+     * @return Retrofit Call object containing at most k drivers, nearest first, with distanceKm set
+     */
+    @POST("/api/location/nearest/drivers")
+    Call<DriverLocationDto[]> getNearestDrivers(@Body NearestDriversRequestDto request);
+
+    /**
+     * Count a booking waiting for a driver in the demand heatmap (idempotent).
+     * 
+     * @param request Contains the bookingId and its pickup location
+     */
+    @POST("/api/location/heatmap/demand/open")
+    Call<Boolean> openDemand(@Body BookingDemandRequestDto request);
+
+    /**
+     * Remove a booking from the demand heatmap once it no longer waits for a driver (idempotent).
+     * 
+     * @param request Contains the bookingId
+     */
+    @POST("/api/location/heatmap/demand/close")
+    Call<Boolean> closeDemand(@Body BookingDemandRequestDto request);
+}
@@ -36,5 +36,141 @@ public class BookingServiceProperties {
      * Default: 10
      */
     private Integer maxNearbyDrivers = 10;
-}
 
+    /**
+     * When enabled, Location Service starts with a small radius and widens it
+     * up to searchRadiusKm until maxNearbyDrivers drivers are found.
+     * Default: true
+     */
+    private Boolean adaptiveRadiusSearch = true;
+
+    /**
+     * Offer rides to ranked waves of nearby drivers instead of broadcasting to every driver.
+     * Default: true
+     */
+    private Boolean dispatchEnabled = true;
+
+    /**
+     * Number of drivers offered the ride in each dispatch wave.
+     * Default: 3
+     */
+    private Integer dispatchWaveSize = 3;
+
+    /**
+     * How long (in ms) a wave waits for an acceptance before the next wave is sent.
+     * Default: 15000 ms
+     */
+    private Long dispatchWaveTimeoutMs = 15000L;
+
+    /**
+     * Maximum number of waves sent for one booking.
+     * Default: 3
+     */
+    private Integer dispatchMaxWaves = 3;
+
+    /**
+     * Weight of the rating penalty ((5 - rating) / 5) against the distance term
+     * (distanceKm / searchRadiusKm) when ranking drivers. 0 ranks by distance only.
+     * Default: 0.5
+     */
+    private Double dispatchRatingWeight = 0.5;
+
+    /**
+     * Collect bookings for batchMatchingWindowMs and assign drivers to all of them at once
+     * (minimum total pickup distance) instead of dispatching each booking as it arrives.
+     * Default: false
+     */
+    private Boolean batchMatchingEnabled = false;
+
+    /**
+     * Length (in ms) of a batch matching window.
+     * Default: 2000 ms
+     */
+    private Long batchMatchingWindowMs = 2000L;
+
+    /**
+     * Maximum number of bookings matched in one window; the rest wait for the next window.
+     * Default: 500
+     */
+    private Integer batchMatchingMaxBookings = 500;
+
+    /**
+     * With batch matching, bookings still in ASSIGNING_DRIVER and not queued or dispatched on this instance
+     * are searched again once they have been idle this long (in ms). Covers bookings lost from the
+     * in-memory window by a restart after their 'booking-created' event was already acknowledged.
+     * Keep it above dispatchMaxWaves * dispatchWaveTimeoutMs so dispatches running on other instances
+     * are not duplicated.
+     * Default: 60000 ms
+     */
+    private Long stuckBookingRecoveryAfterMs = 60000L;
+
+    /**
+     * Bookings created longer ago than this (in ms) are no longer searched again.
+     * Default: 600000 ms (10 minutes)
+     */
+    private Long stuckBookingMaxAgeMs = 600000L;
+
+    /**
+     * How often (in ms) the stuck booking recovery runs.
+     * Default: 30000 ms
+     */
+    private Long stuckBookingRecoveryIntervalMs = 30000L;
+
+    /**
+     * Write a 'booking-created' event to the outbox in the booking transaction and run the driver
+     * search from the Kafka consumer, instead of calling Location Service from the request thread.
+     * Default: true
+     */
+    private Boolean outboxEnabled = true;
+
+    /**
+     * How often (in ms) the outbox relay drains unpublished events.
+     * Default: 500 ms
+     */
+    private Long outboxRelayIntervalMs = 500L;
+
+    /**
+     * Maximum number of outbox events locked and published per relay batch.
+     * Default: 100
+     */
+    private Integer outboxRelayBatchSize = 100;
+
+    /**
+     * How long (in ms) the relay waits for Kafka to acknowledge an event before retrying it later.
+     * Default: 5000 ms
+     */
+    private Long outboxSendTimeoutMs = 5000L;
+
+    /**
+     * Published outbox events are deleted after this many hours (they can be replayed until then).
+     * Default: 24 hours
+     */
+    private Long outboxRetentionHours = 24L;
+
+    /**
+     * Consume 'ride-accepted' as batches (one transaction and two IN queries per poll) instead of
+     * one transaction per event. Only one of the two listeners is started.
+     * Default: false
+     */
+    private Boolean rideAcceptedBatchEnabled = false;
+
+    /**
+     * Number of partitions of the 'booking-created' topic. Events are keyed by booking id,
+     * so partitions can be consumed in parallel while each booking's events stay in order.
+     * Default: 6
+     */
+    private Integer bookingCreatedPartitions = 6;
+
+    /**
+     * Listener threads consuming 'booking-created'; threads beyond the partition count stay idle.
+     * Default: 3
+     */
+    private Integer bookingCreatedConcurrency = 3;
+
+    /**
+     * Listener threads consuming 'ride-accepted' (partition count set by Socket Service);
+     * threads beyond the partition count stay idle.
+     * Default: 3
+     */
+    private Integer rideAcceptedConcurrency = 3;
+}
@@ -0,0 +1,65 @@
+package com.girikgarg.uberbookingservice.configuration;
+
+import com.girikgarg.uberevents.RideAcceptedEvent;
+import com.girikgarg.uberevents.serde.RideAcceptedEventDeserializer;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.config.TopicBuilder;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
+
+/**
+ * Kafka Configuration for topics owned by Booking Service.
+ * Automatically creates required Kafka topics on startup.
+ */
+@Configuration
+public class KafkaConfig {
+
+    public static final String BOOKING_CREATED_TOPIC = "booking-created";
+    public static final String RIDE_ACCEPTED_CONTAINER_FACTORY = "rideAcceptedListenerContainerFactory";
+
+    private final BookingServiceProperties properties;
+
+    public KafkaConfig(BookingServiceProperties properties) {
+        this.properties = properties;
+    }
+
+    /**
+     * Create 'booking-created' topic for new booking events.
+     * The outbox relay publishes to it (keyed by booking id) and the
+     * driver search / dispatch pipeline consumes it, one listener thread per partition
+     * (see bookingCreatedPartitions and bookingCreatedConcurrency).
+     *
+     * @return NewTopic configuration
+     */
+    @Bean
+    public NewTopic bookingCreatedTopic() {
+        return TopicBuilder.name(BOOKING_CREATED_TOPIC)
+                .partitions(properties.getBookingCreatedPartitions())
+                .replicas(1)
+                .build();
+    }
+
+    /**
+     * Listener container factory for 'ride-accepted', whose values are binary {@link RideAcceptedEvent}s.
+     * The consumer factory is deliberately not a bean, so Spring Boot keeps its String consumer factory
+     * for the other listeners. Undecodable records are handed on as null values instead of blocking the partition.
+     *
+     * @return container factory used by the ride accepted listeners
+     */
+    @Bean(RIDE_ACCEPTED_CONTAINER_FACTORY)
+    public ConcurrentKafkaListenerContainerFactory<String, RideAcceptedEvent> rideAcceptedListenerContainerFactory(
+            KafkaProperties kafkaProperties) {
+        ConcurrentKafkaListenerContainerFactory<String, RideAcceptedEvent> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(new DefaultKafkaConsumerFactory<>(
+                kafkaProperties.buildConsumerProperties(null),
+                new StringDeserializer(),
+                new ErrorHandlingDeserializer<>(new RideAcceptedEventDeserializer())));
+        return factory;
+    }
+}
@@ -0,0 +1,15 @@
+package com.girikgarg.uberbookingservice.configuration;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables Spring's scheduled task execution capability.
+ * Used by the outbox relay to drain unpublished events at a fixed delay
+ * and by the stuck booking recovery.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+
+}
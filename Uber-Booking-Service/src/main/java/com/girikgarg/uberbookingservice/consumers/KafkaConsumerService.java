@@ -1,17 +1,32 @@
 package com.girikgarg.uberbookingservice.consumers;
 
+import com.girikgarg.uberbookingservice.configuration.KafkaConfig;
+import com.girikgarg.uberbookingservice.dto.BookingCreatedEventDto;
 import com.girikgarg.uberbookingservice.repositories.BookingRepository;
 import com.girikgarg.uberbookingservice.repositories.DriverRepository;
+import com.girikgarg.uberbookingservice.services.impl.DemandHeatmapNotifier;
+import com.girikgarg.uberbookingservice.services.impl.DriverSearchPipeline;
+import com.girikgarg.uberbookingservice.services.impl.RideDispatchEngine;
+import com.girikgarg.uberbookingservice.utils.AfterCommit;
 import com.girikgarg.uberentityservice.models.Booking;
 import com.girikgarg.uberentityservice.models.BookingStatus;
 import com.girikgarg.uberentityservice.models.Driver;
+import com.girikgarg.uberevents.RideAcceptedEvent;
 import com.google.gson.Gson;
-import com.google.gson.JsonObject;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -24,11 +39,21 @@ public class KafkaConsumerService {
 
     private final BookingRepository bookingRepository;
     private final DriverRepository driverRepository;
+    private final DemandHeatmapNotifier demandHeatmapNotifier;
+    private final RideDispatchEngine rideDispatchEngine;
+    private final DriverSearchPipeline driverSearchPipeline;
     private final Gson gson;
 
-    public KafkaConsumerService(BookingRepository bookingRepository, DriverRepository driverRepository) {
+    public KafkaConsumerService(BookingRepository bookingRepository,
+                                DriverRepository driverRepository,
+                                DemandHeatmapNotifier demandHeatmapNotifier,
+                                RideDispatchEngine rideDispatchEngine,
+                                DriverSearchPipeline driverSearchPipeline) {
         this.bookingRepository = bookingRepository;
         this.driverRepository = driverRepository;
+        this.demandHeatmapNotifier = demandHeatmapNotifier;
+        this.rideDispatchEngine = rideDispatchEngine;
+        this.driverSearchPipeline = driverSearchPipeline;
         this.gson = new Gson();
     }
 
@@ -44,57 +69,172 @@ public class KafkaConsumerService {
         // Process the event here (e.g., send notifications, update analytics, trigger workflows)
     }
     
+    /**
+     * Consume booking created events relayed from the outbox and start the driver search.
+     * Replays are harmless: bookings that already left ASSIGNING_DRIVER are skipped.
+     * A failed Location Service call is rethrown so the event is redelivered.
+     * With batch matching the event is acknowledged once the booking is queued; bookings lost from the
+     * queue by a restart are picked up by StuckBookingRecovery.
+     * 
+     * @param message JSON BookingCreatedEventDto
+     */
+    @KafkaListener(topics = KafkaConfig.BOOKING_CREATED_TOPIC, groupId = "booking-service-group",
+            concurrency = "${booking.service.booking-created-concurrency:3}")
+    public void consumeBookingCreatedEvent(String message) throws IOException {
+        BookingCreatedEventDto event = gson.fromJson(message, BookingCreatedEventDto.class);
+        log.info("Received booking created event for booking {}", event.getBookingId());
+
+        Optional<Booking> bookingOptional = bookingRepository.findById(event.getBookingId());
+        if (bookingOptional.isEmpty()) {
+            log.error("Booking not found with ID: {}", event.getBookingId());
+            return;
+        }
+
+        Booking booking = bookingOptional.get();
+        if (booking.getBookingStatus() != BookingStatus.ASSIGNING_DRIVER) {
+            log.info("Booking {} is already {}, skipping driver search", booking.getId(), booking.getBookingStatus());
+            return;
+        }
+
+        driverSearchPipeline.search(booking);
+    }
+
     /**
      * Consume ride acceptance events from Socket Service.
-     * When a driver accepts a ride, this method updates the booking in the database.
+     * When a driver accepts a ride, this method assigns the driver to the booking.
+     * 
+     * The assignment is one conditional UPDATE guarded on ASSIGNING_DRIVER - no read of the booking first
+     * and no row lock held across the transaction. If the booking already left ASSIGNING_DRIVER
+     * (another driver won, or it was cancelled) zero rows are updated and the event is ignored.
      * 
-     * @param message JSON message containing bookingId and driverId
+     * Used unless booking.service.ride-accepted-batch-enabled is set, see {@link #consumeRideAcceptedEvents(List)}.
+     * 
+     * @param event ride accepted event (binary Uber Events encoding, legacy JSON also accepted)
      */
-    @KafkaListener(topics = "ride-accepted", groupId = "booking-service-group")
+    @KafkaListener(topics = "ride-accepted", groupId = "booking-service-group",
+            containerFactory = KafkaConfig.RIDE_ACCEPTED_CONTAINER_FACTORY,
+            concurrency = "${booking.service.ride-accepted-concurrency:3}",
+            autoStartup = "#{!${booking.service.ride-accepted-batch-enabled:false}}")
     @Transactional
-    public void consumeRideAcceptedEvent(String message) {
-        log.info("Received ride accepted event from Kafka: {}", message);
+    public void consumeRideAcceptedEvent(RideAcceptedEvent event) {
+        log.info("Received ride accepted event from Kafka: {}", event);
         
         try {
-            // Parse JSON message
-            JsonObject jsonObject = gson.fromJson(message, JsonObject.class);
-            Long bookingId = jsonObject.get("bookingId").getAsLong();
-            Long driverId = jsonObject.get("driverId").getAsLong();
+            Long bookingId = event.getBookingId();
+            Long driverId = event.getDriverId();
             
             log.info("Processing ride acceptance. Booking ID: {}, Driver ID: {}", bookingId, driverId);
             
-            // Find booking
-            Optional<Booking> bookingOptional = bookingRepository.findById(bookingId);
-            
-            if (bookingOptional.isEmpty()) {
-                log.error("Booking not found with ID: {}", bookingId);
+            // Checked up front: a foreign key violation on the update would leave the transaction rollback-only
+            if (!driverRepository.existsById(driverId)) {
+                log.error("Driver {} in ride accepted event does not exist, ignoring acceptance of booking {}",
+                        driverId, bookingId);
                 return;
             }
-            
-            // Find driver
-            Optional<Driver> driverOptional = driverRepository.findById(driverId);
-            
-            if (driverOptional.isEmpty()) {
-                log.error("Driver not found with ID: {}", driverId);
+            Driver driver = driverRepository.getReferenceById(driverId);
+            int updated = bookingRepository.assignDriverIfStatus(bookingId, BookingStatus.ASSIGNING_DRIVER,
+                    BookingStatus.SCHEDULED, driver, new Date());
+            if (updated == 0) {
+                log.warn("Booking {} not found or no longer assigning a driver, ignoring acceptance by driver {}",
+                        bookingId, driverId);
                 return;
             }
+
+            AfterCommit.run(() -> {
+                rideDispatchEngine.stop(bookingId);
+                demandHeatmapNotifier.bookingClosed(bookingId);
+            });
             
-            // Update booking with driver and status
-            Booking booking = bookingOptional.get();
-            Driver driver = driverOptional.get();
+            log.info("Booking updated successfully. Booking ID: {}, Status: SCHEDULED, Driver ID: {}", 
+                    bookingId, driverId);
             
+        } catch (Exception e) {
+            log.error("Error processing ride accepted event. Event: {}, Error: {}", 
+                    event, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Batch variant of {@link #consumeRideAcceptedEvent(RideAcceptedEvent)}, active when
+     * booking.service.ride-accepted-batch-enabled is true.
+     * 
+     * Handles a whole poll in one transaction:
+     * 1. Take the decoded events; the first acceptance of a booking in the poll wins, later ones are dropped
+     * 2. Load the referenced bookings and drivers with two IN queries
+     * 3. Move each booking still in ASSIGNING_DRIVER to SCHEDULED with its driver
+     * 4. Flush once - Hibernate sends the updates as a JDBC batch (hibernate.jdbc.batch_size),
+     *    each guarded by the booking version
+     * 5. After commit, stop the dispatches and close the heatmap demand of the scheduled bookings
+     * 
+     * If another writer changed one of the bookings in between, the flush fails on its version, the whole
+     * transaction rolls back and the poll is redelivered; on the retry that booking is skipped by its status.
+     * 
+     * @param records ride accepted events of one poll
+     */
+    @KafkaListener(topics = "ride-accepted", groupId = "booking-service-group", batch = "true",
+            containerFactory = KafkaConfig.RIDE_ACCEPTED_CONTAINER_FACTORY,
+            concurrency = "${booking.service.ride-accepted-concurrency:3}",
+            autoStartup = "${booking.service.ride-accepted-batch-enabled:false}")
+    @Transactional
+    public void consumeRideAcceptedEvents(List<ConsumerRecord<String, RideAcceptedEvent>> records) {
+        log.info("Received {} ride accepted events from Kafka", records.size());
+
+        // 1. Keep the first acceptance per booking (records of a booking share a partition, so in order)
+        Map<Long, Long> driverIdByBookingId = new LinkedHashMap<>();
+        for (ConsumerRecord<String, RideAcceptedEvent> record : records) {
+            RideAcceptedEvent event = record.value();
+            // Undecodable records arrive with a null value (ErrorHandlingDeserializer)
+            if (event == null || event.getBookingId() == null || event.getDriverId() == null) {
+                log.error("Skipping malformed ride accepted event at partition {} offset {}",
+                        record.partition(), record.offset());
+                continue;
+            }
+            driverIdByBookingId.putIfAbsent(event.getBookingId(), event.getDriverId());
+        }
+        if (driverIdByBookingId.isEmpty()) {
+            return;
+        }
+
+        // 2. Two IN queries for the whole poll
+        Map<Long, Booking> bookingsById = new HashMap<>();
+        for (Booking booking : bookingRepository.findAllById(driverIdByBookingId.keySet())) {
+            bookingsById.put(booking.getId(), booking);
+        }
+        Map<Long, Driver> driversById = new HashMap<>();
+        for (Driver driver : driverRepository.findAllById(new HashSet<>(driverIdByBookingId.values()))) {
+            driversById.put(driver.getId(), driver);
+        }
+
+        // 3. Apply the transitions on the managed entities
+        List<Long> scheduledBookingIds = new ArrayList<>();
+        for (Map.Entry<Long, Long> entry : driverIdByBookingId.entrySet()) {
+            Booking booking = bookingsById.get(entry.getKey());
+            Driver driver = driversById.get(entry.getValue());
+            if (booking == null || driver == null) {
+                log.error("Booking {} or driver {} not found, ignoring acceptance", entry.getKey(), entry.getValue());
+                continue;
+            }
+            if (!booking.getBookingStatus().canTransitionTo(BookingStatus.SCHEDULED)) {
+                log.warn("Booking {} is already {}, ignoring acceptance by driver {}",
+                        booking.getId(), booking.getBookingStatus(), driver.getId());
+                continue;
+            }
             booking.setBookingStatus(BookingStatus.SCHEDULED);
             booking.setDriver(driver);
-            
-            bookingRepository.save(booking);
-            
-            log.info("Booking updated successfully. Booking ID: {}, Status: SCHEDULED, Driver: {} (ID: {})", 
-                    bookingId, driver.getName(), driver.getId());
-            
-        } catch (Exception e) {
-            log.error("Error processing ride accepted event. Message: {}, Error: {}", 
-                    message, e.getMessage(), e);
+            scheduledBookingIds.add(booking.getId());
         }
+
+        // 4. One batched flush; fails here if a version check fails
+        bookingRepository.flush();
+
+        // Side effects only once the poll's transaction committed
+        AfterCommit.run(() -> {
+            for (Long bookingId : scheduledBookingIds) {
+                rideDispatchEngine.stop(bookingId);
+                demandHeatmapNotifier.bookingClosed(bookingId);
+            }
+        });
+        log.info("Scheduled {} of {} bookings from {} ride accepted events",
+                scheduledBookingIds.size(), driverIdByBookingId.size(), records.size());
     }
 }
-
@@ -0,0 +1,21 @@
+package com.girikgarg.uberbookingservice.dto;
+
+import lombok.*;
+
+/**
+ * Payload of the 'booking-created' event, written to the outbox with the booking
+ * and consumed by the driver search / dispatch pipeline.
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingCreatedEventDto {
+    private Long bookingId;
+    private Long passengerId;
+    private Double startLatitude;
+    private Double startLongitude;
+    private Double endLatitude;
+    private Double endLongitude;
+}
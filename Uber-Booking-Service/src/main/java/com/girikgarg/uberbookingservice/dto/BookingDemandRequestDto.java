@@ -0,0 +1,18 @@
+package com.girikgarg.uberbookingservice.dto;
+
+import lombok.*;
+
+/**
+ * DTO for reporting an open / closed booking to the Location Service demand heatmap.
+ * Matches the contract of Location Service API.
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingDemandRequestDto {
+    private Long bookingId;
+    private Double latitude;
+    private Double longitude;
+}
@@ -15,5 +15,6 @@ public class DriverLocationDto {
     private String driverId;
     private Double latitude;
     private Double longitude;
+    private Double distanceKm;
 }
 
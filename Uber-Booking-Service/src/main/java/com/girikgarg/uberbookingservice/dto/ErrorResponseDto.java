@@ -0,0 +1,24 @@
+package com.girikgarg.uberbookingservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Date;
+
+/**
+ * Standard error response DTO for API errors.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ErrorResponseDto {
+
+    private Date timestamp;
+    private int status;
+    private String error;
+    private String message;
+    private String path;
+}
@@ -0,0 +1,20 @@
+package com.girikgarg.uberbookingservice.dto;
+
+import lombok.*;
+
+/**
+ * DTO for requesting the k nearest drivers from Location Service.
+ * Matches the contract of Location Service API.
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class NearestDriversRequestDto {
+    private Double latitude;
+    private Double longitude;
+    private Double radiusKm;
+    private Integer k;
+    private Boolean adaptive;
+}
@@ -3,6 +3,8 @@ package com.girikgarg.uberbookingservice.dto;
 import com.girikgarg.uberentityservice.models.BookingStatus;
 import lombok.*;
 
+import java.util.List;
+
 /**
  * DTO for ride request sent to Socket Service for broadcasting to drivers.
  * Contains essential booking information needed by drivers.
@@ -20,5 +22,10 @@ public class RideRequestDto {
     private Double endLatitude;
     private Double endLongitude;
     private BookingStatus bookingStatus;
+
+    /**
+     * Drivers this offer is targeted at (one dispatch wave). Null means every connected driver.
+     */
+    private List<Long> driverIds;
 }
 
@@ -13,4 +13,5 @@ import java.util.Optional;
 public class UpdateBookingRequestDto {
     private BookingStatus status;
     private Optional<Long> driverId;
+    private Long version; // optional: version the client last saw; the update fails with 409 if it changed
 }
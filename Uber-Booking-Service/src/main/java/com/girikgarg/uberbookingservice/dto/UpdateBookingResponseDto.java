@@ -15,4 +15,5 @@ public class UpdateBookingResponseDto {
     private Long bookingId;
     private BookingStatus status;
     private Optional<Driver> driver;
+    private Long version;
 }
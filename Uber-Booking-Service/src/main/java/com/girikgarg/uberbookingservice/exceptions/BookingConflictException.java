@@ -0,0 +1,12 @@
+package com.girikgarg.uberbookingservice.exceptions;
+
+/**
+ * Exception thrown when a booking update is not allowed in the booking's current state:
+ * either the status transition is not permitted, or another writer changed the booking first.
+ */
+public class BookingConflictException extends RuntimeException {
+
+    public BookingConflictException(String message) {
+        super(message);
+    }
+}
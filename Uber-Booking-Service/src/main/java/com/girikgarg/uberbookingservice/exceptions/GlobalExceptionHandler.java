@@ -0,0 +1,39 @@
+package com.girikgarg.uberbookingservice.exceptions;
+
+import com.girikgarg.uberbookingservice.dto.ErrorResponseDto;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import java.util.Date;
+
+/**
+ * Global exception handler for booking REST controllers.
+ */
+@RestControllerAdvice
+@Slf4j
+public class GlobalExceptionHandler {
+
+    /**
+     * Handle BookingConflictException - invalid transition or concurrent update.
+     */
+    @ExceptionHandler(BookingConflictException.class)
+    public ResponseEntity<ErrorResponseDto> handleBookingConflictException(
+            BookingConflictException ex, HttpServletRequest request) {
+
+        log.warn("Booking conflict: {}", ex.getMessage());
+
+        ErrorResponseDto errorResponse = ErrorResponseDto.builder()
+                .timestamp(new Date())
+                .status(HttpStatus.CONFLICT.value())
+                .error(HttpStatus.CONFLICT.getReasonPhrase())
+                .message(ex.getMessage())
+                .path(request.getRequestURI())
+                .build();
+
+        return new ResponseEntity<>(errorResponse, HttpStatus.CONFLICT);
+    }
+}
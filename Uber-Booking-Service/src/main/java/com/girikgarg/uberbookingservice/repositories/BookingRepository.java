@@ -1,11 +1,98 @@
 package com.girikgarg.uberbookingservice.repositories;
 
 import com.girikgarg.uberentityservice.models.Booking;
+import com.girikgarg.uberentityservice.models.BookingStatus;
+import com.girikgarg.uberentityservice.models.Driver;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Status changes are single-statement conditional updates: they only apply while the booking is still
+ * in the expected status (and version), and return the number of rows changed - 0 means another writer won.
+ * Callers validate the transition with BookingStatus.canTransitionTo first, or guard on
+ * BookingStatus.allowedPredecessors when they update without reading the booking.
+ */
 @Repository
 public interface BookingRepository extends JpaRepository<Booking, Long> {
-    // Standard CRUD operations provided by JpaRepository
-    // Custom update is handled in service layer using findById() + save()
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Booking b SET b.bookingStatus = :next, b.version = b.version + 1, b.updatedAt = :now " +
+            "WHERE b.id = :id AND b.bookingStatus = :expected AND b.version = :version")
+    int updateStatus(@Param("id") Long id,
+                     @Param("expected") BookingStatus expected,
+                     @Param("version") Long version,
+                     @Param("next") BookingStatus next,
+                     @Param("now") Date now);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Booking b SET b.bookingStatus = :next, b.driver = :driver, b.version = b.version + 1, b.updatedAt = :now " +
+            "WHERE b.id = :id AND b.bookingStatus = :expected AND b.version = :version")
+    int updateStatusAndDriver(@Param("id") Long id,
+                              @Param("expected") BookingStatus expected,
+                              @Param("version") Long version,
+                              @Param("next") BookingStatus next,
+                              @Param("driver") Driver driver,
+                              @Param("now") Date now);
+
+    /**
+     * Moves the booking to next without reading it first, as long as its status is one of the allowed predecessors.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Booking b SET b.bookingStatus = :next, b.version = b.version + 1, b.updatedAt = :now " +
+            "WHERE b.id = :id AND b.bookingStatus IN :expected")
+    int updateStatusIfIn(@Param("id") Long id,
+                         @Param("expected") Collection<BookingStatus> expected,
+                         @Param("next") BookingStatus next,
+                         @Param("now") Date now);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Booking b SET b.bookingStatus = :next, b.driver = :driver, b.version = b.version + 1, b.updatedAt = :now " +
+            "WHERE b.id = :id AND b.bookingStatus IN :expected")
+    int updateStatusAndDriverIfIn(@Param("id") Long id,
+                                  @Param("expected") Collection<BookingStatus> expected,
+                                  @Param("next") BookingStatus next,
+                                  @Param("driver") Driver driver,
+                                  @Param("now") Date now);
+
+    /**
+     * Assigns a driver without reading the booking first; the status guard alone decides the winner.
+     */
+    @Modifying
+    @Query("UPDATE Booking b SET b.bookingStatus = :next, b.driver = :driver, b.version = b.version + 1, b.updatedAt = :now " +
+            "WHERE b.id = :id AND b.bookingStatus = :expected")
+    int assignDriverIfStatus(@Param("id") Long id,
+                             @Param("expected") BookingStatus expected,
+                             @Param("next") BookingStatus next,
+                             @Param("driver") Driver driver,
+                             @Param("now") Date now);
+
+    /**
+     * Bookings in the given status created after createdAfter and not modified since idleSince, oldest first.
+     */
+    @Query("SELECT b FROM Booking b WHERE b.bookingStatus = :status AND b.updatedAt < :idleSince " +
+            "AND b.createdAt > :createdAfter ORDER BY b.updatedAt")
+    List<Booking> findIdleInStatus(@Param("status") BookingStatus status,
+                                   @Param("idleSince") Date idleSince,
+                                   @Param("createdAfter") Date createdAfter,
+                                   Pageable pageable);
+
+    /**
+     * Bumps updatedAt only while the booking is still in the status and idle since idleSince;
+     * used as a claim, so a booking is picked up by one instance only.
+     */
+    @Modifying
+    @Query("UPDATE Booking b SET b.updatedAt = :now " +
+            "WHERE b.id = :id AND b.bookingStatus = :status AND b.updatedAt < :idleSince")
+    int touchIfIdle(@Param("id") Long id,
+                    @Param("status") BookingStatus status,
+                    @Param("idleSince") Date idleSince,
+                    @Param("now") Date now);
 }
@@ -0,0 +1,197 @@
+package com.girikgarg.uberbookingservice.services.impl;
+
+import com.girikgarg.uberbookingservice.configuration.BookingServiceProperties;
+import com.girikgarg.uberbookingservice.dto.DriverLocationDto;
+import com.girikgarg.uberbookingservice.utils.HungarianSolver;
+import com.girikgarg.uberentityservice.models.Booking;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Batch matching mode: instead of dispatching every booking as soon as its nearby drivers arrive,
+ * bookings are collected for batchMatchingWindowMs and matched together.
+ *
+ * Per window:
+ * 1. Drain up to batchMatchingMaxBookings queued bookings
+ * 2. Build a bookings x drivers cost matrix from the Location Service distances
+ *    (pairs where the driver was not a candidate of the booking are UNREACHABLE)
+ * 3. Solve the assignment with {@link HungarianSolver}, minimising the total pickup distance
+ * 4. Dispatch each booking with its matched driver as the first, single-driver wave;
+ *    drivers matched to other bookings of the same window are removed from its later waves
+ *
+ * Greedy per-booking dispatch gives the closest driver to whoever asked first; the window trades
+ * a couple of seconds of latency for a lower pickup-distance sum at peak.
+ */
+@Slf4j
+@Component
+public class BatchMatchingService {
+
+    private final BookingServiceProperties properties;
+    private final RideDispatchEngine rideDispatchEngine;
+
+    private final ConcurrentLinkedQueue<PendingBooking> pendingBookings = new ConcurrentLinkedQueue<>();
+    private final Set<Long> pendingBookingIds = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "batch-matching");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public BatchMatchingService(BookingServiceProperties properties, RideDispatchEngine rideDispatchEngine) {
+        this.properties = properties;
+        this.rideDispatchEngine = rideDispatchEngine;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (isEnabled()) {
+            long windowMs = properties.getBatchMatchingWindowMs();
+            scheduler.scheduleWithFixedDelay(this::matchWindow, windowMs, windowMs, TimeUnit.MILLISECONDS);
+            log.info("Batch matching enabled with a {} ms window", windowMs);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    public boolean isEnabled() {
+        return Boolean.TRUE.equals(properties.getBatchMatchingEnabled());
+    }
+
+    /**
+     * Queues a booking and its nearby drivers for the next matching window.
+     */
+    public void submit(Booking booking, DriverLocationDto[] candidates) {
+        pendingBookingIds.add(booking.getId());
+        pendingBookings.add(new PendingBooking(booking, candidates));
+    }
+
+    /**
+     * @return true while the booking waits for a matching window on this instance
+     */
+    public boolean isPending(Long bookingId) {
+        return pendingBookingIds.contains(bookingId);
+    }
+
+    void matchWindow() {
+        List<PendingBooking> window = new ArrayList<>();
+        try {
+            PendingBooking pending;
+            while (window.size() < properties.getBatchMatchingMaxBookings() && (pending = pendingBookings.poll()) != null) {
+                window.add(pending);
+            }
+            if (!window.isEmpty()) {
+                match(window);
+            }
+        } catch (Exception ex) {
+            log.error("Error running batch matching window", ex);
+        } finally {
+            for (PendingBooking pending : window) {
+                pendingBookingIds.remove(pending.booking.getId());
+            }
+        }
+    }
+
+    private void match(List<PendingBooking> window) {
+        // Column index per driver id, over every candidate of the window
+        Map<Long, Integer> columnByDriverId = new HashMap<>();
+        List<Long> driverIds = new ArrayList<>();
+        for (PendingBooking pending : window) {
+            for (DriverLocationDto candidate : pending.candidates) {
+                Long driverId = parseDriverId(candidate);
+                if (driverId != null && !columnByDriverId.containsKey(driverId)) {
+                    columnByDriverId.put(driverId, driverIds.size());
+                    driverIds.add(driverId);
+                }
+            }
+        }
+        Set<Long> dispatchable = rideDispatchEngine.filterDispatchable(driverIds);
+
+        int rows = window.size();
+        int cols = driverIds.size();
+        double[] cost = new double[rows * cols];
+        Arrays.fill(cost, HungarianSolver.UNREACHABLE);
+        for (int row = 0; row < rows; row++) {
+            for (DriverLocationDto candidate : window.get(row).candidates) {
+                Long driverId = parseDriverId(candidate);
+                if (driverId == null || !dispatchable.contains(driverId)) {
+                    continue;
+                }
+                double distanceKm = candidate.getDistanceKm() == null
+                        ? properties.getSearchRadiusKm()
+                        : candidate.getDistanceKm();
+                int cell = row * cols + columnByDriverId.get(driverId);
+                cost[cell] = Math.min(cost[cell], distanceKm);
+            }
+        }
+
+        long start = System.nanoTime();
+        int[] assignment = HungarianSolver.solve(cost, rows, cols);
+        long solveMicros = (System.nanoTime() - start) / 1000;
+
+        Long[] matchedDriverIds = new Long[rows];
+        Set<Long> matchedInWindow = new HashSet<>();
+        double totalKm = 0;
+        for (int row = 0; row < rows; row++) {
+            int column = assignment[row];
+            if (column >= 0 && cost[row * cols + column] < HungarianSolver.UNREACHABLE) {
+                matchedDriverIds[row] = driverIds.get(column);
+                matchedInWindow.add(matchedDriverIds[row]);
+                totalKm += cost[row * cols + column];
+            }
+        }
+        log.info("Matched {}/{} bookings to {} drivers in {} us, total pickup distance {} km",
+                matchedInWindow.size(), rows, cols, solveMicros, String.format("%.2f", totalKm));
+
+        for (int row = 0; row < rows; row++) {
+            PendingBooking pending = window.get(row);
+            Long matchedDriverId = matchedDriverIds[row];
+            DriverLocationDto[] fallbackCandidates = Arrays.stream(pending.candidates)
+                    .filter(candidate -> {
+                        Long driverId = parseDriverId(candidate);
+                        return driverId == null || driverId.equals(matchedDriverId) || !matchedInWindow.contains(driverId);
+                    })
+                    .toArray(DriverLocationDto[]::new);
+            try {
+                rideDispatchEngine.dispatch(pending.booking, fallbackCandidates, matchedDriverId);
+            } catch (Exception ex) {
+                log.error("Error dispatching matched booking {}", pending.booking.getId(), ex);
+            }
+        }
+    }
+
+    private static Long parseDriverId(DriverLocationDto candidate) {
+        try {
+            return Long.valueOf(candidate.getDriverId());
+        } catch (NumberFormatException ex) {
+            return null;
+        }
+    }
+
+    private static final class PendingBooking {
+        private final Booking booking;
+        private final DriverLocationDto[] candidates;
+
+        private PendingBooking(Booking booking, DriverLocationDto[] candidates) {
+            this.booking = booking;
+            this.candidates = candidates;
+        }
+    }
+}
@@ -1,31 +1,32 @@
 package com.girikgarg.uberbookingservice.services.impl;
 
-import com.girikgarg.uberbookingservice.apis.LocationServiceApi;
-import com.girikgarg.uberbookingservice.apis.UberSocketApi;
 import com.girikgarg.uberbookingservice.configuration.BookingServiceProperties;
+import com.girikgarg.uberbookingservice.configuration.KafkaConfig;
+import com.girikgarg.uberbookingservice.dto.BookingCreatedEventDto;
 import com.girikgarg.uberbookingservice.dto.CreateBookingDto;
 import com.girikgarg.uberbookingservice.dto.CreateBookingResponseDto;
-import com.girikgarg.uberbookingservice.dto.DriverLocationDto;
-import com.girikgarg.uberbookingservice.dto.NearbyDriversRequestDto;
-import com.girikgarg.uberbookingservice.dto.RideRequestDto;
 import com.girikgarg.uberbookingservice.dto.UpdateBookingRequestDto;
 import com.girikgarg.uberbookingservice.dto.UpdateBookingResponseDto;
+import com.girikgarg.uberbookingservice.exceptions.BookingConflictException;
 import com.girikgarg.uberbookingservice.repositories.BookingRepository;
 import com.girikgarg.uberbookingservice.repositories.DriverRepository;
+import com.girikgarg.uberbookingservice.repositories.OutboxEventRepository;
 import com.girikgarg.uberbookingservice.repositories.PassengerRepository;
 import com.girikgarg.uberbookingservice.services.api.BookingService;
+import com.girikgarg.uberbookingservice.utils.AfterCommit;
 import com.girikgarg.uberentityservice.models.Booking;
 import com.girikgarg.uberentityservice.models.BookingStatus;
 import com.girikgarg.uberentityservice.models.Driver;
+import com.girikgarg.uberentityservice.models.OutboxEvent;
 import com.girikgarg.uberentityservice.models.Passenger;
+import com.google.gson.Gson;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
-import retrofit2.Call;
-import retrofit2.Callback;
-import retrofit2.Response;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.util.Map;
+import java.util.Date;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * Implementation of BookingService.
@@ -34,9 +35,11 @@ import java.util.Optional;
  * Flow:
  * 1. Validate passenger exists
  * 2. Create booking with ASSIGNING_DRIVER status
- * 3. Call Location Service to get nearby drivers (within 5km)
- * 4. Log available drivers (Future: Send WebSocket requests)
- * 5. Return booking response
+ * 3. In the same transaction, write a 'booking-created' event to the outbox
+ * 4. Return booking response
+ * 
+ * OutboxRelay publishes the event to Kafka and the 'booking-created' consumer runs DriverSearchPipeline:
+ * nearest drivers from Location Service, then RideDispatchEngine offers the ride in ranked waves.
  */
 @Service
 @Slf4j
@@ -45,25 +48,34 @@ public class BookingServiceImpl implements BookingService {
     private final PassengerRepository passengerRepository;
     private final BookingRepository bookingRepository;
     private final DriverRepository driverRepository;
+    private final OutboxEventRepository outboxEventRepository;
     private final BookingServiceProperties properties;
-    private final LocationServiceApi locationServiceApi;
-    private final UberSocketApi uberSocketApi;
+    private final DriverSearchPipeline driverSearchPipeline;
+    private final DemandHeatmapNotifier demandHeatmapNotifier;
+    private final RideDispatchEngine rideDispatchEngine;
+    private final Gson gson;
 
     public BookingServiceImpl(PassengerRepository passengerRepository, 
                               BookingRepository bookingRepository,
                               DriverRepository driverRepository,
+                              OutboxEventRepository outboxEventRepository,
                               BookingServiceProperties properties,
-                              LocationServiceApi locationServiceApi,
-                              UberSocketApi uberSocketApi) {
+                              DriverSearchPipeline driverSearchPipeline,
+                              DemandHeatmapNotifier demandHeatmapNotifier,
+                              RideDispatchEngine rideDispatchEngine) {
         this.passengerRepository = passengerRepository;
         this.bookingRepository = bookingRepository;
         this.driverRepository = driverRepository;
+        this.outboxEventRepository = outboxEventRepository;
         this.properties = properties;
-        this.locationServiceApi = locationServiceApi;
-        this.uberSocketApi = uberSocketApi;
+        this.driverSearchPipeline = driverSearchPipeline;
+        this.demandHeatmapNotifier = demandHeatmapNotifier;
+        this.rideDispatchEngine = rideDispatchEngine;
+        this.gson = new Gson();
     }
 
     @Override
+    @Transactional
     public CreateBookingResponseDto create(CreateBookingDto bookingDetails) {
         log.info("Creating booking for passenger: {}", bookingDetails.getPassengerId());
         
@@ -88,17 +100,13 @@ public class BookingServiceImpl implements BookingService {
         Booking savedBooking = bookingRepository.save(booking);
         log.info("Booking created with ID: {} and status: {}", savedBooking.getId(), savedBooking.getBookingStatus());
 
-        // 3. Call Location Service to fetch nearby drivers asynchronously using Retrofit
-        NearbyDriversRequestDto request = NearbyDriversRequestDto.builder()
-                .latitude(bookingDetails.getStartLocation().getLatitude())
-                .longitude(bookingDetails.getStartLocation().getLongitude())
-                .build();
-
-        log.info("Fetching nearby drivers for location: ({}, {})", 
-                request.getLatitude(), request.getLongitude());
-        
-        // Async call - won't block booking creation
-        processNearbyDriversAsync(request, savedBooking);
+        // 3. Start the driver search: via the outbox (same transaction, relayed to 'booking-created'),
+        //    or by calling Location Service directly once the booking is committed when the outbox is disabled
+        if (Boolean.TRUE.equals(properties.getOutboxEnabled())) {
+            outboxEventRepository.save(bookingCreatedEvent(savedBooking));
+        } else {
+            AfterCommit.run(() -> driverSearchPipeline.searchAsync(savedBooking));
+        }
 
         // 4. Return booking response (driver will be null until assigned)
         return CreateBookingResponseDto.builder()
@@ -113,29 +121,26 @@ public class BookingServiceImpl implements BookingService {
      * Typically called when a driver accepts a ride request.
      * 
      * Flow:
-     * 1. Validate booking exists
-     * 2. Validate driver exists (if provided)
-     * 3. Update booking status and driver
-     * 4. Save and return updated booking
+     * 1. Validate driver exists (if provided)
+     * 2. Without a version: a single UPDATE guarded on the statuses allowed to move to the requested one
+     *    (see BookingStatus), and the booking is only read back to build the response
+     * 3. With a version: validate the booking is at that version and the transition is allowed, then apply
+     *    the change with a conditional UPDATE on the status and version that were read
+     * 4. Zero rows updated means the booking is missing, in a status that cannot move there, or another
+     *    writer changed it first - reject with not found or a conflict
      */
     @Override
+    @Transactional
     public UpdateBookingResponseDto update(UpdateBookingRequestDto requestDto, Long bookingId) {
         log.info("Updating booking {} with status: {}", bookingId, requestDto.getStatus());
-        
-        // 1. Validate booking exists
-        Optional<Booking> bookingOpt = bookingRepository.findById(bookingId);
-        if (bookingOpt.isEmpty()) {
-            log.error("Booking not found: {}", bookingId);
-            throw new RuntimeException("Booking not found with ID: " + bookingId);
+
+        BookingStatus nextStatus = requestDto.getStatus();
+        if (nextStatus == null) {
+            throw new BookingConflictException("Booking " + bookingId + " update has no status");
         }
-        
-        Booking booking = bookingOpt.get();
-        log.info("Found booking: {} with current status: {}", booking.getId(), booking.getBookingStatus());
-        
-        // 2. Update booking status
-        booking.setBookingStatus(requestDto.getStatus());
-        
-        // 3. Update driver if provided
+
+        // 1. Resolve driver if provided
+        Driver driver = null;
         if (requestDto.getDriverId() != null && requestDto.getDriverId().isPresent()) {
             Long driverId = requestDto.getDriverId().get();
             log.info("Assigning driver {} to booking {}", driverId, bookingId);
@@ -145,96 +150,113 @@ public class BookingServiceImpl implements BookingService {
                 log.error("Driver not found: {}", driverId);
                 throw new RuntimeException("Driver not found with ID: " + driverId);
             }
-            
-            Driver driver = driverOpt.get();
-            booking.setDriver(driver);
-            log.info("Driver {} assigned to booking {}", driver.getId(), booking.getId());
+            driver = driverOpt.get();
         } else {
             log.info("No driver change requested for booking {}", bookingId);
         }
-        
-        // 4. Save updated booking
-        Booking updatedBooking = bookingRepository.save(booking);
-        log.info("Booking {} updated successfully with status: {}", 
-                updatedBooking.getId(), updatedBooking.getBookingStatus());
-        
-        // 5. Return response
-        return UpdateBookingResponseDto.builder()
-                .bookingId(updatedBooking.getId())
-                .status(updatedBooking.getBookingStatus())
-                .driver(Optional.ofNullable(updatedBooking.getDriver()))
-                .build();
+
+        // 2./3. Conditional write - only applies if the booking may still move to nextStatus
+        UpdateBookingResponseDto response = requestDto.getVersion() == null
+                ? updateFromAllowedStatus(bookingId, nextStatus, driver)
+                : updateAtVersion(bookingId, requestDto.getVersion(), nextStatus, driver);
+
+        // Only once committed - a rolled back update must not end the dispatch or the heatmap demand
+        if (nextStatus != BookingStatus.ASSIGNING_DRIVER) {
+            AfterCommit.run(() -> {
+                demandHeatmapNotifier.bookingClosed(bookingId);
+                rideDispatchEngine.stop(bookingId);
+            });
+        }
+        return response;
     }
 
-    private void processNearbyDriversAsync(NearbyDriversRequestDto requestDto, Booking booking) {
-        Call<DriverLocationDto[]> call = locationServiceApi.getNearbyDrivers(requestDto);
-        call.enqueue(new Callback<DriverLocationDto[]>() {
-            @Override
-            public void onResponse(Call<DriverLocationDto[]> call, Response<DriverLocationDto[]> response) {
-                if (response.isSuccessful() && response.body() != null) {
-                    DriverLocationDto[] nearbyDrivers = response.body();
-                    log.info("Found {} nearby drivers", nearbyDrivers.length);
-                    
-                    // Log available drivers
-                    for (DriverLocationDto driver : nearbyDrivers) {
-                        log.info("Driver {} at location: ({}, {})", 
-                                driver.getDriverId(), 
-                                driver.getLatitude(), 
-                                driver.getLongitude());
-                    }
-                    
-                    // Send ride request to Socket Service for broadcasting to drivers
-                    if (nearbyDrivers.length > 0) {
-                        sendRideRequestToSocketService(booking);
-                    } else {
-                        log.warn("No nearby drivers found for booking {}", booking.getId());
-                    }
-                }
-            }
+    /**
+     * One UPDATE guarded on the allowed predecessors of nextStatus; the booking is read only afterwards.
+     */
+    private UpdateBookingResponseDto updateFromAllowedStatus(Long bookingId, BookingStatus nextStatus, Driver driver) {
+        Set<BookingStatus> predecessors = BookingStatus.allowedPredecessors(nextStatus);
+        Date now = new Date();
+        int updated = predecessors.isEmpty() ? 0 : driver != null
+                ? bookingRepository.updateStatusAndDriverIfIn(bookingId, predecessors, nextStatus, driver, now)
+                : bookingRepository.updateStatusIfIn(bookingId, predecessors, nextStatus, now);
 
-            @Override
-            public void onFailure(Call<DriverLocationDto[]> call, Throwable t) {
-                log.error("Failed to fetch nearby drivers: {}", t.getMessage(), t);
-            }
-        });
+        Booking booking = bookingRepository.findById(bookingId)
+                .orElseThrow(() -> {
+                    log.error("Booking not found: {}", bookingId);
+                    return new RuntimeException("Booking not found with ID: " + bookingId);
+                });
+        if (updated == 0) {
+            throw new BookingConflictException("Booking " + bookingId + " cannot move from " + booking.getBookingStatus()
+                    + " to " + nextStatus + ", allowed: " + booking.getBookingStatus().allowedTransitions());
+        }
+        log.info("Booking {} updated successfully to {} (version {})", bookingId, nextStatus, booking.getVersion());
+
+        return UpdateBookingResponseDto.builder()
+                .bookingId(bookingId)
+                .status(booking.getBookingStatus())
+                .driver(Optional.ofNullable(booking.getDriver()))
+                .version(booking.getVersion())
+                .build();
     }
-    
+
     /**
-     * Sends ride request to Socket Service for broadcasting to connected drivers.
-     * Uses Retrofit for async HTTP communication with service discovery via Eureka.
+     * Reads the booking, checks the expected version and the transition, then updates guarded on
+     * the status and version that were read.
      */
-    private void sendRideRequestToSocketService(Booking booking) {
-        // Prepare ride request DTO
-        RideRequestDto rideRequest = RideRequestDto.builder()
+    private UpdateBookingResponseDto updateAtVersion(Long bookingId, Long expectedVersion, BookingStatus nextStatus,
+                                                     Driver driver) {
+        Optional<Booking> bookingOpt = bookingRepository.findById(bookingId);
+        if (bookingOpt.isEmpty()) {
+            log.error("Booking not found: {}", bookingId);
+            throw new RuntimeException("Booking not found with ID: " + bookingId);
+        }
+
+        Booking booking = bookingOpt.get();
+        BookingStatus currentStatus = booking.getBookingStatus();
+        Long currentVersion = booking.getVersion();
+        log.info("Found booking: {} with current status: {} (version {})", booking.getId(), currentStatus, currentVersion);
+
+        if (!expectedVersion.equals(currentVersion)) {
+            throw new BookingConflictException("Booking " + bookingId + " is at version " + currentVersion
+                    + ", not " + expectedVersion);
+        }
+        if (!currentStatus.canTransitionTo(nextStatus)) {
+            throw new BookingConflictException("Booking " + bookingId + " cannot move from " + currentStatus
+                    + " to " + nextStatus + ", allowed: " + currentStatus.allowedTransitions());
+        }
+
+        Date now = new Date();
+        int updated = driver != null
+                ? bookingRepository.updateStatusAndDriver(bookingId, currentStatus, currentVersion, nextStatus, driver, now)
+                : bookingRepository.updateStatus(bookingId, currentStatus, currentVersion, nextStatus, now);
+        if (updated == 0) {
+            throw new BookingConflictException("Booking " + bookingId + " was modified concurrently, reload and retry");
+        }
+        log.info("Booking {} updated successfully: {} -> {}", bookingId, currentStatus, nextStatus);
+
+        return UpdateBookingResponseDto.builder()
+                .bookingId(bookingId)
+                .status(nextStatus)
+                .driver(Optional.ofNullable(driver != null ? driver : booking.getDriver()))
+                .version(currentVersion + 1)
+                .build();
+    }
+
+    private OutboxEvent bookingCreatedEvent(Booking booking) {
+        BookingCreatedEventDto event = BookingCreatedEventDto.builder()
                 .bookingId(booking.getId())
                 .passengerId(booking.getPassenger().getId())
                 .startLatitude(booking.getStartLocation().getLatitude())
                 .startLongitude(booking.getStartLocation().getLongitude())
                 .endLatitude(booking.getEndLocation().getLatitude())
                 .endLongitude(booking.getEndLocation().getLongitude())
-                .bookingStatus(booking.getBookingStatus())
                 .build();
-        
-        log.info("📞 Calling Socket Service via Retrofit (Eureka-discovered) to broadcast ride request");
-        log.info("   Booking ID: {}, Passenger ID: {}", booking.getId(), booking.getPassenger().getId());
-        
-        // Make async call to Socket Service using Retrofit
-        Call<Map<String, String>> call = uberSocketApi.raiseRideRequest(rideRequest);
-        call.enqueue(new Callback<Map<String, String>>() {
-            @Override
-            public void onResponse(Call<Map<String, String>> call, Response<Map<String, String>> response) {
-                if (response.isSuccessful() && response.body() != null) {
-                    log.info("✅ Socket Service responded successfully: {}", response.code());
-                    log.info("   Response: {}", response.body());
-                } else {
-                    log.error("❌ Socket Service returned error: {}", response.code());
-                }
-            }
 
-            @Override
-            public void onFailure(Call<Map<String, String>> call, Throwable t) {
-                log.error("❌ Failed to send ride request to Socket Service: {}", t.getMessage(), t);
-            }
-        });
+        return OutboxEvent.builder()
+                .aggregateType("Booking")
+                .aggregateId(booking.getId())
+                .topic(KafkaConfig.BOOKING_CREATED_TOPIC)
+                .payload(gson.toJson(event))
+                .build();
     }
 }
@@ -0,0 +1,59 @@
+package com.girikgarg.uberbookingservice.services.impl;
+
+import com.girikgarg.uberbookingservice.apis.LocationServiceApi;
+import com.girikgarg.uberbookingservice.dto.BookingDemandRequestDto;
+import com.girikgarg.uberentityservice.models.Booking;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+/**
+ * Reports booking demand to the Location Service heatmap.
+ * A booking is counted while it is ASSIGNING_DRIVER; both calls are idempotent on the
+ * Location Service side, so they can be sent from every place that changes the status.
+ * Calls are async and failures only logged - the heatmap must never block a booking.
+ */
+@Slf4j
+@Component
+public class DemandHeatmapNotifier {
+
+    private final LocationServiceApi locationServiceApi;
+
+    public DemandHeatmapNotifier(LocationServiceApi locationServiceApi) {
+        this.locationServiceApi = locationServiceApi;
+    }
+
+    public void bookingOpened(Booking booking) {
+        BookingDemandRequestDto request = BookingDemandRequestDto.builder()
+                .bookingId(booking.getId())
+                .latitude(booking.getStartLocation().getLatitude())
+                .longitude(booking.getStartLocation().getLongitude())
+                .build();
+        enqueue(locationServiceApi.openDemand(request), "open", booking.getId());
+    }
+
+    public void bookingClosed(Long bookingId) {
+        BookingDemandRequestDto request = BookingDemandRequestDto.builder()
+                .bookingId(bookingId)
+                .build();
+        enqueue(locationServiceApi.closeDemand(request), "close", bookingId);
+    }
+
+    private void enqueue(Call<Boolean> call, String action, Long bookingId) {
+        call.enqueue(new Callback<Boolean>() {
+            @Override
+            public void onResponse(Call<Boolean> call, Response<Boolean> response) {
+                if (!response.isSuccessful()) {
+                    log.warn("Heatmap demand {} for booking {} returned {}", action, bookingId, response.code());
+                }
+            }
+
+            @Override
+            public void onFailure(Call<Boolean> call, Throwable t) {
+                log.warn("Failed to {} heatmap demand for booking {}: {}", action, bookingId, t.getMessage());
+            }
+        });
+    }
+}
@@ -0,0 +1,164 @@
+package com.girikgarg.uberbookingservice.services.impl;
+
+import com.girikgarg.uberbookingservice.apis.LocationServiceApi;
+import com.girikgarg.uberbookingservice.apis.UberSocketApi;
+import com.girikgarg.uberbookingservice.configuration.BookingServiceProperties;
+import com.girikgarg.uberbookingservice.dto.DriverLocationDto;
+import com.girikgarg.uberbookingservice.dto.NearestDriversRequestDto;
+import com.girikgarg.uberbookingservice.dto.RideRequestDto;
+import com.girikgarg.uberentityservice.models.Booking;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Driver search for a new booking: report demand to the heatmap, fetch the nearest drivers
+ * from Location Service and hand them to batch matching, the dispatch engine or the broadcast.
+ *
+ * {@link #search(Booking)} is the path used by the 'booking-created' consumer: the Location Service
+ * call is synchronous and failures are thrown, so Kafka redelivers the event.
+ * {@link #searchAsync(Booking)} keeps the fire-and-forget path for when the outbox is disabled.
+ */
+@Slf4j
+@Component
+public class DriverSearchPipeline {
+
+    private final BookingServiceProperties properties;
+    private final LocationServiceApi locationServiceApi;
+    private final UberSocketApi uberSocketApi;
+    private final DemandHeatmapNotifier demandHeatmapNotifier;
+    private final RideDispatchEngine rideDispatchEngine;
+    private final BatchMatchingService batchMatchingService;
+
+    public DriverSearchPipeline(BookingServiceProperties properties,
+                                LocationServiceApi locationServiceApi,
+                                UberSocketApi uberSocketApi,
+                                DemandHeatmapNotifier demandHeatmapNotifier,
+                                RideDispatchEngine rideDispatchEngine,
+                                BatchMatchingService batchMatchingService) {
+        this.properties = properties;
+        this.locationServiceApi = locationServiceApi;
+        this.uberSocketApi = uberSocketApi;
+        this.demandHeatmapNotifier = demandHeatmapNotifier;
+        this.rideDispatchEngine = rideDispatchEngine;
+        this.batchMatchingService = batchMatchingService;
+    }
+
+    /**
+     * Runs the driver search, blocking on Location Service.
+     *
+     * @throws IOException when Location Service cannot be reached or answers with an error
+     */
+    public void search(Booking booking) throws IOException {
+        demandHeatmapNotifier.bookingOpened(booking);
+        Response<DriverLocationDto[]> response = locationServiceApi.getNearestDrivers(nearestDriversRequest(booking)).execute();
+        if (!response.isSuccessful() || response.body() == null) {
+            throw new IOException("Location Service returned " + response.code() + " for booking " + booking.getId());
+        }
+        onDriversFound(booking, response.body());
+    }
+
+    /**
+     * Runs the driver search without waiting for Location Service; failures are only logged.
+     */
+    public void searchAsync(Booking booking) {
+        demandHeatmapNotifier.bookingOpened(booking);
+        Call<DriverLocationDto[]> call = locationServiceApi.getNearestDrivers(nearestDriversRequest(booking));
+        call.enqueue(new Callback<DriverLocationDto[]>() {
+            @Override
+            public void onResponse(Call<DriverLocationDto[]> call, Response<DriverLocationDto[]> response) {
+                if (response.isSuccessful() && response.body() != null) {
+                    onDriversFound(booking, response.body());
+                }
+            }
+
+            @Override
+            public void onFailure(Call<DriverLocationDto[]> call, Throwable t) {
+                log.error("Failed to fetch nearby drivers: {}", t.getMessage(), t);
+            }
+        });
+    }
+
+    private NearestDriversRequestDto nearestDriversRequest(Booking booking) {
+        NearestDriversRequestDto request = NearestDriversRequestDto.builder()
+                .latitude(booking.getStartLocation().getLatitude())
+                .longitude(booking.getStartLocation().getLongitude())
+                .radiusKm(properties.getSearchRadiusKm())
+                .k(properties.getMaxNearbyDrivers())
+                .adaptive(properties.getAdaptiveRadiusSearch())
+                .build();
+
+        log.info("Fetching up to {} nearest drivers within {} km of location: ({}, {})", 
+                request.getK(), request.getRadiusKm(), request.getLatitude(), request.getLongitude());
+        return request;
+    }
+
+    private void onDriversFound(Booking booking, DriverLocationDto[] nearbyDrivers) {
+        log.info("Found {} nearby drivers", nearbyDrivers.length);
+        
+        // Log available drivers
+        for (DriverLocationDto driver : nearbyDrivers) {
+            log.info("Driver {} at location: ({}, {}), {} km away", 
+                    driver.getDriverId(), 
+                    driver.getLatitude(), 
+                    driver.getLongitude(),
+                    driver.getDistanceKm());
+        }
+        
+        // Offer the ride to ranked waves of drivers, or broadcast it when dispatch is disabled
+        if (nearbyDrivers.length == 0) {
+            log.warn("No nearby drivers found for booking {}", booking.getId());
+        } else if (batchMatchingService.isEnabled()) {
+            batchMatchingService.submit(booking, nearbyDrivers);
+        } else if (Boolean.TRUE.equals(properties.getDispatchEnabled())) {
+            rideDispatchEngine.dispatch(booking, nearbyDrivers);
+        } else {
+            sendRideRequestToSocketService(booking);
+        }
+    }
+    
+    /**
+     * Sends ride request to Socket Service for broadcasting to connected drivers.
+     * Only used when dispatch is disabled; RideDispatchEngine sends targeted waves otherwise.
+     * Uses Retrofit for async HTTP communication with service discovery via Eureka.
+     */
+    private void sendRideRequestToSocketService(Booking booking) {
+        // Prepare ride request DTO
+        RideRequestDto rideRequest = RideRequestDto.builder()
+                .bookingId(booking.getId())
+                .passengerId(booking.getPassenger().getId())
+                .startLatitude(booking.getStartLocation().getLatitude())
+                .startLongitude(booking.getStartLocation().getLongitude())
+                .endLatitude(booking.getEndLocation().getLatitude())
+                .endLongitude(booking.getEndLocation().getLongitude())
+                .bookingStatus(booking.getBookingStatus())
+                .build();
+        
+        log.info("📞 Calling Socket Service via Retrofit (Eureka-discovered) to broadcast ride request");
+        log.info("   Booking ID: {}, Passenger ID: {}", booking.getId(), booking.getPassenger().getId());
+        
+        // Make async call to Socket Service using Retrofit
+        Call<Map<String, String>> call = uberSocketApi.raiseRideRequest(rideRequest);
+        call.enqueue(new Callback<Map<String, String>>() {
+            @Override
+            public void onResponse(Call<Map<String, String>> call, Response<Map<String, String>> response) {
+                if (response.isSuccessful() && response.body() != null) {
+                    log.info("✅ Socket Service responded successfully: {}", response.code());
+                    log.info("   Response: {}", response.body());
+                } else {
+                    log.error("❌ Socket Service returned error: {}", response.code());
+                }
+            }
+
+            @Override
+            public void onFailure(Call<Map<String, String>> call, Throwable t) {
+                log.error("❌ Failed to send ride request to Socket Service: {}", t.getMessage(), t);
+            }
+        });
+    }
+}
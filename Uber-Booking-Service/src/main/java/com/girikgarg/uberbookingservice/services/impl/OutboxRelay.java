@@ -0,0 +1,116 @@
+package com.girikgarg.uberbookingservice.services.impl;
+
+import com.girikgarg.uberbookingservice.configuration.BookingServiceProperties;
+import com.girikgarg.uberbookingservice.repositories.OutboxEventRepository;
+import com.girikgarg.uberentityservice.models.OutboxEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes outbox events to Kafka.
+ *
+ * Each batch runs in its own transaction: the oldest unpublished rows are locked
+ * (FOR UPDATE SKIP LOCKED, so several instances never relay the same row), sent to Kafka
+ * keyed by aggregate id, and marked published once the broker acknowledged them.
+ * A row whose send fails stays unpublished and is retried on the next run, so delivery
+ * is at-least-once and consumers must tolerate duplicates.
+ */
+@Slf4j
+@Component
+public class OutboxRelay {
+
+    /**
+     * Upper bound on batches per run so one run never monopolises the scheduler thread.
+     */
+    private static final int MAX_BATCHES_PER_RUN = 20;
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final BookingServiceProperties properties;
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository,
+                       KafkaTemplate<String, String> kafkaTemplate,
+                       TransactionTemplate transactionTemplate,
+                       BookingServiceProperties properties) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.kafkaTemplate = kafkaTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.properties = properties;
+    }
+
+    @Scheduled(fixedDelayString = "${booking.service.outbox-relay-interval-ms:500}")
+    public void relay() {
+        if (!Boolean.TRUE.equals(properties.getOutboxEnabled())) {
+            return;
+        }
+        try {
+            int batchSize = properties.getOutboxRelayBatchSize();
+            int relayed = 0;
+            for (int batch = 0; batch < MAX_BATCHES_PER_RUN; batch++) {
+                Integer published = transactionTemplate.execute(status -> relayBatch(batchSize));
+                relayed += published == null ? 0 : published;
+                if (published == null || published < batchSize) {
+                    break;
+                }
+            }
+            if (relayed > 0) {
+                log.info("Relayed {} outbox events to Kafka", relayed);
+            }
+        } catch (Exception ex) {
+            log.error("Error relaying outbox events", ex);
+        }
+    }
+
+    @Scheduled(fixedDelay = 3600000)
+    public void purgePublished() {
+        try {
+            Date cutoff = new Date(System.currentTimeMillis() - properties.getOutboxRetentionHours() * 3600_000L);
+            Integer deleted = transactionTemplate.execute(status -> outboxEventRepository.deletePublishedBefore(cutoff));
+            if (deleted != null && deleted > 0) {
+                log.info("Purged {} published outbox events older than {} h", deleted, properties.getOutboxRetentionHours());
+            }
+        } catch (Exception ex) {
+            log.error("Error purging published outbox events", ex);
+        }
+    }
+
+    private int relayBatch(int batchSize) {
+        List<OutboxEvent> events = outboxEventRepository.findUnpublishedForUpdate(PageRequest.of(0, batchSize));
+        if (events.isEmpty()) {
+            return 0;
+        }
+
+        // Send the whole batch first so the producer can batch it, then wait for the acks
+        List<CompletableFuture<SendResult<String, String>>> sends = new ArrayList<>(events.size());
+        for (OutboxEvent event : events) {
+            sends.add(kafkaTemplate.send(event.getTopic(), String.valueOf(event.getAggregateId()), event.getPayload()));
+        }
+
+        Date publishedAt = new Date();
+        int published = 0;
+        for (int i = 0; i < events.size(); i++) {
+            OutboxEvent event = events.get(i);
+            try {
+                sends.get(i).get(properties.getOutboxSendTimeoutMs(), TimeUnit.MILLISECONDS);
+                event.setPublishedAt(publishedAt);
+                published++;
+            } catch (Exception ex) {
+                log.warn("Outbox event {} for {} {} not published, will retry: {}",
+                        event.getId(), event.getAggregateType(), event.getAggregateId(), ex.getMessage());
+            }
+        }
+        return published;
+    }
+}
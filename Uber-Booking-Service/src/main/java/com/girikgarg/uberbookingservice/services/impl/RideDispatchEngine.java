@@ -0,0 +1,290 @@
+package com.girikgarg.uberbookingservice.services.impl;
+
+import com.girikgarg.uberbookingservice.apis.UberSocketApi;
+import com.girikgarg.uberbookingservice.configuration.BookingServiceProperties;
+import com.girikgarg.uberbookingservice.dto.DriverLocationDto;
+import com.girikgarg.uberbookingservice.dto.RideRequestDto;
+import com.girikgarg.uberbookingservice.repositories.BookingRepository;
+import com.girikgarg.uberbookingservice.repositories.DriverRepository;
+import com.girikgarg.uberentityservice.models.Booking;
+import com.girikgarg.uberentityservice.models.BookingStatus;
+import com.girikgarg.uberentityservice.models.Driver;
+import com.girikgarg.uberentityservice.models.DriverApprovalStatus;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Offers a booking to a ranked subset of nearby drivers instead of broadcasting it to everyone.
+ *
+ * Flow:
+ * 1. Load the candidates returned by Location Service and drop unknown, unapproved or unavailable drivers
+ * 2. Rank them by distance and rating (lower score first)
+ * 3. Send the top dispatchWaveSize drivers a targeted ride request
+ * 4. If nobody accepts within dispatchWaveTimeoutMs, send the next wave, up to dispatchMaxWaves
+ * 5. Stop as soon as the booking leaves ASSIGNING_DRIVER (accepted, cancelled, ...)
+ *
+ * Dispatch state is per instance. Before every follow-up wave the booking status is re-read
+ * from the database, so an acceptance handled by another instance also ends the dispatch.
+ */
+@Slf4j
+@Component
+public class RideDispatchEngine {
+
+    private static final double MAX_RATING = 5.0;
+
+    private final BookingRepository bookingRepository;
+    private final DriverRepository driverRepository;
+    private final BookingServiceProperties properties;
+    private final UberSocketApi uberSocketApi;
+
+    private final Map<Long, Dispatch> activeDispatches = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "ride-dispatch");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public RideDispatchEngine(BookingRepository bookingRepository,
+                              DriverRepository driverRepository,
+                              BookingServiceProperties properties,
+                              UberSocketApi uberSocketApi) {
+        this.bookingRepository = bookingRepository;
+        this.driverRepository = driverRepository;
+        this.properties = properties;
+        this.uberSocketApi = uberSocketApi;
+    }
+
+    /**
+     * Ranks the candidates and sends the first wave of offers for the booking.
+     */
+    public void dispatch(Booking booking, DriverLocationDto[] candidates) {
+        dispatch(booking, candidates, null);
+    }
+
+    /**
+     * Same as {@link #dispatch(Booking, DriverLocationDto[])}, but when matchedDriverId is set the first
+     * wave is offered to that driver alone (the batch matcher's assignment), and later waves fall back to
+     * the ranked candidates.
+     */
+    public void dispatch(Booking booking, DriverLocationDto[] candidates, Long matchedDriverId) {
+        List<Long> rankedDriverIds = rank(candidates);
+        int firstWaveSize = properties.getDispatchWaveSize();
+        if (matchedDriverId != null) {
+            rankedDriverIds.remove(matchedDriverId);
+            rankedDriverIds.add(0, matchedDriverId);
+            firstWaveSize = 1;
+        }
+        if (rankedDriverIds.isEmpty()) {
+            log.warn("No available drivers to dispatch booking {} to", booking.getId());
+            return;
+        }
+
+        // Built once here - later waves run on the scheduler thread, outside any persistence context
+        RideRequestDto rideRequest = RideRequestDto.builder()
+                .bookingId(booking.getId())
+                .passengerId(booking.getPassenger().getId())
+                .startLatitude(booking.getStartLocation().getLatitude())
+                .startLongitude(booking.getStartLocation().getLongitude())
+                .endLatitude(booking.getEndLocation().getLatitude())
+                .endLongitude(booking.getEndLocation().getLongitude())
+                .bookingStatus(booking.getBookingStatus())
+                .build();
+
+        Dispatch dispatch = new Dispatch(rideRequest, rankedDriverIds, firstWaveSize);
+        Dispatch previous = activeDispatches.put(booking.getId(), dispatch);
+        if (previous != null) {
+            previous.cancel();
+        }
+
+        log.info("Dispatching booking {} to {} ranked drivers in waves of {}",
+                booking.getId(), rankedDriverIds.size(), properties.getDispatchWaveSize());
+        sendNextWave(booking.getId(), dispatch);
+    }
+
+    /**
+     * Returns the ids that belong to approved drivers who are currently available.
+     */
+    public Set<Long> filterDispatchable(Collection<Long> driverIds) {
+        Set<Long> dispatchable = new HashSet<>();
+        for (Driver driver : driverRepository.findAllById(driverIds)) {
+            if (isDispatchable(driver)) {
+                dispatchable.add(driver.getId());
+            }
+        }
+        return dispatchable;
+    }
+
+    /**
+     * @return true while waves of the booking are being sent from this instance
+     */
+    public boolean isDispatching(Long bookingId) {
+        return activeDispatches.containsKey(bookingId);
+    }
+
+    /**
+     * Ends the dispatch for a booking - called once a driver accepted or the booking left ASSIGNING_DRIVER.
+     */
+    public void stop(Long bookingId) {
+        Dispatch dispatch = activeDispatches.remove(bookingId);
+        if (dispatch != null) {
+            dispatch.cancel();
+            log.info("Dispatch stopped for booking {} after {} wave(s)", bookingId, dispatch.wavesSent);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * Keeps approved, available drivers and sorts them by
+     * distanceKm / searchRadiusKm + dispatchRatingWeight * (5 - rating) / 5.
+     */
+    List<Long> rank(DriverLocationDto[] candidates) {
+        Map<Long, Double> distanceByDriverId = new HashMap<>();
+        for (DriverLocationDto candidate : candidates) {
+            try {
+                distanceByDriverId.putIfAbsent(Long.valueOf(candidate.getDriverId()), candidate.getDistanceKm());
+            } catch (NumberFormatException ex) {
+                log.warn("Skipping candidate with non-numeric driver id: {}", candidate.getDriverId());
+            }
+        }
+        if (distanceByDriverId.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        double radiusKm = properties.getSearchRadiusKm();
+        double ratingWeight = properties.getDispatchRatingWeight();
+        Map<Long, Double> scoreByDriverId = new HashMap<>();
+        for (Driver driver : driverRepository.findAllById(distanceByDriverId.keySet())) {
+            if (!isDispatchable(driver)) {
+                continue;
+            }
+            Double distanceKm = distanceByDriverId.get(driver.getId());
+            double distanceScore = distanceKm == null ? 1.0 : distanceKm / radiusKm;
+            double rating = driver.getRating() == null ? 0.0 : driver.getRating();
+            scoreByDriverId.put(driver.getId(), distanceScore + ratingWeight * (MAX_RATING - rating) / MAX_RATING);
+        }
+
+        List<Long> ranked = new ArrayList<>(scoreByDriverId.keySet());
+        ranked.sort(Comparator.comparingDouble(scoreByDriverId::get));
+        return ranked;
+    }
+
+    private boolean isDispatchable(Driver driver) {
+        return driver.isAvailable() && driver.getDriverApprovalStatus() == DriverApprovalStatus.APPROVED;
+    }
+
+    private void sendNextWave(Long bookingId, Dispatch dispatch) {
+        if (activeDispatches.get(bookingId) != dispatch) {
+            return;
+        }
+
+        int from = dispatch.nextIndex;
+        if (dispatch.wavesSent >= properties.getDispatchMaxWaves() || from >= dispatch.rankedDriverIds.size()) {
+            activeDispatches.remove(bookingId, dispatch);
+            log.warn("Dispatch exhausted for booking {} after {} wave(s) without an acceptance",
+                    bookingId, dispatch.wavesSent);
+            return;
+        }
+
+        int waveSize = dispatch.wavesSent == 0 ? dispatch.firstWaveSize : properties.getDispatchWaveSize();
+        int to = Math.min(from + waveSize, dispatch.rankedDriverIds.size());
+        List<Long> wave = new ArrayList<>(dispatch.rankedDriverIds.subList(from, to));
+        dispatch.nextIndex = to;
+        dispatch.wavesSent++;
+        sendRideRequest(dispatch.rideRequest, wave, dispatch.wavesSent);
+
+        dispatch.nextWave = scheduler.schedule(() -> onWaveTimeout(bookingId, dispatch),
+                properties.getDispatchWaveTimeoutMs(), TimeUnit.MILLISECONDS);
+    }
+
+    private void onWaveTimeout(Long bookingId, Dispatch dispatch) {
+        try {
+            BookingStatus status = bookingRepository.findById(bookingId)
+                    .map(Booking::getBookingStatus)
+                    .orElse(null);
+            if (status != BookingStatus.ASSIGNING_DRIVER) {
+                log.info("Booking {} is now {}, no further dispatch waves", bookingId, status);
+                activeDispatches.remove(bookingId, dispatch);
+                return;
+            }
+            sendNextWave(bookingId, dispatch);
+        } catch (Exception ex) {
+            log.error("Error sending next dispatch wave for booking {}", bookingId, ex);
+        }
+    }
+
+    private void sendRideRequest(RideRequestDto template, List<Long> driverIds, int waveNumber) {
+        RideRequestDto rideRequest = RideRequestDto.builder()
+                .bookingId(template.getBookingId())
+                .passengerId(template.getPassengerId())
+                .startLatitude(template.getStartLatitude())
+                .startLongitude(template.getStartLongitude())
+                .endLatitude(template.getEndLatitude())
+                .endLongitude(template.getEndLongitude())
+                .bookingStatus(template.getBookingStatus())
+                .driverIds(driverIds)
+                .build();
+
+        log.info("Sending wave {} of booking {} to drivers {}", waveNumber, rideRequest.getBookingId(), driverIds);
+
+        Call<Map<String, String>> call = uberSocketApi.raiseRideRequest(rideRequest);
+        call.enqueue(new Callback<Map<String, String>>() {
+            @Override
+            public void onResponse(Call<Map<String, String>> call, Response<Map<String, String>> response) {
+                if (!response.isSuccessful()) {
+                    log.error("Socket Service returned {} for wave {} of booking {}",
+                            response.code(), waveNumber, rideRequest.getBookingId());
+                }
+            }
+
+            @Override
+            public void onFailure(Call<Map<String, String>> call, Throwable t) {
+                log.error("Failed to send wave {} of booking {}: {}",
+                        waveNumber, rideRequest.getBookingId(), t.getMessage(), t);
+            }
+        });
+    }
+
+    private static final class Dispatch {
+        private final RideRequestDto rideRequest;
+        private final List<Long> rankedDriverIds;
+        private final int firstWaveSize;
+        private volatile int nextIndex;
+        private volatile int wavesSent;
+        private volatile ScheduledFuture<?> nextWave;
+
+        private Dispatch(RideRequestDto rideRequest, List<Long> rankedDriverIds, int firstWaveSize) {
+            this.rideRequest = rideRequest;
+            this.rankedDriverIds = rankedDriverIds;
+            this.firstWaveSize = firstWaveSize;
+        }
+
+        private void cancel() {
+            ScheduledFuture<?> future = nextWave;
+            if (future != null) {
+                future.cancel(false);
+            }
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.girikgarg.uberbookingservice.services.impl;
+
+import com.girikgarg.uberbookingservice.configuration.BookingServiceProperties;
+import com.girikgarg.uberbookingservice.repositories.BookingRepository;
+import com.girikgarg.uberentityservice.models.Booking;
+import com.girikgarg.uberentityservice.models.BookingStatus;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Searches drivers again for bookings that batch matching lost.
+ *
+ * The 'booking-created' event is acknowledged once the booking is queued for a matching window, so a restart
+ * inside the window drops the booking from memory and leaves it in ASSIGNING_DRIVER with nobody dispatching it.
+ * Every run picks bookings that are still ASSIGNING_DRIVER, younger than stuckBookingMaxAgeMs, idle for
+ * stuckBookingRecoveryAfterMs and neither queued nor dispatched on this instance, and runs the driver search again.
+ *
+ * Each booking is claimed by bumping its updatedAt guarded on the idle cutoff, so only one instance recovers it
+ * and it is not picked again before another stuckBookingRecoveryAfterMs. A booking whose dispatch ran out of
+ * drivers is searched again the same way, until it reaches stuckBookingMaxAgeMs.
+ */
+@Slf4j
+@Component
+public class StuckBookingRecovery {
+
+    /**
+     * Upper bound on bookings recovered per run; each one costs a blocking Location Service call.
+     */
+    private static final int MAX_BOOKINGS_PER_RUN = 100;
+
+    private final BookingRepository bookingRepository;
+    private final BatchMatchingService batchMatchingService;
+    private final RideDispatchEngine rideDispatchEngine;
+    private final DriverSearchPipeline driverSearchPipeline;
+    private final TransactionTemplate transactionTemplate;
+    private final BookingServiceProperties properties;
+
+    public StuckBookingRecovery(BookingRepository bookingRepository,
+                                BatchMatchingService batchMatchingService,
+                                RideDispatchEngine rideDispatchEngine,
+                                DriverSearchPipeline driverSearchPipeline,
+                                TransactionTemplate transactionTemplate,
+                                BookingServiceProperties properties) {
+        this.bookingRepository = bookingRepository;
+        this.batchMatchingService = batchMatchingService;
+        this.rideDispatchEngine = rideDispatchEngine;
+        this.driverSearchPipeline = driverSearchPipeline;
+        this.transactionTemplate = transactionTemplate;
+        this.properties = properties;
+    }
+
+    @Scheduled(fixedDelayString = "${booking.service.stuck-booking-recovery-interval-ms:30000}")
+    public void recover() {
+        if (!batchMatchingService.isEnabled()) {
+            return;
+        }
+        try {
+            long now = System.currentTimeMillis();
+            Date idleSince = new Date(now - properties.getStuckBookingRecoveryAfterMs());
+            Date createdAfter = new Date(now - properties.getStuckBookingMaxAgeMs());
+            List<Booking> bookings = bookingRepository.findIdleInStatus(BookingStatus.ASSIGNING_DRIVER,
+                    idleSince, createdAfter, PageRequest.of(0, MAX_BOOKINGS_PER_RUN));
+
+            int recovered = 0;
+            for (Booking booking : bookings) {
+                if (recover(booking, idleSince)) {
+                    recovered++;
+                }
+            }
+            if (recovered > 0) {
+                log.info("Searched drivers again for {} bookings stuck in ASSIGNING_DRIVER", recovered);
+            }
+        } catch (Exception ex) {
+            log.error("Error recovering stuck bookings", ex);
+        }
+    }
+
+    private boolean recover(Booking booking, Date idleSince) {
+        Long bookingId = booking.getId();
+        if (batchMatchingService.isPending(bookingId) || rideDispatchEngine.isDispatching(bookingId)) {
+            return false;
+        }
+
+        Integer claimed = transactionTemplate.execute(status -> bookingRepository.touchIfIdle(
+                bookingId, BookingStatus.ASSIGNING_DRIVER, idleSince, new Date()));
+        if (claimed == null || claimed == 0) {
+            return false;
+        }
+
+        try {
+            log.warn("Booking {} has been waiting for a driver since {} without a dispatch, searching again",
+                    bookingId, booking.getUpdatedAt());
+            driverSearchPipeline.search(booking);
+            return true;
+        } catch (Exception ex) {
+            // Claim stays, so the booking is retried after another stuckBookingRecoveryAfterMs
+            log.error("Driver search failed for stuck booking {}", bookingId, ex);
+            return false;
+        }
+    }
+}
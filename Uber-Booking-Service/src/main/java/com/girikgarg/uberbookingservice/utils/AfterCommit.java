@@ -0,0 +1,31 @@
+package com.girikgarg.uberbookingservice.utils;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Defers side effects outside the database (dispatch, heatmap, HTTP calls) until the surrounding
+ * transaction has committed, so a rollback never leaves them acting on a change that did not happen.
+ */
+public final class AfterCommit {
+
+    private AfterCommit() {
+    }
+
+    /**
+     * Runs the action after the current transaction commits; not at all if it rolls back.
+     * Without an active transaction the action runs immediately.
+     */
+    public static void run(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
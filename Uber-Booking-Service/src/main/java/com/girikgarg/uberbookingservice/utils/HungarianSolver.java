@@ -0,0 +1,116 @@
+package com.girikgarg.uberbookingservice.utils;
+
+import java.util.Arrays;
+
+/**
+ * Minimum-cost assignment (Hungarian algorithm, shortest augmenting path form) on primitive arrays.
+ *
+ * The cost matrix is a flat row-major double[rows * cols]. Every row is assigned to a distinct
+ * column when rows <= cols; with more rows than columns the matrix is solved transposed and
+ * the surplus rows stay unassigned. Runs in O(min(r, c)^2 * max(r, c)) time and O(r + c) extra memory.
+ *
+ * Pairs that must not be matched should carry a large finite cost (see {@link #UNREACHABLE})
+ * rather than infinity, so the potentials stay finite; callers drop such pairs from the result.
+ */
+public final class HungarianSolver {
+
+    public static final double UNREACHABLE = 1.0e9;
+
+    private HungarianSolver() {
+    }
+
+    /**
+     * @return for each row, the assigned column index or -1 when the row is left unassigned
+     */
+    public static int[] solve(double[] cost, int rows, int cols) {
+        if (cost.length != rows * cols) {
+            throw new IllegalArgumentException("Cost matrix has " + cost.length + " cells, expected " + rows * cols);
+        }
+        if (rows == 0 || cols == 0) {
+            int[] empty = new int[rows];
+            Arrays.fill(empty, -1);
+            return empty;
+        }
+        if (rows <= cols) {
+            return solveWide(cost, rows, cols, false);
+        }
+
+        int[] columnToRow = solveWide(cost, cols, rows, true);
+        int[] rowToColumn = new int[rows];
+        Arrays.fill(rowToColumn, -1);
+        for (int column = 0; column < cols; column++) {
+            rowToColumn[columnToRow[column]] = column;
+        }
+        return rowToColumn;
+    }
+
+    /**
+     * Solves an n x m problem with n <= m. When transposed, cell (i, j) is read from cost[j * n + i].
+     */
+    private static int[] solveWide(double[] cost, int n, int m, boolean transposed) {
+        // 1-based potentials and matching; column 0 is the virtual start of each augmenting path
+        double[] u = new double[n + 1];
+        double[] v = new double[m + 1];
+        int[] matchedRow = new int[m + 1];
+        int[] way = new int[m + 1];
+        double[] minv = new double[m + 1];
+        boolean[] used = new boolean[m + 1];
+
+        for (int i = 1; i <= n; i++) {
+            matchedRow[0] = i;
+            int j0 = 0;
+            Arrays.fill(minv, Double.POSITIVE_INFINITY);
+            Arrays.fill(used, false);
+
+            do {
+                used[j0] = true;
+                int i0 = matchedRow[j0];
+                int rowOffset = transposed ? i0 - 1 : (i0 - 1) * m;
+                int stride = transposed ? n : 1;
+                double ui0 = u[i0];
+                double delta = Double.POSITIVE_INFINITY;
+                int j1 = 0;
+
+                for (int j = 1; j <= m; j++) {
+                    if (used[j]) {
+                        continue;
+                    }
+                    double reduced = cost[rowOffset + (j - 1) * stride] - ui0 - v[j];
+                    if (reduced < minv[j]) {
+                        minv[j] = reduced;
+                        way[j] = j0;
+                    }
+                    if (minv[j] < delta) {
+                        delta = minv[j];
+                        j1 = j;
+                    }
+                }
+
+                for (int j = 0; j <= m; j++) {
+                    if (used[j]) {
+                        u[matchedRow[j]] += delta;
+                        v[j] -= delta;
+                    } else {
+                        minv[j] -= delta;
+                    }
+                }
+                j0 = j1;
+            } while (matchedRow[j0] != 0);
+
+            do {
+                int j1 = way[j0];
+                matchedRow[j0] = matchedRow[j1];
+                j0 = j1;
+            } while (j0 != 0);
+        }
+
+        int[] assignment = new int[n];
+        Arrays.fill(assignment, -1);
+        for (int j = 1; j <= m; j++) {
+            if (matchedRow[j] != 0) {
+                assignment[matchedRow[j] - 1] = j - 1;
+            }
+        }
+        return assignment;
+    }
+}
@@ -0,0 +1,59 @@
+package com.girikgarg.uberbookingservice.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class HungarianSolverTest {
+
+    @Test
+    void matchesBruteForceOnSmallMatrices() {
+        Random random = new Random(1);
+        for (int round = 0; round < 200; round++) {
+            int rows = 1 + random.nextInt(5);
+            int cols = 1 + random.nextInt(5);
+            double[] cost = new double[rows * cols];
+            for (int i = 0; i < cost.length; i++) {
+                cost[i] = random.nextInt(20);
+            }
+
+            int[] assignment = HungarianSolver.solve(cost, rows, cols);
+            assertEquals(bruteForce(cost, rows, cols, 0, new boolean[cols]), total(cost, cols, assignment), 1e-9);
+        }
+    }
+
+    private static double total(double[] cost, int cols, int[] assignment) {
+        double total = 0;
+        for (int row = 0; row < assignment.length; row++) {
+            if (assignment[row] >= 0) {
+                total += cost[row * cols + assignment[row]];
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Cheapest cost of assigning min(rows, cols) pairs, rows may be skipped only when rows > cols.
+     */
+    private static double bruteForce(double[] cost, int rows, int cols, int row, boolean[] used) {
+        if (row == rows) {
+            return 0;
+        }
+        double best = Double.POSITIVE_INFINITY;
+        int freeColumns = 0;
+        for (int column = 0; column < cols; column++) {
+            if (!used[column]) {
+                freeColumns++;
+                used[column] = true;
+                best = Math.min(best, cost[row * cols + column] + bruteForce(cost, rows, cols, row + 1, used));
+                used[column] = false;
+            }
+        }
+        if (rows - row > freeColumns) {
+            best = Math.min(best, bruteForce(cost, rows, cols, row + 1, used));
+        }
+        return best;
+    }
+}
@@ -12,13 +12,17 @@ import java.util.Date;
 @NoArgsConstructor
 @AllArgsConstructor
 @Table(indexes = {
-    @Index(columnList = "driver_id")
+    @Index(columnList = "driver_id"),
+    @Index(columnList = "booking_status, updated_at") // stuck booking recovery in Booking Service
 })
 public class Booking extends BaseModel {
 
     @Enumerated(value = EnumType.STRING)
     private BookingStatus bookingStatus;
 
+    @Version
+    private Long version; // set to 0 on insert and bumped by every status change, see BookingStatus for the allowed transitions
+
     @Temporal(value = TemporalType.TIMESTAMP)
     private Date startTime;
 
@@ -1,11 +1,49 @@
 package com.girikgarg.uberentityservice.models;
 
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
 public enum BookingStatus {
     SCHEDULED,
     CANCELLED,
     CAB_ARRIVED,
     ASSIGNING_DRIVER,
     IN_RIDE,
-    COMPLETED
-}
+    COMPLETED;
+
+    // Allowed transitions: current status -> statuses it may move to. COMPLETED and CANCELLED are final.
+    private static final Map<BookingStatus, Set<BookingStatus>> TRANSITIONS = new EnumMap<>(BookingStatus.class);
+
+    static {
+        TRANSITIONS.put(ASSIGNING_DRIVER, EnumSet.of(SCHEDULED, CANCELLED));
+        TRANSITIONS.put(SCHEDULED, EnumSet.of(CAB_ARRIVED, ASSIGNING_DRIVER, CANCELLED)); // back to ASSIGNING_DRIVER when the driver drops out
+        TRANSITIONS.put(CAB_ARRIVED, EnumSet.of(IN_RIDE, CANCELLED));
+        TRANSITIONS.put(IN_RIDE, EnumSet.of(COMPLETED));
+        TRANSITIONS.put(COMPLETED, EnumSet.noneOf(BookingStatus.class));
+        TRANSITIONS.put(CANCELLED, EnumSet.noneOf(BookingStatus.class));
+    }
 
+    public boolean canTransitionTo(BookingStatus next) {
+        return next != null && TRANSITIONS.get(this).contains(next);
+    }
+
+    public Set<BookingStatus> allowedTransitions() {
+        return Collections.unmodifiableSet(TRANSITIONS.get(this));
+    }
+
+    /**
+     * Statuses a booking may be in to move to next; empty when nothing leads there.
+     */
+    public static Set<BookingStatus> allowedPredecessors(BookingStatus next) {
+        Set<BookingStatus> predecessors = EnumSet.noneOf(BookingStatus.class);
+        TRANSITIONS.forEach((status, targets) -> {
+            if (targets.contains(next)) {
+                predecessors.add(status);
+            }
+        });
+        return Collections.unmodifiableSet(predecessors);
+    }
+}
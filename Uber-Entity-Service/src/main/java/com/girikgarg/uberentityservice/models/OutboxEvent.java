@@ -0,0 +1,37 @@
+package com.girikgarg.uberentityservice.models;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.util.Date;
+
+/**
+ * Event written in the same transaction as the aggregate change it describes
+ * (transactional outbox). A relay publishes unpublished rows to Kafka and sets publishedAt.
+ */
+@Entity
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(indexes = {
+    @Index(name = "idx_outbox_event_unpublished", columnList = "published_at, id")
+})
+public class OutboxEvent extends BaseModel {
+
+    @Column(nullable = false, length = 64)
+    private String aggregateType; // e.g. "Booking"
+
+    @Column(nullable = false)
+    private Long aggregateId; // used as the Kafka message key
+
+    @Column(nullable = false, length = 128)
+    private String topic;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String payload; // JSON
+
+    @Temporal(value = TemporalType.TIMESTAMP)
+    private Date publishedAt;
+}
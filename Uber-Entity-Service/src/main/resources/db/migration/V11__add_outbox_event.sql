@@ -0,0 +1,17 @@
+-- V11: Transactional outbox for domain events
+-- Rows are written in the same transaction as the change they describe and
+-- relayed to Kafka by the owning service; published_at stays NULL until then.
+
+CREATE TABLE outbox_event (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    created_at DATETIME(6) NOT NULL,
+    updated_at DATETIME(6) NOT NULL,
+    aggregate_type VARCHAR(64) NOT NULL,
+    aggregate_id BIGINT NOT NULL,
+    topic VARCHAR(128) NOT NULL,
+    payload TEXT NOT NULL,
+    published_at DATETIME(6) NULL
+);
+
+-- The relay scans unpublished rows in id order
+CREATE INDEX idx_outbox_event_unpublished ON outbox_event(published_at, id);
@@ -0,0 +1,5 @@
+-- V12: Optimistic versioning for bookings
+-- Every status change bumps the version; conditional updates match on (id, booking_status, version)
+
+ALTER TABLE booking
+ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
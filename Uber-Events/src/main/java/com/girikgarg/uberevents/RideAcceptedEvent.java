@@ -0,0 +1,56 @@
+package com.girikgarg.uberevents;
+
+import com.girikgarg.uberevents.codec.EventReader;
+import com.girikgarg.uberevents.codec.EventWriter;
+import lombok.*;
+
+/**
+ * Published by Socket Service on the 'ride-accepted' topic once a driver won the arbitration
+ * for a booking; Booking Service assigns the driver.
+ *
+ * Binary layout: [type id][schema version varint][bookingId varint][driverId varint].
+ * Schema evolution: new fields are only ever appended and the schema version is bumped.
+ * Older readers skip the trailing fields, newer readers default the fields an older writer did not send.
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+public class RideAcceptedEvent {
+
+    public static final int TYPE_ID = 1;
+    public static final int SCHEMA_VERSION = 1;
+
+    private Long bookingId;
+    private Long driverId;
+
+    public byte[] encode() {
+        if (bookingId == null || driverId == null) {
+            throw new IllegalArgumentException("RideAcceptedEvent needs a bookingId and a driverId: " + this);
+        }
+        return new EventWriter(16)
+                .writeByte(TYPE_ID)
+                .writeVarLong(SCHEMA_VERSION)
+                .writeVarLong(bookingId)
+                .writeVarLong(driverId)
+                .toByteArray();
+    }
+
+    public static RideAcceptedEvent decode(byte[] data) {
+        EventReader reader = new EventReader(data);
+        int typeId = reader.readByte();
+        if (typeId != TYPE_ID) {
+            throw new IllegalArgumentException("Not a RideAcceptedEvent, type id " + typeId);
+        }
+        long schemaVersion = reader.readVarLong();
+        if (schemaVersion < 1) {
+            throw new IllegalArgumentException("Unknown RideAcceptedEvent schema version " + schemaVersion);
+        }
+        return RideAcceptedEvent.builder()
+                .bookingId(reader.readVarLong())
+                .driverId(reader.readVarLong())
+                .build();
+    }
+}
@@ -0,0 +1,45 @@
+package com.girikgarg.uberevents.codec;
+
+/**
+ * Reads the fields written by {@link EventWriter}, in the same order.
+ */
+public final class EventReader {
+
+    private final byte[] data;
+    private int position;
+
+    public EventReader(byte[] data) {
+        this.data = data;
+    }
+
+    public int readByte() {
+        if (position >= data.length) {
+            throw new IllegalArgumentException("Unexpected end of event at byte " + position);
+        }
+        return data[position++] & 0xFF;
+    }
+
+    public long readVarLong() {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed varint ending at byte " + position);
+    }
+
+    public long readSignedVarLong() {
+        long raw = readVarLong();
+        return (raw >>> 1) ^ -(raw & 1);
+    }
+
+    /**
+     * True while unread bytes remain - fields appended by a newer schema version.
+     */
+    public boolean hasRemaining() {
+        return position < data.length;
+    }
+}
@@ -0,0 +1,56 @@
+package com.girikgarg.uberevents.codec;
+
+import java.util.Arrays;
+
+/**
+ * Appends event fields to a growable byte array.
+ *
+ * Integers are written as base-128 varints (7 bits per byte, high bit = more bytes follow),
+ * so a booking or driver id below 2^21 takes 3 bytes instead of 8. Signed values use zigzag
+ * encoding first, so small negative numbers stay short as well.
+ */
+public final class EventWriter {
+
+    private byte[] buffer;
+    private int size;
+
+    public EventWriter(int initialCapacity) {
+        this.buffer = new byte[initialCapacity];
+    }
+
+    public EventWriter writeByte(int value) {
+        ensureCapacity(1);
+        buffer[size++] = (byte) value;
+        return this;
+    }
+
+    /**
+     * Writes a non-negative value as an unsigned varint (1 to 10 bytes).
+     */
+    public EventWriter writeVarLong(long value) {
+        ensureCapacity(10);
+        while ((value & ~0x7FL) != 0) {
+            buffer[size++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[size++] = (byte) value;
+        return this;
+    }
+
+    /**
+     * Writes any value as a zigzag-encoded varint: 0, -1, 1, -2, ... map to 0, 1, 2, 3, ...
+     */
+    public EventWriter writeSignedVarLong(long value) {
+        return writeVarLong((value << 1) ^ (value >> 63));
+    }
+
+    public byte[] toByteArray() {
+        return Arrays.copyOf(buffer, size);
+    }
+
+    private void ensureCapacity(int extra) {
+        if (size + extra > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + extra));
+        }
+    }
+}
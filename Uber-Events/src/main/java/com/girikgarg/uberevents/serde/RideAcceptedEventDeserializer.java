@@ -0,0 +1,37 @@
+package com.girikgarg.uberevents.serde;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.girikgarg.uberevents.RideAcceptedEvent;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Deserializer;
+
+import java.io.IOException;
+
+/**
+ * Kafka value deserializer for {@link RideAcceptedEvent}.
+ *
+ * Also accepts the legacy JSON payload ({"bookingId":..,"driverId":..}) so events published
+ * before the switch to the binary encoding are still consumed. JSON always starts with '{',
+ * which is never a valid type id.
+ */
+public class RideAcceptedEventDeserializer implements Deserializer<RideAcceptedEvent> {
+
+    private static final ObjectMapper LEGACY_JSON = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    @Override
+    public RideAcceptedEvent deserialize(String topic, byte[] data) {
+        if (data == null || data.length == 0) {
+            return null;
+        }
+        try {
+            if (data[0] == '{') {
+                return LEGACY_JSON.readValue(data, RideAcceptedEvent.class);
+            }
+            return RideAcceptedEvent.decode(data);
+        } catch (IOException | IllegalArgumentException ex) {
+            throw new SerializationException("Cannot deserialize RideAcceptedEvent from topic " + topic, ex);
+        }
+    }
+}
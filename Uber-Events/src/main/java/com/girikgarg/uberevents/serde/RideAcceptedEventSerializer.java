@@ -0,0 +1,23 @@
+package com.girikgarg.uberevents.serde;
+
+import com.girikgarg.uberevents.RideAcceptedEvent;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Serializer;
+
+/**
+ * Kafka value serializer writing the binary {@link RideAcceptedEvent} encoding.
+ */
+public class RideAcceptedEventSerializer implements Serializer<RideAcceptedEvent> {
+
+    @Override
+    public byte[] serialize(String topic, RideAcceptedEvent event) {
+        if (event == null) {
+            return null;
+        }
+        try {
+            return event.encode();
+        } catch (IllegalArgumentException ex) {
+            throw new SerializationException("Cannot serialize event for topic " + topic, ex);
+        }
+    }
+}
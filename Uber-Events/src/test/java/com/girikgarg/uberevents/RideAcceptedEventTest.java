@@ -0,0 +1,102 @@
+package com.girikgarg.uberevents;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class RideAcceptedEventTest {
+
+    @Test
+    void roundTripsTypicalIds() {
+        assertRoundTrip(42L, 7L);
+        assertRoundTrip(1_234_567L, 89_012L);
+    }
+
+    @Test
+    void roundTripsBoundaryIds() {
+        assertRoundTrip(0L, 0L);
+        assertRoundTrip(127L, 128L);
+        assertRoundTrip(Long.MAX_VALUE, Long.MAX_VALUE);
+        assertRoundTrip(Long.MAX_VALUE, 1L);
+    }
+
+    @Test
+    void roundTripsNegativeIds() {
+        assertRoundTrip(-1L, -2L);
+        assertRoundTrip(Long.MIN_VALUE, -1L);
+    }
+
+    @Test
+    void encodesSmallIdsCompactly() {
+        // type id, schema version, one byte per id
+        assertArrayEquals(new byte[] {1, 1, 42, 7}, event(42L, 7L).encode());
+    }
+
+    @Test
+    void ignoresFieldsAppendedByNewerSchemaVersions() {
+        byte[] current = event(42L, 7L).encode();
+        byte[] newer = Arrays.copyOf(current, current.length + 2);
+        newer[1] = 2;
+        newer[current.length] = 5;
+        newer[current.length + 1] = 9;
+
+        RideAcceptedEvent decoded = RideAcceptedEvent.decode(newer);
+
+        assertEquals(42L, decoded.getBookingId());
+        assertEquals(7L, decoded.getDriverId());
+    }
+
+    @Test
+    void rejectsMissingIds() {
+        assertThrows(IllegalArgumentException.class, () -> event(null, 7L).encode());
+        assertThrows(IllegalArgumentException.class, () -> event(42L, null).encode());
+    }
+
+    @Test
+    void rejectsEveryTruncation() {
+        byte[] data = event(Long.MAX_VALUE, 123_456L).encode();
+        for (int length = 0; length < data.length; length++) {
+            byte[] truncated = Arrays.copyOf(data, length);
+            assertThrows(IllegalArgumentException.class, () -> RideAcceptedEvent.decode(truncated),
+                    "length " + length);
+        }
+    }
+
+    @Test
+    void rejectsUnknownTypeId() {
+        assertThrows(IllegalArgumentException.class, () -> RideAcceptedEvent.decode(new byte[] {2, 1, 42, 7}));
+    }
+
+    @Test
+    void rejectsSchemaVersionZero() {
+        assertThrows(IllegalArgumentException.class, () -> RideAcceptedEvent.decode(new byte[] {1, 0, 42, 7}));
+    }
+
+    @Test
+    void rejectsOverlongVarint() {
+        byte[] data = new byte[13];
+        data[0] = RideAcceptedEvent.TYPE_ID;
+        data[1] = RideAcceptedEvent.SCHEMA_VERSION;
+        Arrays.fill(data, 2, data.length, (byte) 0x80);
+
+        assertThrows(IllegalArgumentException.class, () -> RideAcceptedEvent.decode(data));
+    }
+
+    private static void assertRoundTrip(Long bookingId, Long driverId) {
+        RideAcceptedEvent decoded = RideAcceptedEvent.decode(event(bookingId, driverId).encode());
+
+        assertEquals(bookingId, decoded.getBookingId());
+        assertEquals(driverId, decoded.getDriverId());
+    }
+
+    private static RideAcceptedEvent event(Long bookingId, Long driverId) {
+        return RideAcceptedEvent.builder()
+                .bookingId(bookingId)
+                .driverId(driverId)
+                .build();
+    }
+}
@@ -0,0 +1,97 @@
+package com.girikgarg.uberevents.serde;
+
+import com.girikgarg.uberevents.RideAcceptedEvent;
+import org.apache.kafka.common.errors.SerializationException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class RideAcceptedEventSerdeTest {
+
+    private static final String TOPIC = "ride-accepted";
+
+    private final RideAcceptedEventSerializer serializer = new RideAcceptedEventSerializer();
+    private final RideAcceptedEventDeserializer deserializer = new RideAcceptedEventDeserializer();
+
+    @Test
+    void roundTripsThroughKafkaSerde() {
+        assertRoundTrip(42L, 7L);
+        assertRoundTrip(0L, 0L);
+        assertRoundTrip(Long.MAX_VALUE, Long.MAX_VALUE);
+        assertRoundTrip(-1L, Long.MIN_VALUE);
+    }
+
+    @Test
+    void readsLegacyJson() {
+        RideAcceptedEvent event = deserializer.deserialize(TOPIC,
+                json("{\"bookingId\":9223372036854775807,\"driverId\":7}"));
+
+        assertEquals(Long.MAX_VALUE, event.getBookingId());
+        assertEquals(7L, event.getDriverId());
+    }
+
+    @Test
+    void readsLegacyJsonWithUnknownFields() {
+        RideAcceptedEvent event = deserializer.deserialize(TOPIC,
+                json("{\"bookingId\":42,\"driverId\":7,\"acceptedAt\":\"2024-01-01T00:00:00Z\"}"));
+
+        assertEquals(42L, event.getBookingId());
+        assertEquals(7L, event.getDriverId());
+    }
+
+    @Test
+    void rejectsMalformedLegacyJson() {
+        assertThrows(SerializationException.class, () -> deserializer.deserialize(TOPIC, json("{\"bookingId\":")));
+        assertThrows(SerializationException.class, () -> deserializer.deserialize(TOPIC, json("{\"bookingId\":\"x\"}")));
+    }
+
+    @Test
+    void rejectsTruncatedBinary() {
+        byte[] data = serializer.serialize(TOPIC, event(Long.MAX_VALUE, 123_456L));
+        for (int length = 1; length < data.length; length++) {
+            byte[] truncated = Arrays.copyOf(data, length);
+            assertThrows(SerializationException.class, () -> deserializer.deserialize(TOPIC, truncated),
+                    "length " + length);
+        }
+    }
+
+    @Test
+    void rejectsUnknownTypeId() {
+        assertThrows(SerializationException.class, () -> deserializer.deserialize(TOPIC, new byte[] {9, 1, 42, 7}));
+    }
+
+    @Test
+    void passesNullAndEmptyThrough() {
+        assertNull(serializer.serialize(TOPIC, null));
+        assertNull(deserializer.deserialize(TOPIC, null));
+        assertNull(deserializer.deserialize(TOPIC, new byte[0]));
+    }
+
+    @Test
+    void rejectsEventWithoutIds() {
+        assertThrows(SerializationException.class, () -> serializer.serialize(TOPIC, event(null, 7L)));
+    }
+
+    private void assertRoundTrip(Long bookingId, Long driverId) {
+        RideAcceptedEvent decoded = deserializer.deserialize(TOPIC, serializer.serialize(TOPIC, event(bookingId, driverId)));
+
+        assertEquals(bookingId, decoded.getBookingId());
+        assertEquals(driverId, decoded.getDriverId());
+    }
+
+    private static RideAcceptedEvent event(Long bookingId, Long driverId) {
+        return RideAcceptedEvent.builder()
+                .bookingId(bookingId)
+                .driverId(driverId)
+                .build();
+    }
+
+    private static byte[] json(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
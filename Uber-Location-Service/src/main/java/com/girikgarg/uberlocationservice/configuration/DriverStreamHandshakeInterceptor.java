@@ -0,0 +1,76 @@
+package com.girikgarg.uberlocationservice.configuration;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.server.HandshakeInterceptor;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.util.Map;
+
+/**
+ * Authenticates the driver location stream once, at handshake time.
+ *
+ * The API Gateway validates the JwtToken cookie (required role DRIVER) before forwarding the
+ * upgrade request and adds X-User-Email / X-User-Role / X-User-Id headers, X-User-Id being the
+ * driver id signed into the token. A handshake without them did not come through the gateway
+ * (or carries a token issued before the id claim) and is rejected.
+ * The session streams for the authenticated driver only: a driverId query parameter naming
+ * anyone else is rejected. The id is bound to the session, so frames do not carry it.
+ */
+@Slf4j
+public class DriverStreamHandshakeInterceptor implements HandshakeInterceptor {
+
+    public static final String DRIVER_ID_ATTRIBUTE = "driverId";
+    public static final String USER_EMAIL_ATTRIBUTE = "userEmail";
+
+    private static final String DRIVER_ROLE = "DRIVER";
+
+    @Override
+    public boolean beforeHandshake(
+            ServerHttpRequest request,
+            ServerHttpResponse response,
+            WebSocketHandler wsHandler,
+            Map<String, Object> attributes) {
+
+        String email = request.getHeaders().getFirst("X-User-Email");
+        String role = request.getHeaders().getFirst("X-User-Role");
+        if (email == null || !DRIVER_ROLE.equals(role)) {
+            log.warn("Rejecting driver location stream without gateway authentication");
+            response.setStatusCode(HttpStatus.UNAUTHORIZED);
+            return false;
+        }
+
+        String driverId = request.getHeaders().getFirst("X-User-Id");
+        if (driverId == null || driverId.isBlank()) {
+            log.warn("Rejecting driver location stream for {} without an authenticated driver id", email);
+            response.setStatusCode(HttpStatus.UNAUTHORIZED);
+            return false;
+        }
+
+        // e.g. ws://gateway/api/v1/location/stream?driverId=101 - optional, must match the token
+        String requestedDriverId = UriComponentsBuilder.fromUri(request.getURI()).build()
+                .getQueryParams().getFirst(DRIVER_ID_ATTRIBUTE);
+        if (requestedDriverId != null && !requestedDriverId.equals(driverId)) {
+            log.warn("Rejecting driver location stream: {} (driver {}) asked to stream for driver {}",
+                    email, driverId, requestedDriverId);
+            response.setStatusCode(HttpStatus.FORBIDDEN);
+            return false;
+        }
+
+        attributes.put(DRIVER_ID_ATTRIBUTE, driverId);
+        attributes.put(USER_EMAIL_ATTRIBUTE, email);
+        return true;
+    }
+
+    @Override
+    public void afterHandshake(
+            ServerHttpRequest request,
+            ServerHttpResponse response,
+            WebSocketHandler wsHandler,
+            Exception exception) {
+        // No action needed after handshake
+    }
+}
@@ -0,0 +1,171 @@
+package com.girikgarg.uberlocationservice.configuration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Type-safe configuration properties for Location Service.
+ * Binds to properties prefixed with 'location.service' in application.properties.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "location.service")
+@Data
+public class LocationServiceProperties {
+
+    /**
+     * When enabled, single driver pings are buffered by the coalescer and
+     * written to Redis in pipelined batches instead of one GEOADD per request.
+     * Default: false
+     */
+    private Boolean coalescingEnabled = false;
+
+    /**
+     * How often (in ms) the coalescer flushes buffered driver locations to Redis.
+     * Default: 200 ms
+     */
+    private Long batchFlushIntervalMs = 200L;
+
+    /**
+     * Maximum number of driver locations written in a single pipelined flush.
+     * Larger buffers are split into several pipelines of this size.
+     * Default: 1000
+     */
+    private Integer maxBatchSize = 1000;
+
+    /**
+     * When enabled, drivers are stored in per-cell GEO keys ("drivers:{geohash}:geo")
+     * instead of the single global "drivers" key.
+     * Default: false
+     */
+    private Boolean shardingEnabled = false;
+
+    /**
+     * Geohash prefix length used for shard cells.
+     * 4 = ~39 km x 20 km cells, 5 = ~4.9 km x 4.9 km cells.
+     * Default: 4
+     */
+    private Integer shardGeohashPrecision = 4;
+
+    /**
+     * Drivers that have not pinged for this many seconds are treated as offline:
+     * they are filtered out of searches and removed by the stale driver sweeper.
+     * Default: 120 seconds
+     */
+    private Long driverTtlSeconds = 120L;
+
+    /**
+     * How often (in ms) the stale driver sweeper runs.
+     * Default: 30000 ms
+     */
+    private Long staleSweepIntervalMs = 30000L;
+
+    /**
+     * Maximum number of stale drivers removed per sweeper pipeline.
+     * Default: 1000
+     */
+    private Integer staleSweepBatchSize = 1000;
+
+    /**
+     * Upper bound on k for nearest-driver queries, whatever the caller asks for.
+     * Default: 50
+     */
+    private Integer maxNearestDrivers = 50;
+
+    /**
+     * Use GEOSEARCH COUNT k ANY for nearest-driver queries. Redis stops at the first k matches,
+     * so dense cells are cheaper, but the result is not strictly the k nearest.
+     * Default: false
+     */
+    private Boolean nearestApproximate = false;
+
+    /**
+     * Largest radius (in km) a nearest-driver request may ask for. Larger requests get a 400,
+     * since every covering shard cell costs one GEOSEARCH.
+     * Default: 50.0 km
+     */
+    private Double maxSearchRadiusKm = 50.0;
+
+    /**
+     * Radius (in km) used by nearby searches and by nearest searches that do not pass one.
+     * Default: 5.0 km
+     */
+    private Double searchRadiusKm = 5.0;
+
+    /**
+     * Radii (in km) tried in order by the adaptive nearest-driver search until k drivers are found.
+     * Steps above the caller's maximum radius are skipped.
+     * Default: 1, 2, 5, 10 km
+     */
+    private List<Double> adaptiveRadiusStepsKm = new ArrayList<>(List.of(1.0, 2.0, 5.0, 10.0));
+
+    /**
+     * Where nearby / nearest searches are answered from.
+     * REDIS queries the GEO keys; LOCAL uses the in-JVM spatial index kept warm by the write path.
+     * Default: REDIS
+     */
+    private ReadPath readPath = ReadPath.REDIS;
+
+    /**
+     * Publish every written batch on the "drivers:location-updates" channel, and (with read-path=local)
+     * apply batches published by other instances. Enable when more than one instance is running.
+     * Default: false
+     */
+    private Boolean localIndexPubSubEnabled = false;
+
+    /**
+     * Grid cell size (in degrees) of the local spatial index. 0.01 is roughly 1.1 km.
+     * Default: 0.01
+     */
+    private Double localIndexCellSizeDegrees = 0.01;
+
+    /**
+     * Record every accepted ping in the driver's location history stream.
+     * Default: true
+     */
+    private Boolean historyEnabled = true;
+
+    /**
+     * How often (in ms) buffered history points are written to Redis as one segment per driver.
+     * Default: 30000 ms
+     */
+    private Long historyFlushIntervalMs = 30000L;
+
+    /**
+     * Approximate cap on segments kept per driver stream (MAXLEN ~). 2880 segments of 30 s is one day.
+     * Default: 2880
+     */
+    private Long historyMaxSegmentsPerDriver = 2880L;
+
+    /**
+     * A driver's history stream expires after this many hours without new segments.
+     * Default: 72 hours
+     */
+    private Long historyRetentionHours = 72L;
+
+    /**
+     * Maintain per-cell supply (drivers) and demand (open bookings) counters for the heatmap.
+     * Default: true
+     */
+    private Boolean heatmapEnabled = true;
+
+    /**
+     * Geohash precision of heatmap cells. 6 = ~1.2 km x 0.6 km cells.
+     * Default: 6
+     */
+    private Integer heatmapGeohashPrecision = 6;
+
+    /**
+     * Largest number of cells a single heatmap request may cover.
+     * Default: 2500
+     */
+    private Integer heatmapMaxCells = 2500;
+
+    public enum ReadPath {
+        REDIS,
+        LOCAL
+    }
+}
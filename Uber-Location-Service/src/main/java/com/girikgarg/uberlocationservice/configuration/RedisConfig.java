@@ -1,13 +1,22 @@
 package com.girikgarg.uberlocationservice.configuration;
 
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.connection.jedis.JedisConnectionFactory;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
+import java.util.List;
+
 @Configuration
 public class RedisConfig {
     
@@ -18,6 +27,7 @@ public class RedisConfig {
     private int redisPort;
     
     @Bean
+    @Primary
     public RedisConnectionFactory redisConnectionFactory() {
         JedisConnectionFactory jedisConnectionFactory = new JedisConnectionFactory();
         jedisConnectionFactory.setHostName(redisHost);
@@ -33,4 +43,58 @@ public class RedisConfig {
         redisTemplate.setValueSerializer(new StringRedisSerializer());
         return redisTemplate;
     }
+
+    /**
+     * Lettuce connection for the reactive endpoints. Lettuce multiplexes every command
+     * over one non-blocking connection, so concurrent requests never wait for a pooled connection.
+     * Only created under the "reactive" profile; background jobs keep using the Jedis pool above.
+     */
+    @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+    public LettuceConnectionFactory reactiveRedisConnectionFactory() {
+        LettuceConnectionFactory lettuceConnectionFactory = new LettuceConnectionFactory(redisHost, redisPort);
+        lettuceConnectionFactory.setShareNativeConnection(true);
+        return lettuceConnectionFactory;
+    }
+
+    @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+    public ReactiveStringRedisTemplate reactiveStringRedisTemplate(ReactiveRedisConnectionFactory reactiveRedisConnectionFactory) {
+        return new ReactiveStringRedisTemplate(reactiveRedisConnectionFactory);
+    }
+
+    /**
+     * Lua script that widens the search radius step by step on one GEO key
+     * until it has found k drivers (see scripts/adaptive-nearest-drivers.lua).
+     */
+    @Bean
+    @SuppressWarnings("rawtypes")
+    public RedisScript<List> adaptiveNearestDriversScript() {
+        return RedisScript.of(new ClassPathResource("scripts/adaptive-nearest-drivers.lua"), List.class);
+    }
+
+    /**
+     * Lua script that evicts stale drivers after re-checking their last-seen score (see scripts/evict-stale-drivers.lua).
+     */
+    @Bean
+    @SuppressWarnings("rawtypes")
+    public RedisScript<List> evictStaleDriversScript() {
+        return RedisScript.of(new ClassPathResource("scripts/evict-stale-drivers.lua"), List.class);
+    }
+
+    /**
+     * Lua script that moves drivers between heatmap cells and updates the supply counters atomically.
+     */
+    @Bean
+    public RedisScript<Long> heatmapMoveDriversScript() {
+        return RedisScript.of(new ClassPathResource("scripts/heatmap-move-drivers.lua"), Long.class);
+    }
+
+    /**
+     * Lua script that opens / closes a booking in the demand heatmap idempotently.
+     */
+    @Bean
+    public RedisScript<Long> heatmapDemandScript() {
+        return RedisScript.of(new ClassPathResource("scripts/heatmap-demand.lua"), Long.class);
+    }
 }
@@ -0,0 +1,14 @@
+package com.girikgarg.uberlocationservice.configuration;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables Spring's scheduled task execution capability.
+ * Used by background jobs such as the driver location coalescer flush.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+
+}
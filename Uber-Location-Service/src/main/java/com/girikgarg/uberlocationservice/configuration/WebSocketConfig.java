@@ -0,0 +1,34 @@
+package com.girikgarg.uberlocationservice.configuration;
+
+import com.girikgarg.uberlocationservice.controller.DriverLocationStreamHandler;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.socket.config.annotation.EnableWebSocket;
+import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry;
+
+/**
+ * Registers the long-lived driver location stream.
+ *
+ * Drivers connect once to ws://host/ws/location (through the gateway, which supplies the driver id)
+ * and then send one small "latitude,longitude" text frame per GPS fix.
+ * Servlet WebSocket support, so the stream is only registered outside the "reactive" profile.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@EnableWebSocket
+public class WebSocketConfig implements WebSocketConfigurer {
+
+    private final DriverLocationStreamHandler driverLocationStreamHandler;
+
+    public WebSocketConfig(DriverLocationStreamHandler driverLocationStreamHandler) {
+        this.driverLocationStreamHandler = driverLocationStreamHandler;
+    }
+
+    @Override
+    public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
+        registry.addHandler(driverLocationStreamHandler, "/ws/location")
+                .addInterceptors(new DriverStreamHandshakeInterceptor())
+                .setAllowedOriginPatterns("*");  // Gateway handles the main CORS policy
+    }
+}
@@ -0,0 +1,66 @@
+package com.girikgarg.uberlocationservice.controller;
+
+import com.girikgarg.uberlocationservice.configuration.DriverStreamHandshakeInterceptor;
+import com.girikgarg.uberlocationservice.services.impl.DriverLocationBatcher;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+
+/**
+ * Streaming ingest for driver GPS fixes.
+ *
+ * Each text frame is "latitude,longitude" for the driver bound to the session at handshake.
+ * Frames go straight into {@link DriverLocationBatcher}, so a fix costs one small frame
+ * instead of an HTTP request plus an Auth Service round trip, and still ends up in the
+ * same pipelined saveDriverLocations write as the REST endpoints.
+ * No reply is sent per frame; malformed frames are dropped.
+ */
+@Slf4j
+@Component
+public class DriverLocationStreamHandler extends TextWebSocketHandler {
+
+    private final DriverLocationBatcher driverLocationBatcher;
+
+    public DriverLocationStreamHandler(DriverLocationBatcher driverLocationBatcher) {
+        this.driverLocationBatcher = driverLocationBatcher;
+    }
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) {
+        log.info("Driver {} opened location stream", driverId(session));
+    }
+
+    @Override
+    protected void handleTextMessage(WebSocketSession session, TextMessage message) {
+        String payload = message.getPayload();
+        int comma = payload.indexOf(',');
+        if (comma < 0) {
+            log.debug("Dropping malformed location frame from driver {}", driverId(session));
+            return;
+        }
+
+        try {
+            double latitude = Double.parseDouble(payload.substring(0, comma).trim());
+            double longitude = Double.parseDouble(payload.substring(comma + 1).trim());
+            if (latitude < -90 || latitude > 90 || longitude < -180 || longitude > 180) {
+                log.debug("Dropping out-of-range location frame from driver {}", driverId(session));
+                return;
+            }
+            driverLocationBatcher.submit(driverId(session), latitude, longitude);
+        } catch (NumberFormatException ex) {
+            log.debug("Dropping malformed location frame from driver {}", driverId(session));
+        }
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+        log.info("Driver {} closed location stream ({})", driverId(session), status.getCode());
+    }
+
+    private String driverId(WebSocketSession session) {
+        return (String) session.getAttributes().get(DriverStreamHandshakeInterceptor.DRIVER_ID_ATTRIBUTE);
+    }
+}
@@ -0,0 +1,89 @@
+package com.girikgarg.uberlocationservice.controller;
+
+import com.girikgarg.uberlocationservice.dto.BookingDemandRequestDto;
+import com.girikgarg.uberlocationservice.dto.HeatmapCellDto;
+import com.girikgarg.uberlocationservice.services.api.HeatmapService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Heatmap reads and Booking Service demand events. Blocking script calls, so servlet (Tomcat) only.
+ */
+@RestController
+@RequestMapping("/api/location/heatmap")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class HeatmapController {
+
+    private HeatmapService heatmapService;
+
+    public HeatmapController(HeatmapService heatmapService) {
+        this.heatmapService = heatmapService;
+    }
+
+    /**
+     * Returns per-cell driver and open-booking counts inside the bounding box (non-empty cells only).
+     */
+    @GetMapping
+    public ResponseEntity<List<HeatmapCellDto>> getHeatmap(@RequestParam Double minLat,
+                                                           @RequestParam Double minLon,
+                                                           @RequestParam Double maxLat,
+                                                           @RequestParam Double maxLon) {
+        if (minLat > maxLat || minLon > maxLon) {
+            return new ResponseEntity<>(new ArrayList<>(), HttpStatus.BAD_REQUEST);
+        }
+
+        try {
+            List<HeatmapCellDto> cells = heatmapService.getHeatmap(minLat, minLon, maxLat, maxLon);
+            return new ResponseEntity<>(cells, HttpStatus.OK);
+        } catch (IllegalArgumentException ex) {
+            return new ResponseEntity<>(new ArrayList<>(), HttpStatus.BAD_REQUEST);
+        } catch (Exception ex) {
+            return new ResponseEntity<>(new ArrayList<>(), HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    /**
+     * Called by Booking Service when a booking starts waiting for a driver.
+     */
+    @PostMapping("/demand/open")
+    public ResponseEntity<Boolean> openDemand(@RequestBody BookingDemandRequestDto bookingDemandRequestDto) {
+        if (bookingDemandRequestDto.getBookingId() == null
+                || bookingDemandRequestDto.getLatitude() == null
+                || bookingDemandRequestDto.getLongitude() == null) {
+            return new ResponseEntity<>(false, HttpStatus.BAD_REQUEST);
+        }
+
+        try {
+            heatmapService.openDemand(
+                    bookingDemandRequestDto.getBookingId(),
+                    bookingDemandRequestDto.getLatitude(),
+                    bookingDemandRequestDto.getLongitude()
+            );
+            return new ResponseEntity<>(true, HttpStatus.OK);
+        } catch (Exception ex) {
+            return new ResponseEntity<>(false, HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    /**
+     * Called by Booking Service when a booking leaves ASSIGNING_DRIVER (accepted, cancelled, ...).
+     */
+    @PostMapping("/demand/close")
+    public ResponseEntity<Boolean> closeDemand(@RequestBody BookingDemandRequestDto bookingDemandRequestDto) {
+        if (bookingDemandRequestDto.getBookingId() == null) {
+            return new ResponseEntity<>(false, HttpStatus.BAD_REQUEST);
+        }
+
+        try {
+            heatmapService.closeDemand(bookingDemandRequestDto.getBookingId());
+            return new ResponseEntity<>(true, HttpStatus.OK);
+        } catch (Exception ex) {
+            return new ResponseEntity<>(false, HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+}
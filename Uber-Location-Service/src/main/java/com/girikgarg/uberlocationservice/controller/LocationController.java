@@ -1,29 +1,63 @@
 package com.girikgarg.uberlocationservice.controller;
 
+import com.girikgarg.uberlocationservice.configuration.LocationServiceProperties;
 import com.girikgarg.uberlocationservice.dto.DriverLocationDto;
+import com.girikgarg.uberlocationservice.dto.DriverLocationHistoryDto;
 import com.girikgarg.uberlocationservice.dto.NearbyDriversRequestDto;
+import com.girikgarg.uberlocationservice.dto.NearestDriversRequestDto;
 import com.girikgarg.uberlocationservice.dto.SaveDriverLocationRequestDto;
+import com.girikgarg.uberlocationservice.dto.SaveDriverLocationsBatchRequestDto;
+import com.girikgarg.uberlocationservice.services.api.LocationHistoryService;
 import com.girikgarg.uberlocationservice.services.api.LocationService;
+import com.girikgarg.uberlocationservice.services.impl.DriverLocationBatcher;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Collectors;
 
+/**
+ * Blocking endpoints backed by the Jedis pool. Servlet (Tomcat) only: under the "reactive" profile they
+ * would run on Netty event-loop threads, so only {@link ReactiveLocationController} is exposed there.
+ */
 @RestController
 @RequestMapping("/api/location")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class LocationController {
 
+    private static final long ONE_HOUR_MS = 60 * 60 * 1000L;
+
     private LocationService locationService;
+    private LocationHistoryService locationHistoryService;
+    private DriverLocationBatcher driverLocationBatcher;
+    private LocationServiceProperties properties;
 
-    public LocationController(LocationService locationService) {
+    public LocationController(LocationService locationService,
+                              LocationHistoryService locationHistoryService,
+                              DriverLocationBatcher driverLocationBatcher,
+                              LocationServiceProperties properties) {
         this.locationService = locationService;
+        this.locationHistoryService = locationHistoryService;
+        this.driverLocationBatcher = driverLocationBatcher;
+        this.properties = properties;
     }
 
     @PostMapping("/drivers")
     public ResponseEntity<Boolean> saveDriverLocation(@RequestBody SaveDriverLocationRequestDto saveDriverLocationRequestDto) {
         try {
+            if (properties.getCoalescingEnabled()) {
+                // Buffered write - flushed to Redis with other pings in the next pipeline
+                driverLocationBatcher.submit(
+                        saveDriverLocationRequestDto.getDriverId(),
+                        saveDriverLocationRequestDto.getLatitude(),
+                        saveDriverLocationRequestDto.getLongitude()
+                );
+                return new ResponseEntity<>(true, HttpStatus.ACCEPTED);
+            }
+
             Boolean response = locationService.saveDriverLocation(
                     saveDriverLocationRequestDto.getDriverId(),
                     saveDriverLocationRequestDto.getLatitude(),
@@ -35,6 +69,32 @@ public class LocationController {
         }
     }
 
+    /**
+     * Saves many driver locations in one request.
+     * Returns the number of locations written to Redis.
+     */
+    @PostMapping("/drivers/batch")
+    public ResponseEntity<Integer> saveDriverLocations(@RequestBody SaveDriverLocationsBatchRequestDto batchRequestDto) {
+        try {
+            if (batchRequestDto.getLocations() == null || batchRequestDto.getLocations().isEmpty()) {
+                return new ResponseEntity<>(0, HttpStatus.BAD_REQUEST);
+            }
+
+            List<DriverLocationDto> locations = batchRequestDto.getLocations().stream()
+                    .map(location -> DriverLocationDto.builder()
+                            .driverId(location.getDriverId())
+                            .latitude(location.getLatitude())
+                            .longitude(location.getLongitude())
+                            .build())
+                    .collect(Collectors.toList());
+
+            Integer saved = locationService.saveDriverLocations(locations);
+            return new ResponseEntity<>(saved, HttpStatus.CREATED);
+        } catch (Exception ex) {
+            return new ResponseEntity<>(0, HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
     @PostMapping("/nearby/drivers")
     public ResponseEntity<List<DriverLocationDto>> getNearbyDrivers(@RequestBody NearbyDriversRequestDto nearbyDriversRequestDto) {
         try {
@@ -47,4 +107,62 @@ public class LocationController {
             return new ResponseEntity<>(new ArrayList<>(), HttpStatus.INTERNAL_SERVER_ERROR);
         }
     }
+
+    /**
+     * Returns the k nearest drivers within radiusKm, sorted by distance (nearest first).
+     * With adaptive=true the search starts small and widens up to radiusKm until k drivers are found.
+     */
+    @PostMapping("/nearest/drivers")
+    public ResponseEntity<List<DriverLocationDto>> getNearestDrivers(@RequestBody NearestDriversRequestDto nearestDriversRequestDto) {
+        Double radiusKm = nearestDriversRequestDto.getRadiusKm();
+        if (radiusKm != null && radiusKm > properties.getMaxSearchRadiusKm()) {
+            // Every covering shard cell is one GEOSEARCH, so an unbounded radius is an unbounded pipeline
+            return new ResponseEntity<>(new ArrayList<>(), HttpStatus.BAD_REQUEST);
+        }
+
+        try {
+            if (Boolean.TRUE.equals(nearestDriversRequestDto.getAdaptive())) {
+                // Widen from the smallest configured radius up to radiusKm inside Redis
+                List<DriverLocationDto> drivers = locationService.getNearestDriversAdaptive(
+                        nearestDriversRequestDto.getLatitude(),
+                        nearestDriversRequestDto.getLongitude(),
+                        nearestDriversRequestDto.getRadiusKm(),
+                        nearestDriversRequestDto.getK()
+                );
+                return new ResponseEntity<>(drivers, HttpStatus.OK);
+            }
+
+            List<DriverLocationDto> drivers = locationService.getNearestDrivers(
+                    nearestDriversRequestDto.getLatitude(),
+                    nearestDriversRequestDto.getLongitude(),
+                    nearestDriversRequestDto.getRadiusKm(),
+                    nearestDriversRequestDto.getK()
+            );
+            return new ResponseEntity<>(drivers, HttpStatus.OK);
+        } catch (Exception ex) {
+            return new ResponseEntity<>(new ArrayList<>(), HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    /**
+     * Returns a driver's recorded path between from and to (epoch millis) and the distance travelled.
+     * Defaults to the last hour.
+     */
+    @GetMapping("/drivers/{driverId}/history")
+    public ResponseEntity<DriverLocationHistoryDto> getDriverLocationHistory(@PathVariable String driverId,
+                                                                             @RequestParam(required = false) Long from,
+                                                                             @RequestParam(required = false) Long to) {
+        long end = to != null ? to : System.currentTimeMillis();
+        long start = from != null ? from : end - ONE_HOUR_MS;
+        if (start > end) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+
+        try {
+            DriverLocationHistoryDto history = locationHistoryService.getHistory(driverId, start, end);
+            return new ResponseEntity<>(history, HttpStatus.OK);
+        } catch (Exception ex) {
+            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
 }
@@ -0,0 +1,103 @@
+package com.girikgarg.uberlocationservice.controller;
+
+import com.girikgarg.uberlocationservice.configuration.LocationServiceProperties;
+import com.girikgarg.uberlocationservice.dto.DriverLocationDto;
+import com.girikgarg.uberlocationservice.dto.NearbyDriversRequestDto;
+import com.girikgarg.uberlocationservice.dto.NearestDriversRequestDto;
+import com.girikgarg.uberlocationservice.dto.SaveDriverLocationRequestDto;
+import com.girikgarg.uberlocationservice.dto.SaveDriverLocationsBatchRequestDto;
+import com.girikgarg.uberlocationservice.services.api.ReactiveLocationService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Non-blocking variants of the {@link LocationController} endpoints, served by {@link ReactiveLocationService}.
+ * Only registered under the "reactive" profile, where they are served from Netty event-loop threads.
+ */
+@RestController
+@RequestMapping("/api/location/reactive")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveLocationController {
+
+    private ReactiveLocationService reactiveLocationService;
+    private LocationServiceProperties properties;
+
+    public ReactiveLocationController(ReactiveLocationService reactiveLocationService,
+                                      LocationServiceProperties properties) {
+        this.reactiveLocationService = reactiveLocationService;
+        this.properties = properties;
+    }
+
+    @PostMapping("/drivers")
+    public Mono<ResponseEntity<Boolean>> saveDriverLocation(@RequestBody SaveDriverLocationRequestDto saveDriverLocationRequestDto) {
+        return reactiveLocationService.saveDriverLocation(
+                        saveDriverLocationRequestDto.getDriverId(),
+                        saveDriverLocationRequestDto.getLatitude(),
+                        saveDriverLocationRequestDto.getLongitude())
+                .map(saved -> new ResponseEntity<>(saved, HttpStatus.CREATED))
+                .onErrorReturn(new ResponseEntity<>(false, HttpStatus.INTERNAL_SERVER_ERROR));
+    }
+
+    @PostMapping("/drivers/batch")
+    public Mono<ResponseEntity<Integer>> saveDriverLocations(@RequestBody SaveDriverLocationsBatchRequestDto batchRequestDto) {
+        if (batchRequestDto.getLocations() == null || batchRequestDto.getLocations().isEmpty()) {
+            return Mono.just(new ResponseEntity<>(0, HttpStatus.BAD_REQUEST));
+        }
+
+        List<DriverLocationDto> locations = batchRequestDto.getLocations().stream()
+                .map(location -> DriverLocationDto.builder()
+                        .driverId(location.getDriverId())
+                        .latitude(location.getLatitude())
+                        .longitude(location.getLongitude())
+                        .build())
+                .collect(Collectors.toList());
+
+        return reactiveLocationService.saveDriverLocations(locations)
+                .map(saved -> new ResponseEntity<>(saved, HttpStatus.CREATED))
+                .onErrorReturn(new ResponseEntity<>(0, HttpStatus.INTERNAL_SERVER_ERROR));
+    }
+
+    @PostMapping("/nearby/drivers")
+    public Mono<ResponseEntity<List<DriverLocationDto>>> getNearbyDrivers(@RequestBody NearbyDriversRequestDto nearbyDriversRequestDto) {
+        return reactiveLocationService.getNearbyDrivers(
+                        nearbyDriversRequestDto.getLatitude(),
+                        nearbyDriversRequestDto.getLongitude())
+                .collectList()
+                .map(drivers -> new ResponseEntity<>(drivers, HttpStatus.OK))
+                .onErrorReturn(new ResponseEntity<>(new ArrayList<>(), HttpStatus.INTERNAL_SERVER_ERROR));
+    }
+
+    @PostMapping("/nearest/drivers")
+    public Mono<ResponseEntity<List<DriverLocationDto>>> getNearestDrivers(@RequestBody NearestDriversRequestDto nearestDriversRequestDto) {
+        Double radiusKm = nearestDriversRequestDto.getRadiusKm();
+        if (radiusKm != null && radiusKm > properties.getMaxSearchRadiusKm()) {
+            return Mono.just(new ResponseEntity<>(new ArrayList<>(), HttpStatus.BAD_REQUEST));
+        }
+
+        // Same adaptive widening as the blocking endpoint; Booking Service sends adaptive=true by default
+        Flux<DriverLocationDto> drivers = Boolean.TRUE.equals(nearestDriversRequestDto.getAdaptive())
+                ? reactiveLocationService.getNearestDriversAdaptive(
+                        nearestDriversRequestDto.getLatitude(),
+                        nearestDriversRequestDto.getLongitude(),
+                        nearestDriversRequestDto.getRadiusKm(),
+                        nearestDriversRequestDto.getK())
+                : reactiveLocationService.getNearestDrivers(
+                        nearestDriversRequestDto.getLatitude(),
+                        nearestDriversRequestDto.getLongitude(),
+                        nearestDriversRequestDto.getRadiusKm(),
+                        nearestDriversRequestDto.getK());
+
+        return drivers
+                .collectList()
+                .map(drivers -> new ResponseEntity<>(drivers, HttpStatus.OK))
+                .onErrorReturn(new ResponseEntity<>(new ArrayList<>(), HttpStatus.INTERNAL_SERVER_ERROR));
+    }
+}
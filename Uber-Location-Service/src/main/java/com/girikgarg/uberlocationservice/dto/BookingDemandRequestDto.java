@@ -0,0 +1,14 @@
+package com.girikgarg.uberlocationservice.dto;
+
+import lombok.*;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingDemandRequestDto {
+    Long bookingId;
+    Double latitude;
+    Double longitude;
+}
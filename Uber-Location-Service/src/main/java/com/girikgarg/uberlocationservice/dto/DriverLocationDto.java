@@ -11,5 +11,6 @@ public class DriverLocationDto {
     String driverId;
     Double latitude;
     Double longitude;
+    Double distanceKm;
 }
 
@@ -0,0 +1,18 @@
+package com.girikgarg.uberlocationservice.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DriverLocationHistoryDto {
+    String driverId;
+    Long from;
+    Long to;
+    List<LocationPointDto> points;
+    Double distanceKm;
+}
@@ -0,0 +1,16 @@
+package com.girikgarg.uberlocationservice.dto;
+
+import lombok.*;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class HeatmapCellDto {
+    String cell;
+    Double latitude;
+    Double longitude;
+    Long drivers;
+    Long openBookings;
+}
@@ -0,0 +1,16 @@
+package com.girikgarg.uberlocationservice.dto;
+
+import lombok.*;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class NearestDriversRequestDto {
+    Double latitude;
+    Double longitude;
+    Double radiusKm;
+    Integer k;
+    Boolean adaptive;
+}
@@ -0,0 +1,14 @@
+package com.girikgarg.uberlocationservice.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SaveDriverLocationsBatchRequestDto {
+    List<SaveDriverLocationRequestDto> locations;
+}
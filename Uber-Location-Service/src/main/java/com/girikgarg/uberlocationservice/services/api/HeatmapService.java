@@ -0,0 +1,52 @@
+package com.girikgarg.uberlocationservice.services.api;
+
+import com.girikgarg.uberlocationservice.dto.DriverLocationDto;
+import com.girikgarg.uberlocationservice.dto.HeatmapCellDto;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.RedisOperations;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface HeatmapService {
+
+    /**
+     * Moves written drivers into their current heatmap cells, updating supply counters.
+     */
+    void recordDriverLocations(Collection<DriverLocationDto> locations);
+
+    /**
+     * Same as {@link #recordDriverLocations(Collection)}, but queues the update on the given operations,
+     * so the location write pipeline carries it in the same round trip.
+     */
+    void recordDriverLocations(RedisOperations<String, String> operations, Collection<DriverLocationDto> locations);
+
+    /**
+     * Same as {@link #recordDriverLocations(Collection)}, but runs the script on the given reactive template,
+     * so reactive writes never block a thread on it. Errors are logged and swallowed like for the other variants.
+     */
+    Mono<Void> recordDriverLocations(ReactiveStringRedisTemplate reactiveRedisTemplate, Collection<DriverLocationDto> locations);
+
+    /**
+     * Removes drivers (e.g. evicted as stale) from the supply counters.
+     */
+    void removeDrivers(Collection<String> driverIds);
+
+    /**
+     * Counts a booking waiting for a driver (ASSIGNING_DRIVER) in the cell of its pickup. Idempotent.
+     */
+    void openDemand(Long bookingId, Double latitude, Double longitude);
+
+    /**
+     * Removes a booking from the demand counters once it has left ASSIGNING_DRIVER. Idempotent.
+     */
+    void closeDemand(Long bookingId);
+
+    /**
+     * Returns the non-empty cells inside the bounding box. Cost is proportional to the number of cells.
+     *
+     * @throws IllegalArgumentException if the box covers more than heatmap-max-cells cells
+     */
+    List<HeatmapCellDto> getHeatmap(Double minLatitude, Double minLongitude, Double maxLatitude, Double maxLongitude);
+}
@@ -0,0 +1,19 @@
+package com.girikgarg.uberlocationservice.services.api;
+
+import com.girikgarg.uberlocationservice.dto.DriverLocationDto;
+import com.girikgarg.uberlocationservice.dto.DriverLocationHistoryDto;
+
+import java.util.Collection;
+
+public interface LocationHistoryService {
+
+    /**
+     * Appends accepted pings to the drivers' history. Points are buffered and written as compact segments.
+     */
+    void record(Collection<DriverLocationDto> locations, long timestampMillis);
+
+    /**
+     * Returns the driver's path between from and to (epoch millis, inclusive) and the distance travelled along it.
+     */
+    DriverLocationHistoryDto getHistory(String driverId, long from, long to);
+}
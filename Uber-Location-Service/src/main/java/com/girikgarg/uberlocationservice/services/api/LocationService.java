@@ -7,5 +7,33 @@ import java.util.List;
 public interface LocationService {
     Boolean saveDriverLocation(String driverId, Double latitude, Double longitude);
 
+    /**
+     * Saves many driver locations using one pipelined round trip to Redis.
+     *
+     * @param locations driver locations to save (latest position per driver)
+     * @return number of locations written
+     * @throws org.springframework.dao.DataAccessException if the write to Redis fails
+     */
+    Integer saveDriverLocations(List<DriverLocationDto> locations);
+
     List<DriverLocationDto> getNearbyDrivers(Double latitude, Double longitude);
+
+    /**
+     * Finds the k nearest drivers within the radius, sorted by distance.
+     *
+     * @param radiusKm search radius in km (defaults to 5 km when null)
+     * @param k        maximum number of drivers to return
+     * @return drivers nearest first, each with distanceKm populated
+     */
+    List<DriverLocationDto> getNearestDrivers(Double latitude, Double longitude, Double radiusKm, Integer k);
+
+    /**
+     * Finds the k nearest drivers, starting with a small radius and widening in configured steps
+     * until k drivers are found, all in one round trip to Redis.
+     *
+     * @param maxRadiusKm largest radius to try (defaults to the largest configured step when null)
+     * @param k           maximum number of drivers to return
+     * @return drivers nearest first, each with distanceKm populated
+     */
+    List<DriverLocationDto> getNearestDriversAdaptive(Double latitude, Double longitude, Double maxRadiusKm, Integer k);
 }
@@ -0,0 +1,35 @@
+package com.girikgarg.uberlocationservice.services.api;
+
+import com.girikgarg.uberlocationservice.dto.DriverLocationDto;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Non-blocking counterpart of {@link LocationService}, backed by Lettuce.
+ * Writes and searches use the same Redis keys, so both implementations can serve the same fleet.
+ */
+public interface ReactiveLocationService {
+    Mono<Boolean> saveDriverLocation(String driverId, Double latitude, Double longitude);
+
+    /**
+     * Saves many driver locations; commands are multiplexed on the shared Lettuce connection.
+     *
+     * @return number of locations written; errors with the Redis failure when the write did not go through
+     */
+    Mono<Integer> saveDriverLocations(List<DriverLocationDto> locations);
+
+    Flux<DriverLocationDto> getNearbyDrivers(Double latitude, Double longitude);
+
+    /**
+     * Finds the k nearest drivers within the radius, sorted by distance.
+     */
+    Flux<DriverLocationDto> getNearestDrivers(Double latitude, Double longitude, Double radiusKm, Integer k);
+
+    /**
+     * Finds the k nearest drivers, widening the radius in configured steps up to maxRadiusKm,
+     * like {@link LocationService#getNearestDriversAdaptive(Double, Double, Double, Integer)}.
+     */
+    Flux<DriverLocationDto> getNearestDriversAdaptive(Double latitude, Double longitude, Double maxRadiusKm, Integer k);
+}
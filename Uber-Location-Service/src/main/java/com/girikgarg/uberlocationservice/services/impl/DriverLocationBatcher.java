@@ -0,0 +1,100 @@
+package com.girikgarg.uberlocationservice.services.impl;
+
+import com.girikgarg.uberlocationservice.configuration.LocationServiceProperties;
+import com.girikgarg.uberlocationservice.dto.DriverLocationDto;
+import com.girikgarg.uberlocationservice.services.api.LocationService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Server-side coalescer for driver location pings.
+ *
+ * Request threads only drop the latest position into an in-memory buffer keyed by driverId
+ * and return immediately. A scheduled flush drains the buffer and hands it to
+ * {@link LocationService#saveDriverLocations(List)}, which writes it as pipelined multi-member GEOADDs.
+ *
+ * Because the buffer is keyed by driver, several pings from one driver inside the same
+ * window collapse into a single write of the most recent position.
+ */
+@Slf4j
+@Component
+public class DriverLocationBatcher {
+
+    private final LocationService locationService;
+    private final LocationServiceProperties properties;
+    private final ConcurrentHashMap<String, DriverLocationDto> pending = new ConcurrentHashMap<>();
+
+    public DriverLocationBatcher(LocationService locationService, LocationServiceProperties properties) {
+        this.locationService = locationService;
+        this.properties = properties;
+    }
+
+    /**
+     * Buffers a driver location until the next flush.
+     */
+    public void submit(String driverId, Double latitude, Double longitude) {
+        pending.put(driverId, DriverLocationDto.builder()
+                .driverId(driverId)
+                .latitude(latitude)
+                .longitude(longitude)
+                .build());
+    }
+
+    @Scheduled(fixedDelayString = "${location.service.batch-flush-interval-ms:200}")
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        int maxBatchSize = properties.getMaxBatchSize();
+        List<DriverLocationDto> batch = new ArrayList<>(Math.min(pending.size(), maxBatchSize));
+        int flushed = 0;
+
+        // Remove entry by entry so a ping arriving mid-flush is either written now or kept for the next flush.
+        // Iterates a snapshot of the keys so re-buffered failures are not retried within the same flush.
+        for (String driverId : new ArrayList<>(pending.keySet())) {
+            DriverLocationDto location = pending.remove(driverId);
+            if (location == null) {
+                continue;
+            }
+            batch.add(location);
+            if (batch.size() >= maxBatchSize) {
+                flushed += write(batch);
+                batch = new ArrayList<>(maxBatchSize);
+            }
+        }
+
+        if (!batch.isEmpty()) {
+            flushed += write(batch);
+        }
+
+        log.debug("Coalescer flushed {} driver locations", flushed);
+    }
+
+    /**
+     * Writes one batch. On failure the locations go back into the buffer for the next flush;
+     * putIfAbsent keeps any newer ping that arrived for the same driver in the meantime.
+     */
+    private int write(List<DriverLocationDto> batch) {
+        try {
+            return locationService.saveDriverLocations(batch);
+        } catch (Exception ex) {
+            batch.forEach(location -> pending.putIfAbsent(location.getDriverId(), location));
+            log.warn("Could not flush {} driver locations, re-buffered for the next flush: {}",
+                    batch.size(), ex.getMessage());
+            return 0;
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        log.info("Flushing {} buffered driver locations before shutdown", pending.size());
+        flush();
+    }
+}
@@ -0,0 +1,258 @@
+package com.girikgarg.uberlocationservice.services.impl;
+
+import com.girikgarg.uberlocationservice.configuration.LocationServiceProperties;
+import com.girikgarg.uberlocationservice.dto.DriverLocationDto;
+import com.girikgarg.uberlocationservice.utils.GeoDistance;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-JVM copy of the driver GEO index, used when location.service.read-path=local.
+ *
+ * Drivers live in slots of parallel primitive arrays (latitude, longitude, last seen, grid cell),
+ * and a uniform grid of cellSizeDegrees x cellSizeDegrees buckets maps each cell to the slots inside it.
+ * A radius query visits only the buckets overlapping the circle's bounding box and checks
+ * the haversine distance of each slot, so it never leaves the process.
+ *
+ * Redis stays the source of truth: the write path updates this index after every successful
+ * pipeline, and other instances feed it over pub/sub (see {@link DriverSpatialIndexSynchronizer}).
+ */
+@Component
+public class DriverSpatialIndex {
+
+    private static final double KM_PER_DEGREE_LATITUDE = 111.32;
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final double cellSizeDegrees;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<String, Integer> slotByDriverId = new HashMap<>();
+    private final Map<Long, Bucket> buckets = new HashMap<>();
+    private String[] driverIds = new String[INITIAL_CAPACITY];
+    private double[] latitudes = new double[INITIAL_CAPACITY];
+    private double[] longitudes = new double[INITIAL_CAPACITY];
+    private long[] lastSeenMillis = new long[INITIAL_CAPACITY];
+    private long[] cells = new long[INITIAL_CAPACITY];
+    private int[] freeSlots = new int[INITIAL_CAPACITY];
+    private int freeCount;
+    private int nextSlot;
+
+    public DriverSpatialIndex(LocationServiceProperties properties) {
+        this.cellSizeDegrees = properties.getLocalIndexCellSizeDegrees();
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return slotByDriverId.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Inserts or moves drivers. Entries older than what the index already holds are ignored,
+     * so a late pub/sub message can never roll a driver back.
+     */
+    public void updateAll(Collection<DriverLocationDto> locations, long seenAtMillis) {
+        lock.writeLock().lock();
+        try {
+            for (DriverLocationDto location : locations) {
+                upsert(location.getDriverId(), location.getLatitude(), location.getLongitude(), seenAtMillis);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void update(String driverId, double latitude, double longitude, long seenAtMillis) {
+        lock.writeLock().lock();
+        try {
+            upsert(driverId, latitude, longitude, seenAtMillis);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removeAll(Collection<String> ids) {
+        lock.writeLock().lock();
+        try {
+            for (String driverId : ids) {
+                Integer slot = slotByDriverId.remove(driverId);
+                if (slot != null) {
+                    release(slot);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Drops every driver last seen before the cutoff. Returns the number removed.
+     */
+    public int evictOlderThan(long cutoffMillis) {
+        lock.writeLock().lock();
+        try {
+            List<String> stale = new ArrayList<>();
+            for (Map.Entry<String, Integer> entry : slotByDriverId.entrySet()) {
+                if (lastSeenMillis[entry.getValue()] < cutoffMillis) {
+                    stale.add(entry.getKey());
+                }
+            }
+            for (String driverId : stale) {
+                release(slotByDriverId.remove(driverId));
+            }
+            return stale.size();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns drivers seen at or after cutoffMillis within radiusKm, nearest first, at most limit entries.
+     */
+    public List<DriverLocationDto> search(double latitude, double longitude, double radiusKm,
+                                          int limit, long cutoffMillis) {
+        double latSpan = radiusKm / KM_PER_DEGREE_LATITUDE;
+        double lonSpan = radiusKm / (KM_PER_DEGREE_LATITUDE * Math.max(Math.cos(Math.toRadians(latitude)), 0.01));
+        int minRow = row(latitude - latSpan);
+        int maxRow = row(latitude + latSpan);
+        int minCol = col(longitude - lonSpan);
+        int maxCol = col(longitude + lonSpan);
+
+        List<DriverLocationDto> found = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (int r = minRow; r <= maxRow; r++) {
+                for (int c = minCol; c <= maxCol; c++) {
+                    Bucket bucket = buckets.get(cellKey(r, c));
+                    if (bucket == null) {
+                        continue;
+                    }
+                    for (int i = 0; i < bucket.size; i++) {
+                        int slot = bucket.slots[i];
+                        if (lastSeenMillis[slot] < cutoffMillis) {
+                            continue;
+                        }
+                        double distanceKm = GeoDistance.haversineKm(latitude, longitude, latitudes[slot], longitudes[slot]);
+                        if (distanceKm <= radiusKm) {
+                            found.add(DriverLocationDto.builder()
+                                    .driverId(driverIds[slot])
+                                    .latitude(latitudes[slot])
+                                    .longitude(longitudes[slot])
+                                    .distanceKm(distanceKm)
+                                    .build());
+                        }
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        found.sort(Comparator.comparing(DriverLocationDto::getDistanceKm));
+        return found.size() > limit ? new ArrayList<>(found.subList(0, limit)) : found;
+    }
+
+    private void upsert(String driverId, double latitude, double longitude, long seenAtMillis) {
+        long cell = cellKey(row(latitude), col(longitude));
+        Integer existing = slotByDriverId.get(driverId);
+        int slot;
+        if (existing == null) {
+            slot = allocate();
+            slotByDriverId.put(driverId, slot);
+            driverIds[slot] = driverId;
+            buckets.computeIfAbsent(cell, key -> new Bucket()).add(slot);
+        } else {
+            slot = existing;
+            if (lastSeenMillis[slot] > seenAtMillis) {
+                return;
+            }
+            if (cells[slot] != cell) {
+                removeFromBucket(cells[slot], slot);
+                buckets.computeIfAbsent(cell, key -> new Bucket()).add(slot);
+            }
+        }
+        latitudes[slot] = latitude;
+        longitudes[slot] = longitude;
+        lastSeenMillis[slot] = seenAtMillis;
+        cells[slot] = cell;
+    }
+
+    private int allocate() {
+        if (freeCount > 0) {
+            return freeSlots[--freeCount];
+        }
+        if (nextSlot == driverIds.length) {
+            int capacity = driverIds.length * 2;
+            driverIds = Arrays.copyOf(driverIds, capacity);
+            latitudes = Arrays.copyOf(latitudes, capacity);
+            longitudes = Arrays.copyOf(longitudes, capacity);
+            lastSeenMillis = Arrays.copyOf(lastSeenMillis, capacity);
+            cells = Arrays.copyOf(cells, capacity);
+        }
+        return nextSlot++;
+    }
+
+    private void release(int slot) {
+        removeFromBucket(cells[slot], slot);
+        driverIds[slot] = null;
+        if (freeCount == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, freeSlots.length * 2);
+        }
+        freeSlots[freeCount++] = slot;
+    }
+
+    private void removeFromBucket(long cell, int slot) {
+        Bucket bucket = buckets.get(cell);
+        if (bucket != null && bucket.remove(slot) && bucket.size == 0) {
+            buckets.remove(cell);
+        }
+    }
+
+    private int row(double latitude) {
+        return (int) Math.floor(latitude / cellSizeDegrees);
+    }
+
+    private int col(double longitude) {
+        return (int) Math.floor(longitude / cellSizeDegrees);
+    }
+
+    private static long cellKey(int row, int col) {
+        return ((long) row << 32) | (col & 0xffffffffL);
+    }
+
+    /**
+     * Unordered growable list of slots in one grid cell.
+     */
+    private static final class Bucket {
+        private int[] slots = new int[8];
+        private int size;
+
+        void add(int slot) {
+            if (size == slots.length) {
+                slots = Arrays.copyOf(slots, size * 2);
+            }
+            slots[size++] = slot;
+        }
+
+        boolean remove(int slot) {
+            for (int i = 0; i < size; i++) {
+                if (slots[i] == slot) {
+                    slots[i] = slots[--size];
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package com.girikgarg.uberlocationservice.services.impl;
+
+import com.girikgarg.uberlocationservice.configuration.LocationServiceProperties;
+import com.girikgarg.uberlocationservice.dto.DriverLocationDto;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.geo.Point;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Keeps {@link DriverSpatialIndex} in step with Redis.
+ *
+ * On startup the index is loaded cell by cell from the last-seen sets and GEOPOS on the matching GEO keys.
+ * After that, every instance publishes each written batch on "drivers:location-updates"
+ * (when location.service.local-index-pub-sub-enabled=true) and every instance reading from
+ * the local index applies the batches it receives. This is what lets several Location Service
+ * instances behind the gateway answer from memory while writes land on any one of them.
+ *
+ * Keyspace notifications only carry the key name, not the member or its position,
+ * so the write path publishes the positions itself instead.
+ */
+@Slf4j
+@Component
+public class DriverSpatialIndexSynchronizer {
+
+    public static final String LOCATION_UPDATES_CHANNEL = "drivers:location-updates";
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RedisConnectionFactory redisConnectionFactory;
+    private final GeoShardKeyResolver shardKeyResolver;
+    private final DriverSpatialIndex spatialIndex;
+    private final LocationServiceProperties properties;
+    private RedisMessageListenerContainer listenerContainer;
+
+    public DriverSpatialIndexSynchronizer(StringRedisTemplate stringRedisTemplate,
+                                          RedisConnectionFactory redisConnectionFactory,
+                                          GeoShardKeyResolver shardKeyResolver,
+                                          DriverSpatialIndex spatialIndex,
+                                          LocationServiceProperties properties) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.redisConnectionFactory = redisConnectionFactory;
+        this.shardKeyResolver = shardKeyResolver;
+        this.spatialIndex = spatialIndex;
+        this.properties = properties;
+    }
+
+    /**
+     * Encodes a written batch as "seenAtMillis" followed by one "driverId,latitude,longitude" line per driver.
+     */
+    public static String encode(Collection<DriverLocationDto> locations, long seenAtMillis) {
+        StringBuilder message = new StringBuilder(locations.size() * 32).append(seenAtMillis);
+        for (DriverLocationDto location : locations) {
+            message.append('\n')
+                    .append(location.getDriverId()).append(',')
+                    .append(location.getLatitude()).append(',')
+                    .append(location.getLongitude());
+        }
+        return message.toString();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (properties.getReadPath() != LocationServiceProperties.ReadPath.LOCAL) {
+            return;
+        }
+
+        // Subscribe before loading so no update written during the load is missed
+        if (Boolean.TRUE.equals(properties.getLocalIndexPubSubEnabled())) {
+            listenerContainer = new RedisMessageListenerContainer();
+            listenerContainer.setConnectionFactory(redisConnectionFactory);
+            listenerContainer.addMessageListener(this::onMessage, new ChannelTopic(LOCATION_UPDATES_CHANNEL));
+            listenerContainer.afterPropertiesSet();
+            listenerContainer.start();
+            log.info("Subscribed to {} for local driver index updates", LOCATION_UPDATES_CHANNEL);
+        }
+
+        try {
+            int loaded = warmUp();
+            log.info("Loaded {} drivers into the local spatial index", loaded);
+        } catch (Exception ex) {
+            log.error("Error loading the local spatial index from Redis", ex);
+        }
+    }
+
+    @PreDestroy
+    public void stop() throws Exception {
+        if (listenerContainer != null) {
+            listenerContainer.destroy();
+        }
+    }
+
+    private void onMessage(Message message, byte[] pattern) {
+        try {
+            String[] lines = new String(message.getBody(), StandardCharsets.UTF_8).split("\n");
+            long seenAtMillis = Long.parseLong(lines[0]);
+            List<DriverLocationDto> locations = new ArrayList<>(lines.length - 1);
+            for (int i = 1; i < lines.length; i++) {
+                String[] fields = lines[i].split(",");
+                locations.add(DriverLocationDto.builder()
+                        .driverId(fields[0])
+                        .latitude(Double.parseDouble(fields[1]))
+                        .longitude(Double.parseDouble(fields[2]))
+                        .build());
+            }
+            spatialIndex.updateAll(locations, seenAtMillis);
+        } catch (Exception ex) {
+            log.warn("Ignoring malformed driver location update: {}", ex.getMessage());
+        }
+    }
+
+    /**
+     * Reads every driver seen within the TTL and its position, cell by cell, in chunks of max-batch-size.
+     */
+    private int warmUp() {
+        long cutoff = System.currentTimeMillis() - properties.getDriverTtlSeconds() * 1000L;
+        int loaded = 0;
+        for (String cell : knownCells()) {
+            Set<ZSetOperations.TypedTuple<String>> seen = stringRedisTemplate.opsForZSet()
+                    .rangeByScoreWithScores(shardKeyResolver.lastSeenKey(cell), cutoff, Double.POSITIVE_INFINITY);
+            if (seen == null || seen.isEmpty()) {
+                continue;
+            }
+
+            List<ZSetOperations.TypedTuple<String>> drivers = new ArrayList<>(seen);
+            for (int from = 0; from < drivers.size(); from += properties.getMaxBatchSize()) {
+                loaded += load(cell, drivers.subList(from, Math.min(from + properties.getMaxBatchSize(), drivers.size())));
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Cells that may hold drivers; the single null cell when sharding is disabled.
+     */
+    private List<String> knownCells() {
+        if (!shardKeyResolver.isShardingEnabled()) {
+            return Collections.singletonList(null);
+        }
+        Set<String> cells = stringRedisTemplate.opsForSet().members(GeoShardKeyResolver.DRIVER_CELLS_KEY);
+        return cells == null ? Collections.emptyList() : new ArrayList<>(cells);
+    }
+
+    private int load(String cell, List<ZSetOperations.TypedTuple<String>> chunk) {
+        String[] driverIds = chunk.stream().map(ZSetOperations.TypedTuple::getValue).toArray(String[]::new);
+        List<Point> points = stringRedisTemplate.opsForGeo().position(shardKeyResolver.geoKey(cell), driverIds);
+        if (points == null) {
+            return 0;
+        }
+
+        int loaded = 0;
+        for (int i = 0; i < chunk.size() && i < points.size(); i++) {
+            Point point = points.get(i);
+            if (point != null) {
+                ZSetOperations.TypedTuple<String> tuple = chunk.get(i);
+                spatialIndex.update(tuple.getValue(), point.getY(), point.getX(), tuple.getScore().longValue());
+                loaded++;
+            }
+        }
+        return loaded;
+    }
+}
@@ -0,0 +1,120 @@
+package com.girikgarg.uberlocationservice.services.impl;
+
+import com.girikgarg.uberlocationservice.configuration.LocationServiceProperties;
+import com.girikgarg.uberlocationservice.utils.GeoHash;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Decides which Redis keys a driver location lives in.
+ *
+ * Every cell has a GEO key and a last-seen sorted set (driverId -> epoch millis of the last ping)
+ * that share a hash tag, so both hash to the same Redis Cluster slot and one script may touch both:
+ * - sharding disabled: the single legacy GEO key "drivers" and "{drivers}:last-seen"
+ * - sharding enabled: "drivers:{geohash}:geo" and "drivers:{geohash}:last-seen", where the geohash
+ *   prefix length is configurable, so each city area gets its own keys and its own slot
+ *
+ * With sharding, "drivers:cell:{driverId}" remembers each driver's current cell (expiring after
+ * twice the driver TTL), so a driver that crosses a cell boundary is removed from the old cell,
+ * and the set "drivers:cells" lists the cells that ever held drivers, for the sweeper and the
+ * local index warm-up. Nearby searches only touch the handful of cells that cover the search circle.
+ */
+@Component
+public class GeoShardKeyResolver {
+
+    public static final String DRIVER_GEO_OPS_KEY = "drivers";
+    private static final String UNSHARDED_LAST_SEEN_KEY = "{drivers}:last-seen";
+    private static final String CELL_KEY_PREFIX = "drivers:{";
+    private static final String DRIVER_CELL_KEY_PREFIX = "drivers:cell:";
+
+    /**
+     * Set of every cell that held drivers; only written when sharding is enabled.
+     */
+    public static final String DRIVER_CELLS_KEY = "drivers:cells";
+
+    /**
+     * How often each instance re-adds a cell it writes to to DRIVER_CELLS_KEY, so the set
+     * recovers from a lost write or a flushed Redis without an SADD on every ping.
+     */
+    private static final long CELL_REGISTRATION_REFRESH_MS = 300_000L;
+
+    private final LocationServiceProperties properties;
+    private final Map<String, Long> cellsRegisteredAt = new ConcurrentHashMap<>();
+
+    public GeoShardKeyResolver(LocationServiceProperties properties) {
+        this.properties = properties;
+    }
+
+    public boolean isShardingEnabled() {
+        return Boolean.TRUE.equals(properties.getShardingEnabled());
+    }
+
+    /**
+     * Returns the shard cell for a coordinate, or null when sharding is disabled.
+     */
+    public String cellFor(double latitude, double longitude) {
+        if (!isShardingEnabled()) {
+            return null;
+        }
+        return GeoHash.encode(latitude, longitude, properties.getShardGeohashPrecision());
+    }
+
+    /**
+     * GEO key of a cell; null is the unsharded cell.
+     */
+    public String geoKey(String cell) {
+        return cell == null ? DRIVER_GEO_OPS_KEY : CELL_KEY_PREFIX + cell + "}:geo";
+    }
+
+    /**
+     * Last-seen sorted set of a cell, in the same slot as {@link #geoKey(String)}.
+     */
+    public String lastSeenKey(String cell) {
+        return cell == null ? UNSHARDED_LAST_SEEN_KEY : CELL_KEY_PREFIX + cell + "}:last-seen";
+    }
+
+    /**
+     * Key holding the current cell of a driver (sharding only).
+     */
+    public String driverCellKey(String driverId) {
+        return DRIVER_CELL_KEY_PREFIX + driverId;
+    }
+
+    /**
+     * Returns the cells that have to be queried to find every driver within the radius;
+     * a single null cell when sharding is disabled.
+     */
+    public List<String> cellsCovering(double latitude, double longitude, double radiusKm) {
+        if (!isShardingEnabled()) {
+            return Collections.singletonList(null);
+        }
+        return new ArrayList<>(GeoHash.coveringCells(latitude, longitude, radiusKm, properties.getShardGeohashPrecision()));
+    }
+
+    /**
+     * Returns the cells among the given ones that this instance has not added to DRIVER_CELLS_KEY
+     * recently, and marks them as added. Callers that fail to write them call {@link #forgetCells(Collection)}.
+     */
+    public List<String> cellsToRegister(Collection<String> cells) {
+        long now = System.currentTimeMillis();
+        List<String> unregistered = new ArrayList<>();
+        for (String cell : cells) {
+            Long registeredAt = cellsRegisteredAt.get(cell);
+            if (registeredAt == null || now - registeredAt > CELL_REGISTRATION_REFRESH_MS) {
+                cellsRegisteredAt.put(cell, now);
+                unregistered.add(cell);
+            }
+        }
+        return unregistered;
+    }
+
+    public void forgetCells(Collection<String> cells) {
+        cells.forEach(cellsRegisteredAt::remove);
+    }
+}
@@ -0,0 +1,418 @@
+package com.girikgarg.uberlocationservice.services.impl;
+
+import com.girikgarg.uberlocationservice.configuration.LocationServiceProperties;
+import com.girikgarg.uberlocationservice.dto.DriverLocationDto;
+import com.girikgarg.uberlocationservice.services.api.HeatmapService;
+import com.girikgarg.uberlocationservice.services.api.LocationHistoryService;
+import com.girikgarg.uberlocationservice.services.api.ReactiveLocationService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.data.geo.Circle;
+import org.springframework.data.geo.Distance;
+import org.springframework.data.geo.GeoResult;
+import org.springframework.data.geo.Metrics;
+import org.springframework.data.geo.Point;
+import org.springframework.data.redis.connection.RedisGeoCommands;
+import org.springframework.data.redis.core.DefaultTypedTuple;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.domain.geo.GeoReference;
+import org.springframework.data.redis.domain.geo.GeoShape;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.function.Tuple2;
+import reactor.util.function.Tuples;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Reactive implementation of the driver location index on Lettuce.
+ *
+ * Lettuce sends every command over one shared connection and completes the returned
+ * Mono when the reply arrives, so thousands of concurrent pings are served by a few
+ * event-loop threads instead of one blocked thread (and one pooled Jedis connection) per request.
+ * Independent commands of one request are issued together with Mono.when, so they share
+ * the connection's write buffer much like a pipeline.
+ *
+ * Key layout, sharding, last-seen tracking and stale filtering match {@link RedisLocationServiceImpl}.
+ * Only created under the "reactive" profile, together with the Lettuce connection it runs on.
+ */
+@Slf4j
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveRedisLocationServiceImpl implements ReactiveLocationService {
+
+    private static final int DEFAULT_NEAREST_DRIVERS = 10;
+    private static final int MAX_OVERFETCH_FACTOR = 8;
+
+    private final ReactiveStringRedisTemplate reactiveRedisTemplate;
+    private final GeoShardKeyResolver shardKeyResolver;
+    private final DriverSpatialIndex spatialIndex;
+    private final LocationHistoryService locationHistoryService;
+    private final HeatmapService heatmapService;
+    private final LocationServiceProperties properties;
+    @SuppressWarnings("rawtypes")
+    private final RedisScript<List> adaptiveNearestDriversScript;
+
+    @SuppressWarnings("rawtypes")
+    public ReactiveRedisLocationServiceImpl(ReactiveStringRedisTemplate reactiveRedisTemplate,
+                                            GeoShardKeyResolver shardKeyResolver,
+                                            DriverSpatialIndex spatialIndex,
+                                            LocationHistoryService locationHistoryService,
+                                            HeatmapService heatmapService,
+                                            LocationServiceProperties properties,
+                                            RedisScript<List> adaptiveNearestDriversScript) {
+        this.reactiveRedisTemplate = reactiveRedisTemplate;
+        this.shardKeyResolver = shardKeyResolver;
+        this.spatialIndex = spatialIndex;
+        this.locationHistoryService = locationHistoryService;
+        this.heatmapService = heatmapService;
+        this.properties = properties;
+        this.adaptiveNearestDriversScript = adaptiveNearestDriversScript;
+    }
+
+    @Override
+    public Mono<Boolean> saveDriverLocation(String driverId, Double latitude, Double longitude) {
+        return saveDriverLocations(Collections.singletonList(DriverLocationDto.builder()
+                        .driverId(driverId)
+                        .latitude(latitude)
+                        .longitude(longitude)
+                        .build()))
+                .map(saved -> saved == 1);
+    }
+
+    @Override
+    public Mono<Integer> saveDriverLocations(List<DriverLocationDto> locations) {
+        if (locations == null || locations.isEmpty()) {
+            return Mono.just(0);
+        }
+
+        Map<String, DriverLocationDto> latestByDriver = new LinkedHashMap<>();
+        for (DriverLocationDto location : locations) {
+            if (location.getDriverId() == null || location.getLatitude() == null || location.getLongitude() == null) {
+                log.warn("Skipping incomplete driver location in batch: driverId={}", location.getDriverId());
+                continue;
+            }
+            latestByDriver.put(location.getDriverId(), location);
+        }
+
+        if (latestByDriver.isEmpty()) {
+            return Mono.just(0);
+        }
+
+        Mono<Map<String, String>> previousCells = shardKeyResolver.isShardingEnabled()
+                ? loadCurrentCells(new ArrayList<>(latestByDriver.keySet()))
+                : Mono.just(Collections.emptyMap());
+
+        return previousCells
+                .flatMap(cells -> write(latestByDriver, cells))
+                .thenReturn(latestByDriver.size())
+                // Propagated, so the controller answers 500 instead of reporting a failed write as created
+                .doOnError(ex -> log.error("Error saving batch of {} driver locations", locations.size(), ex));
+    }
+
+    @Override
+    public Flux<DriverLocationDto> getNearbyDrivers(Double latitude, Double longitude) {
+        double searchRadiusKm = properties.getSearchRadiusKm();
+        if (isLocalReadPath()) {
+            return searchLocalIndex(latitude, longitude, searchRadiusKm, Integer.MAX_VALUE);
+        }
+
+        Circle searchArea = new Circle(new Point(longitude, latitude), new Distance(searchRadiusKm, Metrics.KILOMETERS));
+        RedisGeoCommands.GeoRadiusCommandArgs args = RedisGeoCommands.GeoRadiusCommandArgs
+                .newGeoRadiusArgs()
+                .includeCoordinates();
+
+        return Flux.fromIterable(shardKeyResolver.cellsCovering(latitude, longitude, searchRadiusKm))
+                .flatMap(cell -> reactiveRedisTemplate.opsForGeo().radius(shardKeyResolver.geoKey(cell), searchArea, args)
+                        .map(geoResult -> toDriverLocation(geoResult, false))
+                        .collectList()
+                        .flatMapMany(candidates -> freshDrivers(cell, candidates)))
+                .collectList()
+                .flatMapMany(drivers -> Flux.fromIterable(mergeNearest(drivers, Integer.MAX_VALUE, false)))
+                .onErrorResume(ex -> {
+                    log.error("Error finding nearby drivers for location ({}, {})", latitude, longitude, ex);
+                    return Flux.empty();
+                });
+    }
+
+    @Override
+    public Flux<DriverLocationDto> getNearestDrivers(Double latitude, Double longitude, Double radiusKm, Integer k) {
+        double searchRadiusKm = radiusKm != null && radiusKm > 0 ? radiusKm : properties.getSearchRadiusKm();
+        int limit = Math.min(k != null && k > 0 ? k : DEFAULT_NEAREST_DRIVERS, properties.getMaxNearestDrivers());
+        if (isLocalReadPath()) {
+            return searchLocalIndex(latitude, longitude, searchRadiusKm, limit);
+        }
+
+        GeoReference<String> center = GeoReference.fromCoordinate(longitude, latitude);
+        GeoShape shape = GeoShape.byRadius(new Distance(searchRadiusKm, Metrics.KILOMETERS));
+        List<String> cells = shardKeyResolver.cellsCovering(latitude, longitude, searchRadiusKm);
+
+        return searchNearest(cells, center, shape, limit, limit * 2)
+                .flatMapMany(Flux::fromIterable)
+                .onErrorResume(ex -> {
+                    log.error("Error finding nearest drivers for location ({}, {})", latitude, longitude, ex);
+                    return Flux.empty();
+                });
+    }
+
+    /**
+     * Runs adaptive-nearest-drivers.lua once per covering cell, like {@link RedisLocationServiceImpl},
+     * and merges the per-cell results by distance. Each script only touches its cell's GEO and last-seen keys.
+     */
+    @Override
+    public Flux<DriverLocationDto> getNearestDriversAdaptive(Double latitude, Double longitude, Double maxRadiusKm, Integer k) {
+        List<Double> steps = radiusSteps(maxRadiusKm);
+        double largestRadiusKm = steps.get(steps.size() - 1);
+        int limit = Math.min(k != null && k > 0 ? k : DEFAULT_NEAREST_DRIVERS, properties.getMaxNearestDrivers());
+        if (isLocalReadPath()) {
+            // The local index scans the whole radius in memory, so there is nothing to widen
+            return searchLocalIndex(latitude, longitude, largestRadiusKm, limit);
+        }
+
+        // ARGV = longitude, latitude, k, cutoff, radii...
+        long cutoff = System.currentTimeMillis() - properties.getDriverTtlSeconds() * 1000L;
+        List<String> args = new ArrayList<>(4 + steps.size());
+        args.add(String.valueOf(longitude));
+        args.add(String.valueOf(latitude));
+        args.add(String.valueOf(limit));
+        args.add(String.valueOf(cutoff));
+        steps.forEach(step -> args.add(String.valueOf(step)));
+
+        return Flux.fromIterable(shardKeyResolver.cellsCovering(latitude, longitude, largestRadiusKm))
+                .flatMap(cell -> reactiveRedisTemplate.execute(adaptiveNearestDriversScript,
+                        List.of(shardKeyResolver.geoKey(cell), shardKeyResolver.lastSeenKey(cell)), args))
+                .collectList()
+                .flatMapMany(replies -> {
+                    List<DriverLocationDto> candidates = new ArrayList<>();
+                    for (List<?> reply : replies) {
+                        // Radius used, then flattened (member, distance, longitude, latitude) tuples
+                        for (int i = 1; i + 3 < reply.size(); i += 4) {
+                            candidates.add(DriverLocationDto.builder()
+                                    .driverId(reply.get(i).toString())
+                                    .distanceKm(Double.parseDouble(reply.get(i + 1).toString()))
+                                    .longitude(Double.parseDouble(reply.get(i + 2).toString()))
+                                    .latitude(Double.parseDouble(reply.get(i + 3).toString()))
+                                    .build());
+                        }
+                    }
+                    // The scripts already dropped stale drivers
+                    return Flux.fromIterable(mergeNearest(candidates, limit, true));
+                })
+                .onErrorResume(ex -> {
+                    log.error("Error in adaptive nearest driver search for location ({}, {})", latitude, longitude, ex);
+                    return Flux.empty();
+                });
+    }
+
+    /**
+     * Configured radius steps below maxRadiusKm, followed by maxRadiusKm itself.
+     * Without a maximum the configured steps are used as they are.
+     */
+    private List<Double> radiusSteps(Double maxRadiusKm) {
+        List<Double> configured = properties.getAdaptiveRadiusStepsKm().stream()
+                .filter(step -> step != null && step > 0)
+                .sorted()
+                .collect(Collectors.toList());
+        if (maxRadiusKm == null || maxRadiusKm <= 0) {
+            return configured.isEmpty() ? Collections.singletonList(properties.getSearchRadiusKm()) : configured;
+        }
+
+        List<Double> steps = configured.stream()
+                .filter(step -> step < maxRadiusKm)
+                .collect(Collectors.toCollection(ArrayList::new));
+        steps.add(maxRadiusKm);
+        return steps;
+    }
+
+    /**
+     * Queries every cell with COUNT fetch, drops stale drivers and trims to the limit.
+     * Same over-fetch as {@link RedisLocationServiceImpl}: while stale drivers leave fewer than limit
+     * and some cell returned a full page, the cells are queried again with twice the count (up to 8x).
+     */
+    private Mono<List<DriverLocationDto>> searchNearest(List<String> cells, GeoReference<String> center,
+                                                        GeoShape shape, int limit, int fetch) {
+        RedisGeoCommands.GeoSearchCommandArgs args = RedisGeoCommands.GeoSearchCommandArgs
+                .newGeoSearchArgs()
+                .includeCoordinates()
+                .includeDistance()
+                .sortAscending()
+                .limit(fetch, Boolean.TRUE.equals(properties.getNearestApproximate()));
+
+        return Flux.fromIterable(cells)
+                .flatMap(cell -> reactiveRedisTemplate.opsForGeo().search(shardKeyResolver.geoKey(cell), center, shape, args)
+                        .map(geoResult -> toDriverLocation(geoResult, true))
+                        .collectList()
+                        .flatMap(page -> freshDrivers(cell, page)
+                                .collectList()
+                                .map(fresh -> Tuples.of(page.size() >= fetch, fresh))))
+                .collectList()
+                .flatMap(pages -> {
+                    boolean anyCellFull = pages.stream().anyMatch(Tuple2::getT1);
+                    List<DriverLocationDto> candidates = new ArrayList<>();
+                    pages.forEach(page -> candidates.addAll(page.getT2()));
+                    List<DriverLocationDto> nearest = mergeNearest(candidates, limit, true);
+                    return nearest.size() < limit && anyCellFull && fetch < limit * MAX_OVERFETCH_FACTOR
+                            ? searchNearest(cells, center, shape, limit, fetch * 2)
+                            : Mono.just(nearest);
+                });
+    }
+
+    private Mono<Void> write(Map<String, DriverLocationDto> latestByDriver, Map<String, String> previousCells) {
+        // Grouped by cell; the null cell is the unsharded layout
+        Map<String, Map<String, Point>> membersByCell = new HashMap<>();
+        Map<String, Set<ZSetOperations.TypedTuple<String>>> lastSeenByCell = new HashMap<>();
+        Map<String, List<String>> movedOutByCell = new HashMap<>();
+        Map<String, String> newCells = new HashMap<>();
+        long now = System.currentTimeMillis();
+
+        for (DriverLocationDto location : latestByDriver.values()) {
+            String driverId = location.getDriverId();
+            String cell = shardKeyResolver.cellFor(location.getLatitude(), location.getLongitude());
+
+            membersByCell
+                    .computeIfAbsent(cell, key -> new LinkedHashMap<>())
+                    .put(driverId, new Point(location.getLongitude(), location.getLatitude()));
+            lastSeenByCell
+                    .computeIfAbsent(cell, key -> new HashSet<>())
+                    .add(new DefaultTypedTuple<>(driverId, (double) now));
+
+            if (cell != null) {
+                newCells.put(driverId, cell);
+                String previousCell = previousCells.get(driverId);
+                if (previousCell != null && !previousCell.equals(cell)) {
+                    movedOutByCell.computeIfAbsent(previousCell, key -> new ArrayList<>()).add(driverId);
+                }
+            }
+        }
+        List<String> registeredCells = newCells.isEmpty()
+                ? Collections.emptyList()
+                : shardKeyResolver.cellsToRegister(membersByCell.keySet());
+        Duration driverCellTtl = Duration.ofSeconds(properties.getDriverTtlSeconds() * 2);
+
+        List<Mono<?>> commands = new ArrayList<>();
+        membersByCell.forEach((cell, members) -> {
+            commands.add(reactiveRedisTemplate.opsForGeo().add(shardKeyResolver.geoKey(cell), members));
+            commands.add(reactiveRedisTemplate.opsForZSet().addAll(shardKeyResolver.lastSeenKey(cell), lastSeenByCell.get(cell)));
+        });
+        movedOutByCell.forEach((cell, driverIds) -> {
+            commands.add(reactiveRedisTemplate.opsForZSet().remove(shardKeyResolver.geoKey(cell), driverIds.toArray()));
+            commands.add(reactiveRedisTemplate.opsForZSet().remove(shardKeyResolver.lastSeenKey(cell), driverIds.toArray()));
+        });
+        newCells.forEach((driverId, cell) -> commands.add(
+                reactiveRedisTemplate.opsForValue().set(shardKeyResolver.driverCellKey(driverId), cell, driverCellTtl)));
+        if (!registeredCells.isEmpty()) {
+            commands.add(reactiveRedisTemplate.opsForSet().add(GeoShardKeyResolver.DRIVER_CELLS_KEY,
+                    registeredCells.toArray(new String[0])));
+        }
+        if (Boolean.TRUE.equals(properties.getLocalIndexPubSubEnabled())) {
+            commands.add(reactiveRedisTemplate.convertAndSend(DriverSpatialIndexSynchronizer.LOCATION_UPDATES_CHANNEL,
+                    DriverSpatialIndexSynchronizer.encode(latestByDriver.values(), now)));
+        }
+
+        return Mono.when(commands)
+                // Re-added on the next write to those cells
+                .doOnError(ex -> shardKeyResolver.forgetCells(registeredCells))
+                .doOnSuccess(ignored -> log.debug("Saved {} driver locations across {} cell(s)",
+                        latestByDriver.size(), membersByCell.size()))
+                .then(Mono.defer(() -> heatmapService.recordDriverLocations(reactiveRedisTemplate, latestByDriver.values())))
+                // Index and history buffer are synchronous work; keep them off the event loop
+                .then(Mono.fromRunnable(() -> {
+                            if (isLocalReadPath()) {
+                                spatialIndex.updateAll(latestByDriver.values(), now);
+                            }
+                            locationHistoryService.record(latestByDriver.values(), now);
+                        })
+                        .subscribeOn(Schedulers.boundedElastic()))
+                .then();
+    }
+
+    private Mono<Map<String, String>> loadCurrentCells(List<String> driverIds) {
+        List<String> keys = new ArrayList<>(driverIds.size());
+        driverIds.forEach(driverId -> keys.add(shardKeyResolver.driverCellKey(driverId)));
+        return reactiveRedisTemplate.opsForValue()
+                .multiGet(keys)
+                .map(cells -> {
+                    Map<String, String> currentCells = new HashMap<>();
+                    for (int i = 0; i < driverIds.size(); i++) {
+                        if (cells.get(i) != null) {
+                            currentCells.put(driverIds.get(i), cells.get(i));
+                        }
+                    }
+                    return currentCells;
+                });
+    }
+
+    /**
+     * Drops drivers of one cell whose last ping is older than the TTL, with one ZMSCORE on the
+     * cell's last-seen set (same hash slot as its GEO key).
+     */
+    private Flux<DriverLocationDto> freshDrivers(String cell, List<DriverLocationDto> candidates) {
+        if (candidates.isEmpty()) {
+            return Flux.empty();
+        }
+
+        Object[] driverIds = candidates.stream().map(DriverLocationDto::getDriverId).toArray();
+        long cutoff = System.currentTimeMillis() - properties.getDriverTtlSeconds() * 1000L;
+        return reactiveRedisTemplate.opsForZSet()
+                .score(shardKeyResolver.lastSeenKey(cell), driverIds)
+                .flatMapIterable(lastSeenScores -> {
+                    List<DriverLocationDto> fresh = new ArrayList<>();
+                    for (int i = 0; i < candidates.size() && i < lastSeenScores.size(); i++) {
+                        Double lastSeen = lastSeenScores.get(i);
+                        if (lastSeen != null && lastSeen >= cutoff) {
+                            fresh.add(candidates.get(i));
+                        }
+                    }
+                    return fresh;
+                });
+    }
+
+    /**
+     * Optionally sorts by distance, keeps the first entry per driver and trims to the limit.
+     */
+    private List<DriverLocationDto> mergeNearest(List<DriverLocationDto> candidates, int limit, boolean sortByDistance) {
+        if (sortByDistance) {
+            candidates.sort(Comparator.comparing(DriverLocationDto::getDistanceKm));
+        }
+        Map<String, DriverLocationDto> drivers = new LinkedHashMap<>();
+        for (DriverLocationDto driver : candidates) {
+            drivers.putIfAbsent(driver.getDriverId(), driver);
+        }
+        return drivers.values().stream().limit(limit).collect(Collectors.toList());
+    }
+
+    private DriverLocationDto toDriverLocation(GeoResult<RedisGeoCommands.GeoLocation<String>> geoResult,
+                                               boolean includeDistance) {
+        RedisGeoCommands.GeoLocation<String> geoLocation = geoResult.getContent();
+        Point point = geoLocation.getPoint();
+        return DriverLocationDto.builder()
+                .driverId(geoLocation.getName())
+                .latitude(point.getY())
+                .longitude(point.getX())
+                .distanceKm(includeDistance ? geoResult.getDistance().getValue() : null)
+                .build();
+    }
+
+    private boolean isLocalReadPath() {
+        return properties.getReadPath() == LocationServiceProperties.ReadPath.LOCAL;
+    }
+
+    private Flux<DriverLocationDto> searchLocalIndex(double latitude, double longitude, double radiusKm, int limit) {
+        long cutoff = System.currentTimeMillis() - properties.getDriverTtlSeconds() * 1000L;
+        return Flux.fromIterable(spatialIndex.search(latitude, longitude, radiusKm, limit, cutoff));
+    }
+}
@@ -0,0 +1,222 @@
+package com.girikgarg.uberlocationservice.services.impl;
+
+import com.girikgarg.uberlocationservice.configuration.LocationServiceProperties;
+import com.girikgarg.uberlocationservice.dto.DriverLocationDto;
+import com.girikgarg.uberlocationservice.dto.HeatmapCellDto;
+import com.girikgarg.uberlocationservice.services.api.HeatmapService;
+import com.girikgarg.uberlocationservice.utils.GeoHash;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Supply / demand heatmap kept as per-geohash-cell counters.
+ *
+ * Supply: "{heatmap}:supply" holds cell -> drivers and "{heatmap}:driver-cells" remembers each driver's cell.
+ * Every write batch runs heatmap-move-drivers.lua once, inside the location write pipeline, which only touches the counters of drivers that
+ * changed cell. Inside the pipeline the script is sent with a plain EVAL: an EVALSHA that hits NOSCRIPT there only fails
+ * when the pipeline is closed, too late for the usual fallback to EVAL, so every write would fail on a fresh or flushed Redis. Demand: "{heatmap}:demand" holds cell -> open bookings and "{heatmap}:booking-cells" remembers
+ * each booking's cell, maintained by heatmap-demand.lua from Booking Service events.
+ *
+ * Reading a bounding box is two pipelined HMGETs over the cells it covers, independent of fleet size.
+ * The {heatmap} hash tag keeps all four keys in one Redis Cluster slot, as the scripts require.
+ */
+@Slf4j
+@Service
+public class RedisHeatmapServiceImpl implements HeatmapService {
+
+    private static final String SUPPLY_KEY = "{heatmap}:supply";
+    private static final String DRIVER_CELLS_KEY = "{heatmap}:driver-cells";
+    private static final String DEMAND_KEY = "{heatmap}:demand";
+    private static final String BOOKING_CELLS_KEY = "{heatmap}:booking-cells";
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RedisScript<Long> heatmapMoveDriversScript;
+    private final byte[] heatmapMoveDriversScriptBody;
+    private final RedisScript<Long> heatmapDemandScript;
+    private final LocationServiceProperties properties;
+
+    public RedisHeatmapServiceImpl(StringRedisTemplate stringRedisTemplate,
+                                   RedisScript<Long> heatmapMoveDriversScript,
+                                   RedisScript<Long> heatmapDemandScript,
+                                   LocationServiceProperties properties) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.heatmapMoveDriversScript = heatmapMoveDriversScript;
+        this.heatmapMoveDriversScriptBody = heatmapMoveDriversScript.getScriptAsString().getBytes(StandardCharsets.UTF_8);
+        this.heatmapDemandScript = heatmapDemandScript;
+        this.properties = properties;
+    }
+
+    @Override
+    public void recordDriverLocations(Collection<DriverLocationDto> locations) {
+        if (!isEnabled() || locations.isEmpty()) {
+            return;
+        }
+
+        moveDrivers(moveArgs(locations));
+    }
+
+    @Override
+    public void recordDriverLocations(RedisOperations<String, String> operations, Collection<DriverLocationDto> locations) {
+        if (!isEnabled() || locations.isEmpty()) {
+            return;
+        }
+        Object[] args = moveArgs(locations);
+        byte[][] keysAndArgs = new byte[2 + args.length][];
+        keysAndArgs[0] = SUPPLY_KEY.getBytes(StandardCharsets.UTF_8);
+        keysAndArgs[1] = DRIVER_CELLS_KEY.getBytes(StandardCharsets.UTF_8);
+        for (int i = 0; i < args.length; i++) {
+            keysAndArgs[2 + i] = args[i].toString().getBytes(StandardCharsets.UTF_8);
+        }
+        // Queued on the caller's pipelined connection
+        operations.execute((RedisCallback<Object>) connection ->
+                connection.scriptingCommands().eval(heatmapMoveDriversScriptBody, ReturnType.INTEGER, 2, keysAndArgs));
+    }
+
+    @Override
+    public Mono<Void> recordDriverLocations(ReactiveStringRedisTemplate reactiveRedisTemplate,
+                                            Collection<DriverLocationDto> locations) {
+        if (!isEnabled() || locations.isEmpty()) {
+            return Mono.empty();
+        }
+        Object[] args = moveArgs(locations);
+        return reactiveRedisTemplate.execute(heatmapMoveDriversScript, List.of(SUPPLY_KEY, DRIVER_CELLS_KEY), List.of(args))
+                .then()
+                .onErrorResume(ex -> {
+                    // The heatmap is advisory; never fail a location write because of it
+                    log.error("Error updating heatmap supply for {} drivers", locations.size(), ex);
+                    return Mono.empty();
+                });
+    }
+
+    @Override
+    public void removeDrivers(Collection<String> driverIds) {
+        if (!isEnabled() || driverIds.isEmpty()) {
+            return;
+        }
+
+        Object[] args = new Object[driverIds.size() * 2];
+        int i = 0;
+        for (String driverId : driverIds) {
+            args[i++] = driverId;
+            args[i++] = "";
+        }
+        moveDrivers(args);
+    }
+
+    @Override
+    public void openDemand(Long bookingId, Double latitude, Double longitude) {
+        if (!isEnabled()) {
+            return;
+        }
+        String cell = cellFor(latitude, longitude);
+        Long opened = stringRedisTemplate.execute(heatmapDemandScript, List.of(DEMAND_KEY, BOOKING_CELLS_KEY),
+                "open", String.valueOf(bookingId), cell);
+        log.debug("Booking {} {} demand in heatmap cell {}", bookingId,
+                Long.valueOf(1).equals(opened) ? "opened" : "already counted as", cell);
+    }
+
+    @Override
+    public void closeDemand(Long bookingId) {
+        if (!isEnabled()) {
+            return;
+        }
+        Long closed = stringRedisTemplate.execute(heatmapDemandScript, List.of(DEMAND_KEY, BOOKING_CELLS_KEY),
+                "close", String.valueOf(bookingId));
+        log.debug("Booking {} demand {}", bookingId, Long.valueOf(1).equals(closed) ? "closed" : "was not open");
+    }
+
+    @Override
+    public List<HeatmapCellDto> getHeatmap(Double minLatitude, Double minLongitude, Double maxLatitude, Double maxLongitude) {
+        int precision = properties.getHeatmapGeohashPrecision();
+        double[] cellSize = GeoHash.cellSize(precision);
+        double estimatedCells = Math.ceil((maxLatitude - minLatitude) / cellSize[0] + 1)
+                * Math.ceil((maxLongitude - minLongitude) / cellSize[1] + 1);
+        if (estimatedCells > properties.getHeatmapMaxCells()) {
+            throw new IllegalArgumentException("Bounding box covers more than "
+                    + properties.getHeatmapMaxCells() + " heatmap cells");
+        }
+
+        Set<String> cellSet = GeoHash.coveringCells(minLatitude, minLongitude, maxLatitude, maxLongitude, precision);
+        List<Object> cells = new ArrayList<>(cellSet);
+
+        List<Object> results = stringRedisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+                RedisOperations<String, String> redisOperations = (RedisOperations<String, String>) operations;
+                redisOperations.opsForHash().multiGet(SUPPLY_KEY, cells);
+                redisOperations.opsForHash().multiGet(DEMAND_KEY, cells);
+                return null;
+            }
+        });
+
+        List<?> supply = (List<?>) results.get(0);
+        List<?> demand = (List<?>) results.get(1);
+        List<HeatmapCellDto> heatmap = new ArrayList<>();
+        for (int i = 0; i < cells.size(); i++) {
+            long drivers = count(supply.get(i));
+            long openBookings = count(demand.get(i));
+            if (drivers == 0 && openBookings == 0) {
+                continue;
+            }
+            String cell = cells.get(i).toString();
+            double[] center = GeoHash.decodeCenter(cell);
+            heatmap.add(HeatmapCellDto.builder()
+                    .cell(cell)
+                    .latitude(center[0])
+                    .longitude(center[1])
+                    .drivers(drivers)
+                    .openBookings(openBookings)
+                    .build());
+        }
+
+        log.debug("Heatmap for box ({}, {}) - ({}, {}): {} of {} cells non-empty",
+                minLatitude, minLongitude, maxLatitude, maxLongitude, heatmap.size(), cells.size());
+        return heatmap;
+    }
+
+    private void moveDrivers(Object[] args) {
+        try {
+            stringRedisTemplate.execute(heatmapMoveDriversScript, List.of(SUPPLY_KEY, DRIVER_CELLS_KEY), args);
+        } catch (Exception ex) {
+            // The heatmap is advisory; never fail a location write because of it
+            log.error("Error updating heatmap supply for {} drivers", args.length / 2, ex);
+        }
+    }
+
+    private Object[] moveArgs(Collection<DriverLocationDto> locations) {
+        Object[] args = new Object[locations.size() * 2];
+        int i = 0;
+        for (DriverLocationDto location : locations) {
+            args[i++] = location.getDriverId();
+            args[i++] = cellFor(location.getLatitude(), location.getLongitude());
+        }
+        return args;
+    }
+
+    private String cellFor(double latitude, double longitude) {
+        return GeoHash.encode(latitude, longitude, properties.getHeatmapGeohashPrecision());
+    }
+
+    private boolean isEnabled() {
+        return Boolean.TRUE.equals(properties.getHeatmapEnabled());
+    }
+
+    private long count(Object value) {
+        return value == null ? 0 : Long.parseLong(value.toString());
+    }
+}
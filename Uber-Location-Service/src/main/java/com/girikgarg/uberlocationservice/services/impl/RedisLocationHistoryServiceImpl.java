@@ -0,0 +1,182 @@
+package com.girikgarg.uberlocationservice.services.impl;
+
+import com.girikgarg.uberlocationservice.configuration.LocationServiceProperties;
+import com.girikgarg.uberlocationservice.dto.DriverLocationDto;
+import com.girikgarg.uberlocationservice.dto.DriverLocationHistoryDto;
+import com.girikgarg.uberlocationservice.dto.LocationPointDto;
+import com.girikgarg.uberlocationservice.services.api.LocationHistoryService;
+import com.girikgarg.uberlocationservice.utils.GeoDistance;
+import com.girikgarg.uberlocationservice.utils.LocationDeltaCodec;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.connection.RedisStreamCommands;
+import org.springframework.data.redis.connection.stream.ByteRecord;
+import org.springframework.data.redis.connection.stream.StreamRecords;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Location history kept as one Redis Stream per driver ("drivers:history:{driverId}").
+ *
+ * Pings are buffered per driver and flushed every history-flush-interval-ms as a single
+ * stream entry whose "data" field is a delta/varint encoded segment ({@link LocationDeltaCodec}),
+ * roughly 4-6 bytes per point. All segments of one flush are written in one pipeline.
+ * Streams are capped (MAXLEN ~) and expire after history-retention-hours without new data.
+ *
+ * An entry's ID is the time it was flushed, which is never earlier than its last point and at
+ * most one flush interval after its first point. A time window therefore maps to a bounded XRANGE.
+ */
+@Slf4j
+@Service
+public class RedisLocationHistoryServiceImpl implements LocationHistoryService {
+
+    private static final String HISTORY_KEY_PREFIX = "drivers:history:";
+    private static final byte[] DATA_FIELD = "data".getBytes(StandardCharsets.UTF_8);
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final LocationServiceProperties properties;
+    private final ConcurrentHashMap<String, List<LocationPointDto>> pending = new ConcurrentHashMap<>();
+
+    public RedisLocationHistoryServiceImpl(StringRedisTemplate stringRedisTemplate, LocationServiceProperties properties) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.properties = properties;
+    }
+
+    @Override
+    public void record(Collection<DriverLocationDto> locations, long timestampMillis) {
+        if (!Boolean.TRUE.equals(properties.getHistoryEnabled())) {
+            return;
+        }
+        for (DriverLocationDto location : locations) {
+            LocationPointDto point = LocationPointDto.builder()
+                    .timestamp(timestampMillis)
+                    .latitude(location.getLatitude())
+                    .longitude(location.getLongitude())
+                    .build();
+            pending.compute(location.getDriverId(), (driverId, points) -> {
+                List<LocationPointDto> buffer = points == null ? new ArrayList<>() : points;
+                buffer.add(point);
+                return buffer;
+            });
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${location.service.history-flush-interval-ms:30000}")
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        Map<String, byte[]> segments = new HashMap<>();
+        for (String driverId : new ArrayList<>(pending.keySet())) {
+            List<LocationPointDto> points = pending.remove(driverId);
+            if (points != null && !points.isEmpty()) {
+                segments.put(driverId, LocationDeltaCodec.encode(points));
+            }
+        }
+
+        try {
+            RedisStreamCommands.XAddOptions options = RedisStreamCommands.XAddOptions
+                    .maxlen(properties.getHistoryMaxSegmentsPerDriver())
+                    .approximateTrimming(true);
+            long ttlSeconds = Duration.ofHours(properties.getHistoryRetentionHours()).getSeconds();
+
+            stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                segments.forEach((driverId, data) -> {
+                    byte[] key = historyKey(driverId);
+                    connection.streamCommands().xAdd(StreamRecords.newRecord().in(key).ofBytes(Map.of(DATA_FIELD, data)), options);
+                    connection.keyCommands().expire(key, ttlSeconds);
+                });
+                return null;
+            });
+
+            log.debug("Flushed location history for {} drivers ({} bytes)",
+                    segments.size(), segments.values().stream().mapToInt(data -> data.length).sum());
+        } catch (Exception ex) {
+            log.error("Error flushing location history for {} drivers", segments.size(), ex);
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    @Override
+    public DriverLocationHistoryDto getHistory(String driverId, long from, long to) {
+        // Segments flushed before "from" only hold older points; segments holding points up to "to"
+        // are flushed at the latest one interval (plus scheduling slack) later.
+        long lastFlushOfWindow = to + 2 * properties.getHistoryFlushIntervalMs();
+        List<ByteRecord> records = stringRedisTemplate.execute((RedisCallback<List<ByteRecord>>) connection ->
+                connection.streamCommands().xRange(historyKey(driverId),
+                        Range.closed(String.valueOf(from), String.valueOf(lastFlushOfWindow))));
+
+        List<LocationPointDto> points = new ArrayList<>();
+        if (records != null) {
+            for (ByteRecord record : records) {
+                for (Map.Entry<byte[], byte[]> field : record.getValue().entrySet()) {
+                    if (Arrays.equals(field.getKey(), DATA_FIELD)) {
+                        try {
+                            addInWindow(points, LocationDeltaCodec.decode(field.getValue()), from, to);
+                        } catch (IllegalArgumentException ex) {
+                            // One corrupt entry must not hide the rest of the driver's history
+                            log.warn("Skipping corrupt history segment {} of driver {}: {}",
+                                    record.getId(), driverId, ex.getMessage());
+                        }
+                    }
+                }
+            }
+        }
+
+        // Points still buffered on this instance (copied under the map's lock for this driver)
+        pending.computeIfPresent(driverId, (id, buffered) -> {
+            addInWindow(points, buffered, from, to);
+            return buffered;
+        });
+        points.sort(Comparator.comparing(LocationPointDto::getTimestamp));
+
+        double distanceKm = 0;
+        for (int i = 1; i < points.size(); i++) {
+            LocationPointDto previous = points.get(i - 1);
+            LocationPointDto current = points.get(i);
+            distanceKm += GeoDistance.haversineKm(previous.getLatitude(), previous.getLongitude(),
+                    current.getLatitude(), current.getLongitude());
+        }
+
+        log.debug("Driver {} travelled {} km across {} points between {} and {}",
+                driverId, distanceKm, points.size(), from, to);
+        return DriverLocationHistoryDto.builder()
+                .driverId(driverId)
+                .from(from)
+                .to(to)
+                .points(points)
+                .distanceKm(distanceKm)
+                .build();
+    }
+
+    private void addInWindow(List<LocationPointDto> target, List<LocationPointDto> points, long from, long to) {
+        for (LocationPointDto point : points) {
+            if (point.getTimestamp() >= from && point.getTimestamp() <= to) {
+                target.add(point);
+            }
+        }
+    }
+
+    private byte[] historyKey(String driverId) {
+        return (HISTORY_KEY_PREFIX + driverId).getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -1,17 +1,37 @@
 package com.girikgarg.uberlocationservice.services.impl;
 
+import com.girikgarg.uberlocationservice.configuration.LocationServiceProperties;
 import com.girikgarg.uberlocationservice.dto.DriverLocationDto;
+import com.girikgarg.uberlocationservice.services.api.HeatmapService;
+import com.girikgarg.uberlocationservice.services.api.LocationHistoryService;
 import com.girikgarg.uberlocationservice.services.api.LocationService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.geo.*;
 import org.springframework.data.redis.connection.RedisGeoCommands;
-import org.springframework.data.redis.core.GeoOperations;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.DefaultTypedTuple;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.SessionCallback;
 import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.domain.geo.GeoReference;
+import org.springframework.data.redis.domain.geo.GeoShape;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Objects;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -19,91 +39,501 @@ import java.util.stream.Collectors;
 public class RedisLocationServiceImpl implements LocationService {
 
     private final StringRedisTemplate stringRedisTemplate;
+    private final GeoShardKeyResolver shardKeyResolver;
+    private final LocationServiceProperties properties;
+    private final DriverSpatialIndex spatialIndex;
+    private final LocationHistoryService locationHistoryService;
+    private final HeatmapService heatmapService;
+    private final byte[] adaptiveNearestDriversScript;
 
-    private static final String DRIVER_GEO_OPS_KEY = "drivers";
-    private static final Double SEARCH_RADIUS_KM = 5.0;
+    private static final int DEFAULT_NEAREST_DRIVERS = 10;
 
-    public RedisLocationServiceImpl(StringRedisTemplate stringRedisTemplate) {
+    /**
+     * Nearest searches fetch up to this many times k per key while stale drivers keep the result short.
+     */
+    private static final int MAX_OVERFETCH_FACTOR = 8;
+
+    @SuppressWarnings("rawtypes")
+    public RedisLocationServiceImpl(StringRedisTemplate stringRedisTemplate,
+                                    GeoShardKeyResolver shardKeyResolver,
+                                    LocationServiceProperties properties,
+                                    DriverSpatialIndex spatialIndex,
+                                    LocationHistoryService locationHistoryService,
+                                    HeatmapService heatmapService,
+                                    RedisScript<List> adaptiveNearestDriversScript) {
         this.stringRedisTemplate = stringRedisTemplate;
+        this.shardKeyResolver = shardKeyResolver;
+        this.properties = properties;
+        this.spatialIndex = spatialIndex;
+        this.locationHistoryService = locationHistoryService;
+        this.heatmapService = heatmapService;
+        this.adaptiveNearestDriversScript = adaptiveNearestDriversScript.getScriptAsString().getBytes(StandardCharsets.UTF_8);
     }
 
     @Override
     public Boolean saveDriverLocation(String driverId, Double latitude, Double longitude) {
+        Integer saved = saveDriverLocations(Collections.singletonList(DriverLocationDto.builder()
+                .driverId(driverId)
+                .latitude(latitude)
+                .longitude(longitude)
+                .build()));
+
+        boolean success = saved != null && saved == 1;
+        if (success) {
+            log.debug("Saved location for driver: {} at ({}, {})", driverId, latitude, longitude);
+        }
+        return success;
+    }
+
+    /**
+     * Writes a batch of driver locations with a single pipelined round trip.
+     * Locations are grouped by GEO key and each key receives one multi-member GEOADD,
+     * so N pings cost one network round trip instead of N.
+     * If the batch contains several pings for the same driver, the last one wins.
+     *
+     * With sharding enabled, drivers that crossed into a new cell are also removed from
+     * their previous cell in the same pipeline, which costs one extra MGET per batch.
+     * Every written driver also gets its last-seen timestamp refreshed in its cell's last-seen set
+     * for stale eviction, and the heatmap supply script is queued in the same pipeline, so a batch
+     * is still one round trip. No key outside the driver's cells is written on every ping.
+     * Redis failures are logged and rethrown.
+     */
+    @Override
+    public Integer saveDriverLocations(List<DriverLocationDto> locations) {
+        if (locations == null || locations.isEmpty()) {
+            return 0;
+        }
+
+        Map<String, DriverLocationDto> latestByDriver = new LinkedHashMap<>();
+        for (DriverLocationDto location : locations) {
+            if (location.getDriverId() == null || location.getLatitude() == null || location.getLongitude() == null) {
+                log.warn("Skipping incomplete driver location in batch: driverId={}", location.getDriverId());
+                continue;
+            }
+            latestByDriver.put(location.getDriverId(), location);
+        }
+
+        if (latestByDriver.isEmpty()) {
+            return 0;
+        }
+
+        List<String> registeredCells = new ArrayList<>();
         try {
-            GeoOperations<String, String> geoOps = stringRedisTemplate.opsForGeo();
-            Long result = geoOps.add(
-                    DRIVER_GEO_OPS_KEY,
-                    new RedisGeoCommands.GeoLocation<>(
-                            driverId,
-                            new Point(longitude, latitude)
-                    )
-            );
-            
-            // Redis GEOADD returns: number of NEW elements added
-            // Returns 0 if element already exists (location updated)
-            // Returns 1 if new element added
-            // Returns null on error
-            boolean success = result != null;
-            
-            if (success) {
-                log.debug("Saved location for driver: {} at ({}, {}) [{}]", 
-                        driverId, latitude, longitude, result == 1 ? "new" : "updated");
-            }
-            
-            return success;
-        } catch (Exception ex) {
-            log.error("Error saving driver location for driverId: {}", driverId, ex);
-            return false;
+            Map<String, String> previousCells = shardKeyResolver.isShardingEnabled()
+                    ? loadCurrentCells(latestByDriver.keySet())
+                    : Collections.emptyMap();
+
+            // Grouped by cell; the null cell is the unsharded layout
+            Map<String, Map<String, Point>> membersByCell = new HashMap<>();
+            Map<String, Set<ZSetOperations.TypedTuple<String>>> lastSeenByCell = new HashMap<>();
+            Map<String, List<String>> movedOutByCell = new HashMap<>();
+            Map<String, String> newCells = new HashMap<>();
+            long now = System.currentTimeMillis();
+
+            for (DriverLocationDto location : latestByDriver.values()) {
+                String driverId = location.getDriverId();
+                String cell = shardKeyResolver.cellFor(location.getLatitude(), location.getLongitude());
+
+                membersByCell
+                        .computeIfAbsent(cell, key -> new LinkedHashMap<>())
+                        .put(driverId, new Point(location.getLongitude(), location.getLatitude()));
+                lastSeenByCell
+                        .computeIfAbsent(cell, key -> new HashSet<>())
+                        .add(new DefaultTypedTuple<>(driverId, (double) now));
+
+                if (cell != null) {
+                    newCells.put(driverId, cell);
+                    String previousCell = previousCells.get(driverId);
+                    if (previousCell != null && !previousCell.equals(cell)) {
+                        movedOutByCell.computeIfAbsent(previousCell, key -> new ArrayList<>()).add(driverId);
+                    }
+                }
+            }
+            if (!newCells.isEmpty()) {
+                registeredCells.addAll(shardKeyResolver.cellsToRegister(membersByCell.keySet()));
+            }
+            Duration driverCellTtl = Duration.ofSeconds(properties.getDriverTtlSeconds() * 2);
+
+            stringRedisTemplate.executePipelined(new SessionCallback<Object>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public <K, V> Object execute(RedisOperations<K, V> operations) {
+                    RedisOperations<String, String> redisOperations = (RedisOperations<String, String>) operations;
+                    membersByCell.forEach((cell, members) -> {
+                        redisOperations.opsForGeo().add(shardKeyResolver.geoKey(cell), members);
+                        redisOperations.opsForZSet().add(shardKeyResolver.lastSeenKey(cell), lastSeenByCell.get(cell));
+                    });
+                    movedOutByCell.forEach((cell, driverIds) -> {
+                        redisOperations.opsForZSet().remove(shardKeyResolver.geoKey(cell), driverIds.toArray());
+                        redisOperations.opsForZSet().remove(shardKeyResolver.lastSeenKey(cell), driverIds.toArray());
+                    });
+                    newCells.forEach((driverId, cell) ->
+                            redisOperations.opsForValue().set(shardKeyResolver.driverCellKey(driverId), cell, driverCellTtl));
+                    if (!registeredCells.isEmpty()) {
+                        redisOperations.opsForSet().add(GeoShardKeyResolver.DRIVER_CELLS_KEY, registeredCells.toArray(new String[0]));
+                    }
+                    if (Boolean.TRUE.equals(properties.getLocalIndexPubSubEnabled())) {
+                        redisOperations.convertAndSend(DriverSpatialIndexSynchronizer.LOCATION_UPDATES_CHANNEL,
+                                DriverSpatialIndexSynchronizer.encode(latestByDriver.values(), now));
+                    }
+                    heatmapService.recordDriverLocations(redisOperations, latestByDriver.values());
+                    return null;
+                }
+            });
+
+            if (isLocalReadPath()) {
+                spatialIndex.updateAll(latestByDriver.values(), now);
+            }
+            locationHistoryService.record(latestByDriver.values(), now);
+
+            log.debug("Saved {} driver locations across {} cell(s) in one pipeline ({} moved cells)",
+                    latestByDriver.size(), membersByCell.size(),
+                    movedOutByCell.values().stream().mapToInt(List::size).sum());
+            return latestByDriver.size();
+        } catch (RuntimeException ex) {
+            // Re-added on the next write to those cells
+            shardKeyResolver.forgetCells(registeredCells);
+            // Rethrown so callers can retry or report the failure instead of treating it as "0 written"
+            log.error("Error saving batch of {} driver locations", locations.size(), ex);
+            throw ex;
         }
     }
 
     @Override
     public List<DriverLocationDto> getNearbyDrivers(Double latitude, Double longitude) {
+        double searchRadiusKm = properties.getSearchRadiusKm();
+        if (isLocalReadPath()) {
+            return searchLocalIndex(latitude, longitude, searchRadiusKm, Integer.MAX_VALUE);
+        }
         try {
-            GeoOperations<String, String> geoOps = stringRedisTemplate.opsForGeo();
-            Distance radius = new Distance(SEARCH_RADIUS_KM, Metrics.KILOMETERS);
+            Distance radius = new Distance(searchRadiusKm, Metrics.KILOMETERS);
             Circle searchArea = new Circle(new Point(longitude, latitude), radius);
 
             RedisGeoCommands.GeoRadiusCommandArgs args = RedisGeoCommands.GeoRadiusCommandArgs
                     .newGeoRadiusArgs()
                     .includeCoordinates();
 
-            GeoResults<RedisGeoCommands.GeoLocation<String>> results = geoOps.radius(
-                    DRIVER_GEO_OPS_KEY,
-                    searchArea,
-                    args
-            );
+            // One GEORADIUS per covering cell, all sent in a single pipeline
+            List<String> cells = shardKeyResolver.cellsCovering(latitude, longitude, searchRadiusKm);
+            List<Object> results = stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                for (String cell : cells) {
+                    connection.geoCommands().geoRadius(rawKey(shardKeyResolver.geoKey(cell)), searchArea, args);
+                }
+                return null;
+            });
+
+            Map<String, DriverLocationDto> drivers = new LinkedHashMap<>();
+            for (DriverLocationDto driver : freshDrivers(cells, results, false)) {
+                drivers.putIfAbsent(driver.getDriverId(), driver);
+            }
 
-            if (results == null || results.getContent().isEmpty()) {
-                log.debug("No drivers found near location ({}, {}) within {} km", 
-                        latitude, longitude, SEARCH_RADIUS_KM);
+            if (drivers.isEmpty()) {
+                log.debug("No drivers found near location ({}, {}) within {} km",
+                        latitude, longitude, searchRadiusKm);
                 return Collections.emptyList();
             }
 
-            List<DriverLocationDto> drivers = results.getContent().stream()
-                    .map(GeoResult::getContent)
-                    .filter(Objects::nonNull)
-                    .map(geoLocation -> {
-                        Point point = geoLocation.getPoint();
-                        if (point == null) {
-                            return null;
-                        }
-                        return DriverLocationDto.builder()
-                                .driverId(geoLocation.getName())
-                                .latitude(point.getY())
-                                .longitude(point.getX())
-                                .build();
-                    })
-                    .filter(Objects::nonNull)
-                    .collect(Collectors.toList());
-
-            log.debug("Found {} drivers near location ({}, {}) within {} km", 
-                    drivers.size(), latitude, longitude, SEARCH_RADIUS_KM);
-            
-            return drivers;
+            log.debug("Found {} drivers near location ({}, {}) within {} km across {} cell(s)",
+                    drivers.size(), latitude, longitude, searchRadiusKm, cells.size());
+
+            return new ArrayList<>(drivers.values());
         } catch (Exception ex) {
             log.error("Error finding nearby drivers for location ({}, {})", latitude, longitude, ex);
             return Collections.emptyList();
         }
     }
+
+    /**
+     * Returns up to k drivers within the radius, nearest first, each with its distance in km.
+     *
+     * Every covering cell is queried with GEOSEARCH ... ASC COUNT 2k, the per-cell answers are
+     * merged by distance, stale drivers are dropped and the result is trimmed to k.
+     * If stale drivers leave fewer than k while some cell returned a full page, the cells are queried
+     * again with twice the count (up to 8k), so fresh drivers just beyond the stale ones are found.
+     * With location.service.nearest-approximate=true the query uses COUNT ... ANY, which stops
+     * scanning as soon as enough matches are found (cheaper in dense cells, but not strictly the nearest k).
+     */
+    @Override
+    public List<DriverLocationDto> getNearestDrivers(Double latitude, Double longitude, Double radiusKm, Integer k) {
+        double searchRadiusKm = radiusKm != null && radiusKm > 0 ? radiusKm : properties.getSearchRadiusKm();
+        int limit = nearestLimit(k);
+        if (isLocalReadPath()) {
+            return searchLocalIndex(latitude, longitude, searchRadiusKm, limit);
+        }
+
+        try {
+            GeoReference<byte[]> center = GeoReference.fromCoordinate(longitude, latitude);
+            GeoShape shape = GeoShape.byRadius(new Distance(searchRadiusKm, Metrics.KILOMETERS));
+            List<String> cells = shardKeyResolver.cellsCovering(latitude, longitude, searchRadiusKm);
+
+            List<DriverLocationDto> nearest;
+            int fetch = limit * 2;
+            while (true) {
+                RedisGeoCommands.GeoSearchCommandArgs args = RedisGeoCommands.GeoSearchCommandArgs
+                        .newGeoSearchArgs()
+                        .includeCoordinates()
+                        .includeDistance()
+                        .sortAscending()
+                        .limit(fetch, Boolean.TRUE.equals(properties.getNearestApproximate()));
+                List<Object> results = stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                    for (String cell : cells) {
+                        connection.geoCommands().geoSearch(rawKey(shardKeyResolver.geoKey(cell)), center, shape, args);
+                    }
+                    return null;
+                });
+
+                nearest = mergeNearest(freshDrivers(cells, results, true), limit);
+                if (nearest.size() >= limit || !anyKeyFull(results, fetch) || fetch >= limit * MAX_OVERFETCH_FACTOR) {
+                    break;
+                }
+                fetch *= 2;
+            }
+
+            log.debug("Found {} of {} requested nearest drivers near ({}, {}) within {} km across {} cell(s)",
+                    nearest.size(), limit, latitude, longitude, searchRadiusKm, cells.size());
+            return nearest;
+        } catch (Exception ex) {
+            log.error("Error finding nearest drivers for location ({}, {})", latitude, longitude, ex);
+            return Collections.emptyList();
+        }
+    }
+
+    /**
+     * Returns up to k drivers, nearest first, trying the configured radius steps
+     * (location.service.adaptive-radius-steps-km, capped at maxRadiusKm) from smallest to largest.
+     *
+     * The widening happens inside Redis: adaptive-nearest-drivers.lua runs once per covering GEO key,
+     * and all scripts go out in one pipeline. Each script stops at the first radius that yields k
+     * fresh drivers in its key, so dense areas only scan a small circle while sparse ones keep widening.
+     * Stale drivers are skipped inside the script (it reads the cell's last-seen set, which shares the GEO key's
+     * hash slot), so they never count towards k.
+     * Every script returns its key's nearest k within the largest radius, so merging the keys
+     * by distance still gives the exact k nearest.
+     */
+    @Override
+    public List<DriverLocationDto> getNearestDriversAdaptive(Double latitude, Double longitude, Double maxRadiusKm, Integer k) {
+        List<Double> steps = radiusSteps(maxRadiusKm);
+        double largestRadiusKm = steps.get(steps.size() - 1);
+        int limit = nearestLimit(k);
+        if (isLocalReadPath()) {
+            // The local index scans the whole radius in memory, so there is nothing to widen
+            return searchLocalIndex(latitude, longitude, largestRadiusKm, limit);
+        }
+
+        try {
+            // KEYS[1] = GEO key and KEYS[2] = last-seen of the cell, filled in per cell; ARGV = longitude, latitude, k, cutoff, radii...
+            long cutoff = System.currentTimeMillis() - properties.getDriverTtlSeconds() * 1000L;
+            byte[][] args = new byte[6 + steps.size()][];
+            args[2] = String.valueOf(longitude).getBytes(StandardCharsets.UTF_8);
+            args[3] = String.valueOf(latitude).getBytes(StandardCharsets.UTF_8);
+            args[4] = String.valueOf(limit).getBytes(StandardCharsets.UTF_8);
+            args[5] = String.valueOf(cutoff).getBytes(StandardCharsets.UTF_8);
+            for (int i = 0; i < steps.size(); i++) {
+                args[6 + i] = String.valueOf(steps.get(i)).getBytes(StandardCharsets.UTF_8);
+            }
+
+            List<String> cells = shardKeyResolver.cellsCovering(latitude, longitude, largestRadiusKm);
+            List<Object> results = stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                for (String cell : cells) {
+                    byte[][] keysAndArgs = args.clone();
+                    keysAndArgs[0] = rawKey(shardKeyResolver.geoKey(cell));
+                    keysAndArgs[1] = rawKey(shardKeyResolver.lastSeenKey(cell));
+                    connection.scriptingCommands().eval(adaptiveNearestDriversScript, ReturnType.MULTI, 2, keysAndArgs);
+                }
+                return null;
+            });
+
+            List<DriverLocationDto> candidates = new ArrayList<>();
+            double radiusUsedKm = 0;
+            for (Object result : results) {
+                if (!(result instanceof List<?> reply) || reply.isEmpty()) {
+                    continue;
+                }
+                radiusUsedKm = Math.max(radiusUsedKm, Double.parseDouble(memberName(reply.get(0))));
+                // Flattened (member, distance, longitude, latitude) tuples after the radius
+                for (int i = 1; i + 3 < reply.size(); i += 4) {
+                    candidates.add(DriverLocationDto.builder()
+                            .driverId(memberName(reply.get(i)))
+                            .distanceKm(Double.parseDouble(memberName(reply.get(i + 1))))
+                            .longitude(Double.parseDouble(memberName(reply.get(i + 2))))
+                            .latitude(Double.parseDouble(memberName(reply.get(i + 3))))
+                            .build());
+                }
+            }
+
+            // The scripts already dropped stale drivers
+            List<DriverLocationDto> nearest = mergeNearest(candidates, limit);
+
+            log.debug("Adaptive search found {} of {} requested drivers near ({}, {}), widened to {} km of {} km across {} cell(s)",
+                    nearest.size(), limit, latitude, longitude, radiusUsedKm, largestRadiusKm, cells.size());
+            return nearest;
+        } catch (Exception ex) {
+            log.error("Error in adaptive nearest driver search for location ({}, {})", latitude, longitude, ex);
+            return Collections.emptyList();
+        }
+    }
+
+    private boolean isLocalReadPath() {
+        return properties.getReadPath() == LocationServiceProperties.ReadPath.LOCAL;
+    }
+
+    private List<DriverLocationDto> searchLocalIndex(double latitude, double longitude, double radiusKm, int limit) {
+        long cutoff = System.currentTimeMillis() - properties.getDriverTtlSeconds() * 1000L;
+        List<DriverLocationDto> drivers = spatialIndex.search(latitude, longitude, radiusKm, limit, cutoff);
+        log.debug("Local index found {} drivers near ({}, {}) within {} km",
+                drivers.size(), latitude, longitude, radiusKm);
+        return drivers;
+    }
+
+    /**
+     * Sorts fresh candidates by distance, keeps the first entry per driver and trims to the limit.
+     */
+    private List<DriverLocationDto> mergeNearest(List<DriverLocationDto> candidates, int limit) {
+        candidates.sort(Comparator.comparing(DriverLocationDto::getDistanceKm));
+
+        Map<String, DriverLocationDto> drivers = new LinkedHashMap<>();
+        for (DriverLocationDto driver : candidates) {
+            drivers.putIfAbsent(driver.getDriverId(), driver);
+        }
+
+        return drivers.values().stream()
+                .limit(limit)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * True when at least one GEOSEARCH reply hit its COUNT, i.e. the key may hold more members in the radius.
+     */
+    private static boolean anyKeyFull(List<Object> results, int count) {
+        for (Object result : results) {
+            if (result instanceof GeoResults<?> geoResults && geoResults.getContent().size() >= count) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int nearestLimit(Integer k) {
+        return Math.min(k != null && k > 0 ? k : DEFAULT_NEAREST_DRIVERS, properties.getMaxNearestDrivers());
+    }
+
+    /**
+     * Configured radius steps below maxRadiusKm, followed by maxRadiusKm itself.
+     * Without a maximum the configured steps are used as they are.
+     */
+    private List<Double> radiusSteps(Double maxRadiusKm) {
+        List<Double> configured = properties.getAdaptiveRadiusStepsKm().stream()
+                .filter(step -> step != null && step > 0)
+                .sorted()
+                .collect(Collectors.toList());
+        if (maxRadiusKm == null || maxRadiusKm <= 0) {
+            return configured.isEmpty() ? Collections.singletonList(properties.getSearchRadiusKm()) : configured;
+        }
+
+        List<Double> steps = configured.stream()
+                .filter(step -> step < maxRadiusKm)
+                .collect(Collectors.toCollection(ArrayList::new));
+        steps.add(maxRadiusKm);
+        return steps;
+    }
+
+    /**
+     * Converts one pipelined GEORADIUS / GEOSEARCH reply into DTOs.
+     */
+    private List<DriverLocationDto> toDriverLocations(Object result, boolean includeDistance) {
+        List<DriverLocationDto> drivers = new ArrayList<>();
+        if (!(result instanceof GeoResults<?> geoResults)) {
+            return drivers;
+        }
+        for (GeoResult<?> geoResult : geoResults.getContent()) {
+            if (!(geoResult.getContent() instanceof RedisGeoCommands.GeoLocation<?> geoLocation)) {
+                continue;
+            }
+            Point point = geoLocation.getPoint();
+            if (point == null) {
+                continue;
+            }
+            drivers.add(DriverLocationDto.builder()
+                    .driverId(memberName(geoLocation.getName()))
+                    .latitude(point.getY())
+                    .longitude(point.getX())
+                    .distanceKm(includeDistance ? geoResult.getDistance().getValue() : null)
+                    .build());
+        }
+        return drivers;
+    }
+
+    /**
+     * Converts the GEO replies (one per cell, in the order of cells) into DTOs and drops drivers whose
+     * last ping in that cell is older than the configured TTL, so searches never return drivers that
+     * closed the app but have not been swept yet. Costs one pipelined ZMSCORE per non-empty cell.
+     * Drivers without a last-seen entry are treated as stale as well.
+     */
+    private List<DriverLocationDto> freshDrivers(List<String> cells, List<Object> results, boolean includeDistance) {
+        List<String> queriedCells = new ArrayList<>();
+        List<List<DriverLocationDto>> candidatesPerCell = new ArrayList<>();
+        for (int i = 0; i < cells.size() && i < results.size(); i++) {
+            List<DriverLocationDto> candidates = toDriverLocations(results.get(i), includeDistance);
+            if (!candidates.isEmpty()) {
+                queriedCells.add(cells.get(i));
+                candidatesPerCell.add(candidates);
+            }
+        }
+        if (queriedCells.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        List<Object> scores = stringRedisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+                RedisOperations<String, String> redisOperations = (RedisOperations<String, String>) operations;
+                for (int i = 0; i < queriedCells.size(); i++) {
+                    Object[] driverIds = candidatesPerCell.get(i).stream().map(DriverLocationDto::getDriverId).toArray();
+                    redisOperations.opsForZSet().score(shardKeyResolver.lastSeenKey(queriedCells.get(i)), driverIds);
+                }
+                return null;
+            }
+        });
+
+        long cutoff = System.currentTimeMillis() - properties.getDriverTtlSeconds() * 1000L;
+        List<DriverLocationDto> fresh = new ArrayList<>();
+        for (int i = 0; i < queriedCells.size(); i++) {
+            if (!(scores.get(i) instanceof List<?> lastSeenScores)) {
+                continue;
+            }
+            List<DriverLocationDto> candidates = candidatesPerCell.get(i);
+            for (int j = 0; j < candidates.size() && j < lastSeenScores.size(); j++) {
+                if (lastSeenScores.get(j) instanceof Number lastSeen && lastSeen.doubleValue() >= cutoff) {
+                    fresh.add(candidates.get(j));
+                }
+            }
+        }
+        return fresh;
+    }
+
+    private Map<String, String> loadCurrentCells(Collection<String> driverIds) {
+        List<String> ids = new ArrayList<>(driverIds);
+        List<String> cells = stringRedisTemplate.opsForValue()
+                .multiGet(ids.stream().map(shardKeyResolver::driverCellKey).collect(Collectors.toList()));
+
+        Map<String, String> currentCells = new HashMap<>();
+        for (int i = 0; cells != null && i < ids.size(); i++) {
+            if (cells.get(i) != null) {
+                currentCells.put(ids.get(i), cells.get(i));
+            }
+        }
+        return currentCells;
+    }
+
+    private static byte[] rawKey(String key) {
+        return key.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Pipelined raw geo commands return member names as bytes.
+     */
+    private String memberName(Object name) {
+        return name instanceof byte[] bytes ? new String(bytes, StandardCharsets.UTF_8) : String.valueOf(name);
+    }
 }
@@ -0,0 +1,132 @@
+package com.girikgarg.uberlocationservice.services.impl;
+
+import com.girikgarg.uberlocationservice.configuration.LocationServiceProperties;
+import com.girikgarg.uberlocationservice.services.api.HeatmapService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Background job that evicts drivers who stopped pinging.
+ *
+ * Every write refreshes the driver's score in its cell's last-seen sorted set.
+ * For every cell the sweeper reads the members whose score is older than the TTL and removes
+ * them from the cell's GEO key and last-seen set, so the GEO index stays the size of
+ * the online fleet instead of growing with every driver ever seen.
+ *
+ * The removal runs in evict-stale-drivers.lua, once per cell, which re-checks each driver's score
+ * first, so a driver that pings between the read and the removal is kept. Both keys of a cell
+ * share a hash tag, so the script never spans Redis Cluster slots.
+ */
+@Slf4j
+@Component
+public class StaleDriverSweeper {
+
+    /**
+     * Upper bound on batches per run so one sweep never monopolises the scheduler thread.
+     */
+    private static final int MAX_BATCHES_PER_SWEEP = 50;
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final GeoShardKeyResolver shardKeyResolver;
+    private final LocationServiceProperties properties;
+    private final DriverSpatialIndex spatialIndex;
+    private final HeatmapService heatmapService;
+    @SuppressWarnings("rawtypes")
+    private final RedisScript<List> evictStaleDriversScript;
+
+    @SuppressWarnings("rawtypes")
+    public StaleDriverSweeper(StringRedisTemplate stringRedisTemplate,
+                              GeoShardKeyResolver shardKeyResolver,
+                              LocationServiceProperties properties,
+                              DriverSpatialIndex spatialIndex,
+                              HeatmapService heatmapService,
+                              RedisScript<List> evictStaleDriversScript) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.shardKeyResolver = shardKeyResolver;
+        this.properties = properties;
+        this.spatialIndex = spatialIndex;
+        this.heatmapService = heatmapService;
+        this.evictStaleDriversScript = evictStaleDriversScript;
+    }
+
+    @Scheduled(fixedDelayString = "${location.service.stale-sweep-interval-ms:30000}")
+    public void sweep() {
+        try {
+            long cutoff = System.currentTimeMillis() - properties.getDriverTtlSeconds() * 1000L;
+            int batchSize = properties.getStaleSweepBatchSize();
+            int removed = 0;
+            int batches = 0;
+
+            for (String cell : knownCells()) {
+                String lastSeenKey = shardKeyResolver.lastSeenKey(cell);
+                while (batches < MAX_BATCHES_PER_SWEEP) {
+                    Set<String> staleDrivers = stringRedisTemplate.opsForZSet()
+                            .rangeByScore(lastSeenKey, 0, cutoff, 0, batchSize);
+                    if (staleDrivers == null || staleDrivers.isEmpty()) {
+                        break;
+                    }
+                    batches++;
+
+                    removed += evict(cell, new ArrayList<>(staleDrivers), cutoff);
+
+                    if (staleDrivers.size() < batchSize) {
+                        break;
+                    }
+                }
+            }
+
+            if (removed > 0) {
+                log.info("Evicted {} stale drivers not seen for {} s", removed, properties.getDriverTtlSeconds());
+            }
+
+            // Every instance prunes its own local index; Redis is swept by whichever instance gets there first
+            if (properties.getReadPath() == LocationServiceProperties.ReadPath.LOCAL) {
+                spatialIndex.evictOlderThan(cutoff);
+            }
+        } catch (Exception ex) {
+            log.error("Error sweeping stale drivers", ex);
+        }
+    }
+
+    /**
+     * Cells that may hold drivers; the single null cell when sharding is disabled.
+     */
+    private List<String> knownCells() {
+        if (!shardKeyResolver.isShardingEnabled()) {
+            return Collections.singletonList(null);
+        }
+        Set<String> cells = stringRedisTemplate.opsForSet().members(GeoShardKeyResolver.DRIVER_CELLS_KEY);
+        return cells == null ? Collections.emptyList() : new ArrayList<>(cells);
+    }
+
+    /**
+     * Evicts the drivers of one cell that are still stale and returns how many were removed.
+     */
+    private int evict(String cell, List<String> driverIds, long cutoff) {
+        // KEYS = last-seen and GEO key of the cell; ARGV = cutoff, then the driver ids
+        List<String> keys = List.of(shardKeyResolver.lastSeenKey(cell), shardKeyResolver.geoKey(cell));
+        Object[] args = new Object[1 + driverIds.size()];
+        args[0] = String.valueOf(cutoff);
+        for (int i = 0; i < driverIds.size(); i++) {
+            args[1 + i] = driverIds.get(i);
+        }
+
+        List<?> evicted = stringRedisTemplate.execute(evictStaleDriversScript, keys, args);
+        if (evicted == null || evicted.isEmpty()) {
+            return 0;
+        }
+
+        List<String> evictedIds = new ArrayList<>(evicted.size());
+        evicted.forEach(driverId -> evictedIds.add(driverId.toString()));
+        heatmapService.removeDrivers(evictedIds);
+        return evictedIds.size();
+    }
+}
@@ -0,0 +1,25 @@
+package com.girikgarg.uberlocationservice.utils;
+
+/**
+ * Great-circle distance helper.
+ */
+public final class GeoDistance {
+
+    private static final double EARTH_RADIUS_KM = 6372.797560856;
+
+    private GeoDistance() {
+    }
+
+    /**
+     * Haversine distance in km between two coordinates.
+     * Uses the same earth radius as Redis GEO commands, so distances match GEOSEARCH WITHDIST.
+     */
+    public static double haversineKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.sqrt(a));
+    }
+}
@@ -0,0 +1,153 @@
+package com.girikgarg.uberlocationservice.utils;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Minimal geohash helper used to split the driver index into geographic cells.
+ *
+ * A geohash of precision p interleaves 5 * p bits of longitude and latitude, so every
+ * extra character shrinks the cell by a factor of 32. Precision 4 is roughly 39 km x 20 km,
+ * precision 5 roughly 4.9 km x 4.9 km.
+ */
+public final class GeoHash {
+
+    private static final String BASE32_INDEX = "0123456789bcdefghjkmnpqrstuvwxyz";
+    private static final char[] BASE32 = BASE32_INDEX.toCharArray();
+    private static final double KM_PER_DEGREE_LATITUDE = 111.32;
+
+    private GeoHash() {
+    }
+
+    /**
+     * Encodes a coordinate into a geohash string of the given precision.
+     */
+    public static String encode(double latitude, double longitude, int precision) {
+        double minLat = -90.0, maxLat = 90.0;
+        double minLon = -180.0, maxLon = 180.0;
+        StringBuilder hash = new StringBuilder(precision);
+        boolean evenBit = true;
+        int bit = 0;
+        int ch = 0;
+
+        while (hash.length() < precision) {
+            if (evenBit) {
+                double mid = (minLon + maxLon) / 2;
+                if (longitude >= mid) {
+                    ch = (ch << 1) | 1;
+                    minLon = mid;
+                } else {
+                    ch = ch << 1;
+                    maxLon = mid;
+                }
+            } else {
+                double mid = (minLat + maxLat) / 2;
+                if (latitude >= mid) {
+                    ch = (ch << 1) | 1;
+                    minLat = mid;
+                } else {
+                    ch = ch << 1;
+                    maxLat = mid;
+                }
+            }
+            evenBit = !evenBit;
+
+            if (++bit == 5) {
+                hash.append(BASE32[ch]);
+                bit = 0;
+                ch = 0;
+            }
+        }
+        return hash.toString();
+    }
+
+    /**
+     * Returns {latitude, longitude} of the centre of a geohash cell.
+     */
+    public static double[] decodeCenter(String hash) {
+        double minLat = -90.0, maxLat = 90.0;
+        double minLon = -180.0, maxLon = 180.0;
+        boolean evenBit = true;
+
+        for (int i = 0; i < hash.length(); i++) {
+            int ch = BASE32_INDEX.indexOf(hash.charAt(i));
+            if (ch < 0) {
+                throw new IllegalArgumentException("Invalid geohash: " + hash);
+            }
+            for (int bit = 4; bit >= 0; bit--) {
+                boolean set = ((ch >> bit) & 1) == 1;
+                if (evenBit) {
+                    double mid = (minLon + maxLon) / 2;
+                    if (set) {
+                        minLon = mid;
+                    } else {
+                        maxLon = mid;
+                    }
+                } else {
+                    double mid = (minLat + maxLat) / 2;
+                    if (set) {
+                        minLat = mid;
+                    } else {
+                        maxLat = mid;
+                    }
+                }
+                evenBit = !evenBit;
+            }
+        }
+        return new double[]{(minLat + maxLat) / 2, (minLon + maxLon) / 2};
+    }
+
+    /**
+     * Returns {cellHeightDegrees, cellWidthDegrees} for cells of the given precision.
+     */
+    public static double[] cellSize(int precision) {
+        int bits = 5 * precision;
+        int lonBits = (bits + 1) / 2;
+        int latBits = bits / 2;
+        return new double[]{180.0 / (1L << latBits), 360.0 / (1L << lonBits)};
+    }
+
+    /**
+     * Returns every cell of the given precision that intersects the bounding box.
+     * The box is walked in steps of one cell, so no intersecting cell is skipped.
+     */
+    public static Set<String> coveringCells(double minLat, double minLon, double maxLat, double maxLon, int precision) {
+        double[] size = cellSize(precision);
+        minLat = clamp(minLat, -90.0, 90.0);
+        maxLat = clamp(maxLat, -90.0, 90.0);
+        minLon = clamp(minLon, -180.0, 180.0);
+        maxLon = clamp(maxLon, -180.0, 180.0);
+
+        Set<String> cells = new LinkedHashSet<>();
+        for (double lat = minLat; ; lat += size[0]) {
+            double cellLat = Math.min(lat, maxLat);
+            for (double lon = minLon; ; lon += size[1]) {
+                double cellLon = Math.min(lon, maxLon);
+                cells.add(encode(cellLat, cellLon, precision));
+                if (cellLon >= maxLon) {
+                    break;
+                }
+            }
+            if (cellLat >= maxLat) {
+                break;
+            }
+        }
+        return cells;
+    }
+
+    /**
+     * Returns every cell of the given precision that intersects a circle around a point.
+     * Uses the circle's bounding box, which may include a few corner cells outside the circle.
+     */
+    public static Set<String> coveringCells(double latitude, double longitude, double radiusKm, int precision) {
+        double deltaLat = radiusKm / KM_PER_DEGREE_LATITUDE;
+        double cosLat = Math.max(Math.cos(Math.toRadians(latitude)), 0.01);
+        double deltaLon = radiusKm / (KM_PER_DEGREE_LATITUDE * cosLat);
+        return coveringCells(latitude - deltaLat, longitude - deltaLon,
+                latitude + deltaLat, longitude + deltaLon, precision);
+    }
+
+    private static double clamp(double value, double min, double max) {
+        return Math.max(min, Math.min(max, value));
+    }
+}
@@ -0,0 +1,123 @@
+package com.girikgarg.uberlocationservice.utils;
+
+import com.girikgarg.uberlocationservice.dto.LocationPointDto;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compact binary encoding for a driver's location history segment.
+ *
+ * Coordinates are fixed-point (1e-5 degrees, about 1.1 m) and timestamps are epoch millis.
+ * The first point is written in full, every following point as the difference to the previous one.
+ * Values are zigzag varints, so a typical ping a few seconds and metres after the last one takes
+ * 5-7 bytes instead of ~70 bytes of JSON.
+ *
+ * Layout: version byte, point count, then (time, latitude, longitude) per point.
+ * Decoding validates lengths and throws IllegalArgumentException for truncated or corrupt data.
+ */
+public final class LocationDeltaCodec {
+
+    private static final int VERSION = 1;
+    private static final double SCALE = 1e5;
+    private static final int MAX_VARINT_BYTES = 10;
+
+    private LocationDeltaCodec() {
+    }
+
+    public static byte[] encode(List<LocationPointDto> points) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(4 + points.size() * 8);
+        out.write(VERSION);
+        writeVarint(out, points.size());
+
+        long previousTime = 0;
+        long previousLat = 0;
+        long previousLon = 0;
+        for (LocationPointDto point : points) {
+            long time = point.getTimestamp();
+            long lat = Math.round(point.getLatitude() * SCALE);
+            long lon = Math.round(point.getLongitude() * SCALE);
+            writeVarint(out, zigzag(time - previousTime));
+            writeVarint(out, zigzag(lat - previousLat));
+            writeVarint(out, zigzag(lon - previousLon));
+            previousTime = time;
+            previousLat = lat;
+            previousLon = lon;
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * @throws IllegalArgumentException if the data is empty, truncated, has an unknown version or trailing bytes
+     */
+    public static List<LocationPointDto> decode(byte[] data) {
+        if (data == null || data.length == 0) {
+            throw new IllegalArgumentException("Empty location segment");
+        }
+        int[] position = {0};
+        int version = data[position[0]++];
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unsupported location segment version: " + version);
+        }
+
+        long count = readVarint(data, position);
+        // Every point takes at least three bytes
+        if (count < 0 || count > (data.length - position[0]) / 3) {
+            throw new IllegalArgumentException("Location segment claims " + count + " points in "
+                    + (data.length - position[0]) + " bytes");
+        }
+        List<LocationPointDto> points = new ArrayList<>((int) count);
+        long time = 0;
+        long lat = 0;
+        long lon = 0;
+        for (int i = 0; i < count; i++) {
+            time += unzigzag(readVarint(data, position));
+            lat += unzigzag(readVarint(data, position));
+            lon += unzigzag(readVarint(data, position));
+            points.add(LocationPointDto.builder()
+                    .timestamp(time)
+                    .latitude(lat / SCALE)
+                    .longitude(lon / SCALE)
+                    .build());
+        }
+        if (position[0] != data.length) {
+            throw new IllegalArgumentException("Location segment has " + (data.length - position[0]) + " trailing bytes");
+        }
+        return points;
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static void writeVarint(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static long readVarint(byte[] data, int[] position) {
+        long value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            if (position[0] >= data.length) {
+                throw new IllegalArgumentException("Truncated location segment at byte " + position[0]);
+            }
+            if (shift >= MAX_VARINT_BYTES * 7) {
+                throw new IllegalArgumentException("Varint longer than " + MAX_VARINT_BYTES + " bytes at byte " + position[0]);
+            }
+            b = data[position[0]++];
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+}
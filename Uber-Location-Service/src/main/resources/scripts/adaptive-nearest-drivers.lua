@@ -0,0 +1,59 @@
+-- Adaptive nearest-driver search on the GEO key of a single cell.
+--
+-- KEYS[1]    GEO key to search
+-- KEYS[2]    sorted set driverId -> last-seen epoch millis of the same cell; it shares the
+--            GEO key's hash tag, so both keys are in one Redis Cluster slot
+-- ARGV[1]    longitude of the search centre
+-- ARGV[2]    latitude of the search centre
+-- ARGV[3]    k, the number of drivers wanted
+-- ARGV[4]    last-seen cutoff in epoch millis; older drivers are skipped
+-- ARGV[5..n] search radii in km, ascending
+--
+-- Runs GEOSEARCH with the smallest radius first and widens until k fresh drivers are found
+-- or the largest radius has been tried. Stale drivers are filtered here, before deciding to
+-- widen: each radius fetches 2k members and doubles the fetch (up to 8k) while stale members
+-- keep the fresh count below k. Returns the radius used followed by flattened
+-- (member, distance km, longitude, latitude) tuples, nearest first.
+
+local k = tonumber(ARGV[3])
+local cutoff = tonumber(ARGV[4])
+local radius = ARGV[#ARGV]
+local fresh = {}
+
+for i = 5, #ARGV do
+    radius = ARGV[i]
+    local count = k * 2
+    while true do
+        local found = redis.call('GEOSEARCH', KEYS[1], 'FROMLONLAT', ARGV[1], ARGV[2],
+                'BYRADIUS', radius, 'km', 'ASC', 'COUNT', count, 'WITHDIST', 'WITHCOORD')
+        fresh = {}
+        if #found > 0 then
+            local members = {}
+            for j, item in ipairs(found) do
+                members[j] = item[1]
+            end
+            local lastSeen = redis.call('ZMSCORE', KEYS[2], unpack(members))
+            for j, item in ipairs(found) do
+                if #fresh < k and lastSeen[j] and tonumber(lastSeen[j]) >= cutoff then
+                    fresh[#fresh + 1] = item
+                end
+            end
+        end
+        if #fresh >= k or #found < count or count >= k * 8 then
+            break
+        end
+        count = count * 2
+    end
+    if #fresh >= k then
+        break
+    end
+end
+
+local reply = { radius }
+for _, item in ipairs(fresh) do
+    reply[#reply + 1] = item[1]
+    reply[#reply + 1] = item[2]
+    reply[#reply + 1] = item[3][1]
+    reply[#reply + 1] = item[3][2]
+end
+return reply
@@ -0,0 +1,22 @@
+-- Evicts the drivers of one cell whose last-seen score is still older than the cutoff.
+--
+-- KEYS[1]     sorted set driverId -> last-seen epoch millis of the cell
+-- KEYS[2]     GEO key of the cell (same hash tag as KEYS[1])
+-- ARGV[1]     cutoff in epoch millis
+-- ARGV[2..]   driver ids
+--
+-- The score is re-checked right before the removal, so a driver that pinged after the
+-- sweeper read it keeps its GEO and last-seen entries. Returns the evicted driver ids.
+
+local cutoff = tonumber(ARGV[1])
+local evicted = {}
+for i = 2, #ARGV do
+    local driverId = ARGV[i]
+    local lastSeen = redis.call('ZSCORE', KEYS[1], driverId)
+    if lastSeen and tonumber(lastSeen) <= cutoff then
+        redis.call('ZREM', KEYS[2], driverId)
+        redis.call('ZREM', KEYS[1], driverId)
+        evicted[#evicted + 1] = driverId
+    end
+end
+return evicted
@@ -0,0 +1,26 @@
+-- Opens or closes a booking in the demand heatmap. Both operations are idempotent,
+-- so a retried or duplicated booking event never double counts.
+--
+-- KEYS[1]  hash cell -> number of open bookings (demand counters)
+-- KEYS[2]  hash bookingId -> heatmap cell of its pickup
+-- ARGV[1]  "open" or "close"
+-- ARGV[2]  bookingId
+-- ARGV[3]  pickup cell (open only)
+
+if ARGV[1] == 'open' then
+    if redis.call('HSETNX', KEYS[2], ARGV[2], ARGV[3]) == 1 then
+        redis.call('HINCRBY', KEYS[1], ARGV[3], 1)
+        return 1
+    end
+    return 0
+end
+
+local cell = redis.call('HGET', KEYS[2], ARGV[2])
+if cell then
+    redis.call('HDEL', KEYS[2], ARGV[2])
+    if redis.call('HINCRBY', KEYS[1], cell, -1) <= 0 then
+        redis.call('HDEL', KEYS[1], cell)
+    end
+    return 1
+end
+return 0
@@ -0,0 +1,31 @@
+-- Moves drivers between heatmap cells and keeps the per-cell supply counters in step.
+--
+-- KEYS[1]  hash cell -> number of drivers (supply counters)
+-- KEYS[2]  hash driverId -> current heatmap cell
+-- ARGV     pairs of (driverId, cell); an empty cell removes the driver from the heatmap
+--
+-- Counters only change when a driver enters or leaves a cell, so repeated pings from
+-- the same cell cost one HGET each. Returns the number of counter updates.
+
+local changes = 0
+for i = 1, #ARGV, 2 do
+    local driverId = ARGV[i]
+    local cell = ARGV[i + 1]
+    local previous = redis.call('HGET', KEYS[2], driverId)
+    if previous ~= cell then
+        if previous then
+            if redis.call('HINCRBY', KEYS[1], previous, -1) <= 0 then
+                redis.call('HDEL', KEYS[1], previous)
+            end
+            changes = changes + 1
+        end
+        if cell == '' then
+            redis.call('HDEL', KEYS[2], driverId)
+        else
+            redis.call('HINCRBY', KEYS[1], cell, 1)
+            redis.call('HSET', KEYS[2], driverId, cell)
+            changes = changes + 1
+        end
+    end
+end
+return changes
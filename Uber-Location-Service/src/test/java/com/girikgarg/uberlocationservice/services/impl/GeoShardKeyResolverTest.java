@@ -0,0 +1,65 @@
+package com.girikgarg.uberlocationservice.services.impl;
+
+import com.girikgarg.uberlocationservice.configuration.LocationServiceProperties;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.ClusterSlotHashUtil;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GeoShardKeyResolverTest {
+
+    @Test
+    void unshardedKeysShareOneSlot() {
+        GeoShardKeyResolver resolver = resolver(false);
+
+        assertEquals(List.of((String) null), resolver.cellsCovering(28.7041, 77.1025, 5));
+        assertEquals("drivers", resolver.geoKey(null));
+        assertSameSlot(resolver.geoKey(null), resolver.lastSeenKey(null));
+    }
+
+    @Test
+    void cellKeysShareTheCellSlot() {
+        GeoShardKeyResolver resolver = resolver(true);
+
+        for (String cell : resolver.cellsCovering(28.7041, 77.1025, 50)) {
+            assertSameSlot(resolver.geoKey(cell), resolver.lastSeenKey(cell));
+        }
+    }
+
+    @Test
+    void distantCellsUseDifferentKeys() {
+        GeoShardKeyResolver resolver = resolver(true);
+
+        String delhi = resolver.cellFor(28.7041, 77.1025);
+        String bangalore = resolver.cellFor(12.9716, 77.5946);
+
+        assertNotEquals(delhi, bangalore);
+        assertNotEquals(resolver.lastSeenKey(delhi), resolver.lastSeenKey(bangalore));
+    }
+
+    @Test
+    void registersEachCellOnceUntilForgotten() {
+        GeoShardKeyResolver resolver = resolver(true);
+
+        assertEquals(List.of("ttnf"), resolver.cellsToRegister(List.of("ttnf")));
+        assertTrue(resolver.cellsToRegister(List.of("ttnf")).isEmpty());
+
+        resolver.forgetCells(List.of("ttnf"));
+        assertEquals(List.of("ttnf"), resolver.cellsToRegister(List.of("ttnf")));
+    }
+
+    private static GeoShardKeyResolver resolver(boolean shardingEnabled) {
+        LocationServiceProperties properties = new LocationServiceProperties();
+        properties.setShardingEnabled(shardingEnabled);
+        return new GeoShardKeyResolver(properties);
+    }
+
+    private static void assertSameSlot(String first, String second) {
+        assertEquals(ClusterSlotHashUtil.calculateSlot(first), ClusterSlotHashUtil.calculateSlot(second),
+                first + " and " + second + " must hash to the same slot");
+    }
+}
@@ -0,0 +1,69 @@
+package com.girikgarg.uberlocationservice.services.impl;
+
+import com.girikgarg.uberlocationservice.configuration.LocationServiceProperties;
+import com.girikgarg.uberlocationservice.dto.DriverLocationDto;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisScriptingCommands;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RedisHeatmapServiceImplTest {
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void pipelinedUpdateSendsTheScriptBodyOnAnEmptyScriptCache() {
+        RedisScript<Long> moveDriversScript = RedisScript.of(new ClassPathResource("scripts/heatmap-move-drivers.lua"), Long.class);
+        RedisHeatmapServiceImpl service = new RedisHeatmapServiceImpl(mock(StringRedisTemplate.class),
+                moveDriversScript, mock(RedisScript.class), new LocationServiceProperties());
+
+        // Freshly started or flushed Redis: the script cache is empty, so any EVALSHA fails with NOSCRIPT
+        RedisScriptingCommands scriptingCommands = mock(RedisScriptingCommands.class);
+        when(scriptingCommands.evalSha(any(byte[].class), any(ReturnType.class), anyInt(), any(byte[][].class)))
+                .thenThrow(new InvalidDataAccessApiUsageException("NOSCRIPT No matching script. Please use EVAL."));
+        when(scriptingCommands.evalSha(any(String.class), any(ReturnType.class), anyInt(), any(byte[][].class)))
+                .thenThrow(new InvalidDataAccessApiUsageException("NOSCRIPT No matching script. Please use EVAL."));
+        RedisConnection connection = mock(RedisConnection.class);
+        when(connection.scriptingCommands()).thenReturn(scriptingCommands);
+
+        RedisOperations<String, String> pipeline = mock(RedisOperations.class);
+        when(pipeline.execute(any(RedisCallback.class)))
+                .thenAnswer(invocation -> ((RedisCallback<Object>) invocation.getArgument(0)).doInRedis(connection));
+
+        service.recordDriverLocations(pipeline, List.of(DriverLocationDto.builder()
+                .driverId("driver-1")
+                .latitude(28.7041)
+                .longitude(77.1025)
+                .build()));
+
+        ArgumentCaptor<byte[]> body = ArgumentCaptor.forClass(byte[].class);
+        ArgumentCaptor<byte[][]> keysAndArgs = ArgumentCaptor.forClass(byte[][].class);
+        verify(scriptingCommands).eval(body.capture(), eq(ReturnType.INTEGER), eq(2), keysAndArgs.capture());
+        verify(scriptingCommands, never()).evalSha(any(byte[].class), any(ReturnType.class), anyInt(), any(byte[][].class));
+        verify(scriptingCommands, never()).evalSha(any(String.class), any(ReturnType.class), anyInt(), any(byte[][].class));
+
+        assertEquals(moveDriversScript.getScriptAsString(), new String(body.getValue(), StandardCharsets.UTF_8));
+        assertArrayEquals("{heatmap}:supply".getBytes(StandardCharsets.UTF_8), keysAndArgs.getValue()[0]);
+        assertArrayEquals("driver-1".getBytes(StandardCharsets.UTF_8), keysAndArgs.getValue()[2]);
+        assertEquals(4, keysAndArgs.getValue().length);
+    }
+}
@@ -0,0 +1,67 @@
+package com.girikgarg.uberlocationservice.services.impl;
+
+import com.girikgarg.uberlocationservice.configuration.LocationServiceProperties;
+import com.girikgarg.uberlocationservice.services.api.HeatmapService;
+import com.girikgarg.uberlocationservice.services.api.LocationHistoryService;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.redis.connection.ClusterSlotHashUtil;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisScriptingCommands;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RedisLocationServiceImplTest {
+
+    @Test
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    void adaptiveSearchReadsLastSeenFromTheSearchedCell() {
+        LocationServiceProperties properties = new LocationServiceProperties();
+        properties.setShardingEnabled(true);
+        GeoShardKeyResolver resolver = new GeoShardKeyResolver(properties);
+
+        StringRedisTemplate template = mock(StringRedisTemplate.class);
+        RedisConnection connection = mock(RedisConnection.class);
+        RedisScriptingCommands scriptingCommands = mock(RedisScriptingCommands.class);
+        when(connection.scriptingCommands()).thenReturn(scriptingCommands);
+        when(template.executePipelined(any(RedisCallback.class))).thenAnswer(invocation -> {
+            ((RedisCallback<Object>) invocation.getArgument(0)).doInRedis(connection);
+            return Collections.emptyList();
+        });
+        RedisScript<List> script = mock(RedisScript.class);
+        when(script.getScriptAsString()).thenReturn("return {}");
+
+        RedisLocationServiceImpl service = new RedisLocationServiceImpl(template, resolver, properties,
+                mock(DriverSpatialIndex.class), mock(LocationHistoryService.class), mock(HeatmapService.class), script);
+        service.getNearestDriversAdaptive(28.7041, 77.1025, 10.0, 5);
+
+        ArgumentCaptor<byte[][]> keysAndArgs = ArgumentCaptor.forClass(byte[][].class);
+        verify(scriptingCommands, atLeastOnce()).eval(any(byte[].class), eq(ReturnType.MULTI), eq(2), keysAndArgs.capture());
+
+        Set<String> cells = Set.copyOf(resolver.cellsCovering(28.7041, 77.1025, 10.0));
+        assertEquals(cells.size(), keysAndArgs.getAllValues().size());
+        for (byte[][] call : keysAndArgs.getAllValues()) {
+            String geoKey = new String(call[0], StandardCharsets.UTF_8);
+            String lastSeenKey = new String(call[1], StandardCharsets.UTF_8);
+            assertTrue(cells.stream().anyMatch(cell -> resolver.geoKey(cell).equals(geoKey)
+                    && resolver.lastSeenKey(cell).equals(lastSeenKey)));
+            assertEquals(ClusterSlotHashUtil.calculateSlot(geoKey), ClusterSlotHashUtil.calculateSlot(lastSeenKey));
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.girikgarg.uberlocationservice.services.impl;
+
+import com.girikgarg.uberlocationservice.configuration.LocationServiceProperties;
+import com.girikgarg.uberlocationservice.services.api.HeatmapService;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.redis.connection.ClusterSlotHashUtil;
+import org.springframework.data.redis.core.SetOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class StaleDriverSweeperTest {
+
+    @Test
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    void evictsEachCellWithItsOwnKeys() {
+        LocationServiceProperties properties = new LocationServiceProperties();
+        properties.setShardingEnabled(true);
+        GeoShardKeyResolver resolver = new GeoShardKeyResolver(properties);
+
+        StringRedisTemplate template = mock(StringRedisTemplate.class);
+        SetOperations<String, String> setOperations = mock(SetOperations.class);
+        ZSetOperations<String, String> zSetOperations = mock(ZSetOperations.class);
+        RedisScript<List> script = mock(RedisScript.class);
+        HeatmapService heatmapService = mock(HeatmapService.class);
+
+        Map<String, String> staleDriverByCell = Map.of("ttnf", "driver-1", "tdr1", "driver-2");
+        when(template.opsForSet()).thenReturn(setOperations);
+        when(template.opsForZSet()).thenReturn(zSetOperations);
+        when(setOperations.members(GeoShardKeyResolver.DRIVER_CELLS_KEY))
+                .thenReturn(new LinkedHashSet<>(staleDriverByCell.keySet()));
+        staleDriverByCell.forEach((cell, driverId) ->
+                when(zSetOperations.rangeByScore(eq(resolver.lastSeenKey(cell)), eq(0d), anyDouble(), eq(0L), anyLong()))
+                        .thenReturn(Set.of(driverId)));
+        when(template.execute(eq(script), anyList(), any(Object[].class))).thenReturn(List.of("evicted"));
+
+        new StaleDriverSweeper(template, resolver, properties, mock(DriverSpatialIndex.class), heatmapService, script)
+                .sweep();
+
+        ArgumentCaptor<List<String>> keys = ArgumentCaptor.forClass(List.class);
+        verify(template, times(2)).execute(eq(script), keys.capture(), any(Object[].class));
+        for (List<String> scriptKeys : keys.getAllValues()) {
+            assertEquals(2, scriptKeys.size());
+            assertEquals(ClusterSlotHashUtil.calculateSlot(scriptKeys.get(0)),
+                    ClusterSlotHashUtil.calculateSlot(scriptKeys.get(1)));
+        }
+        assertEquals(Set.of(resolver.lastSeenKey("ttnf"), resolver.lastSeenKey("tdr1")),
+                Set.of(keys.getAllValues().get(0).get(0), keys.getAllValues().get(1).get(0)));
+        verify(heatmapService, times(2)).removeDrivers(List.of("evicted"));
+    }
+}
@@ -0,0 +1,104 @@
+package com.girikgarg.uberlocationservice.utils;
+
+import com.girikgarg.uberlocationservice.dto.LocationPointDto;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class LocationDeltaCodecTest {
+
+    private static final double PRECISION = 1e-9;
+
+    @Test
+    void roundTripsNegativeDeltas() {
+        // Moving south-west, plus a timestamp that goes backwards
+        assertRoundTrip(List.of(
+                point(1_700_000_030_000L, 28.70410, 77.10250),
+                point(1_700_000_033_000L, 28.70390, 77.10230),
+                point(1_700_000_031_000L, 28.70100, 77.09000),
+                point(1_700_000_040_000L, -1.50000, -3.25000)));
+    }
+
+    @Test
+    void roundTripsSinglePoint() {
+        assertRoundTrip(List.of(point(1_700_000_000_000L, 12.97160, 77.59460)));
+    }
+
+    @Test
+    void roundTripsEmptySegment() {
+        assertRoundTrip(List.of());
+    }
+
+    @Test
+    void roundTripsCoordinatesAtTheLimits() {
+        assertRoundTrip(List.of(
+                point(1_700_000_000_000L, 90.0, 180.0),
+                point(1_700_000_001_000L, -90.0, -180.0),
+                point(1_700_000_002_000L, 89.99999, 179.99999),
+                point(1_700_000_003_000L, -89.99999, -179.99999),
+                point(1_700_000_004_000L, 0.00001, -0.00001)));
+    }
+
+    @Test
+    void roundsToFiveDecimals() {
+        List<LocationPointDto> decoded = LocationDeltaCodec.decode(LocationDeltaCodec.encode(
+                List.of(point(1L, 28.704104, 77.102496))));
+
+        assertEquals(28.70410, decoded.get(0).getLatitude(), PRECISION);
+        assertEquals(77.10250, decoded.get(0).getLongitude(), PRECISION);
+    }
+
+    @Test
+    void rejectsEveryTruncation() {
+        byte[] data = LocationDeltaCodec.encode(List.of(
+                point(1_700_000_000_000L, 28.70410, 77.10250),
+                point(1_700_000_005_000L, 28.70420, 77.10260)));
+
+        for (int length = 0; length < data.length; length++) {
+            byte[] truncated = Arrays.copyOf(data, length);
+            assertThrows(IllegalArgumentException.class, () -> LocationDeltaCodec.decode(truncated),
+                    "length " + length);
+        }
+    }
+
+    @Test
+    void rejectsCorruptData() {
+        // Unknown version
+        assertThrows(IllegalArgumentException.class, () -> LocationDeltaCodec.decode(new byte[]{2, 0}));
+        // Point count far larger than the payload
+        assertThrows(IllegalArgumentException.class,
+                () -> LocationDeltaCodec.decode(new byte[]{1, (byte) 0xFF, (byte) 0xFF, 0x7F, 0, 0, 0}));
+        // Varint that never terminates within ten bytes
+        byte[] overlong = new byte[16];
+        Arrays.fill(overlong, (byte) 0x80);
+        overlong[0] = 1;
+        assertThrows(IllegalArgumentException.class, () -> LocationDeltaCodec.decode(overlong));
+        // Trailing bytes after the last point
+        byte[] valid = LocationDeltaCodec.encode(List.of(point(1L, 1.0, 1.0)));
+        byte[] trailing = Arrays.copyOf(valid, valid.length + 1);
+        assertThrows(IllegalArgumentException.class, () -> LocationDeltaCodec.decode(trailing));
+    }
+
+    private static void assertRoundTrip(List<LocationPointDto> points) {
+        List<LocationPointDto> decoded = LocationDeltaCodec.decode(LocationDeltaCodec.encode(points));
+
+        assertEquals(points.size(), decoded.size());
+        for (int i = 0; i < points.size(); i++) {
+            assertEquals(points.get(i).getTimestamp(), decoded.get(i).getTimestamp());
+            assertEquals(points.get(i).getLatitude(), decoded.get(i).getLatitude(), PRECISION);
+            assertEquals(points.get(i).getLongitude(), decoded.get(i).getLongitude(), PRECISION);
+        }
+    }
+
+    private static LocationPointDto point(long timestamp, double latitude, double longitude) {
+        return LocationPointDto.builder()
+                .timestamp(timestamp)
+                .latitude(latitude)
+                .longitude(longitude)
+                .build();
+    }
+}
@@ -1,6 +1,9 @@
 package com.girikgarg.ubersocketservice.config;
 
+import com.girikgarg.ubersocketservice.services.SocketClusterNode;
 import org.apache.kafka.clients.admin.NewTopic;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.annotation.EnableKafka;
@@ -14,6 +17,9 @@ import org.springframework.kafka.config.TopicBuilder;
 @EnableKafka
 public class KafkaConfig {
 
+    @Value("${socket.service.kafka.ride-accepted-partitions:6}")
+    private int rideAcceptedPartitions;
+
     /**
      * Create 'sample' topic if it doesn't exist.     * 
      * @return NewTopic configuration
@@ -30,15 +36,46 @@ public class KafkaConfig {
      * Create 'ride-accepted' topic for ride acceptance events.
      * When a driver accepts a ride, Socket Service publishes to this topic
      * and Booking Service consumes it to update the booking.
+     * Events are keyed by booking id, so each partition can be consumed in parallel
+     * while the events of one booking stay in order.
      * 
      * @return NewTopic configuration
      */
     @Bean
     public NewTopic rideAcceptedTopic() {
         return TopicBuilder.name("ride-accepted")
+                .partitions(rideAcceptedPartitions)
+                .replicas(1)
+                .build();
+    }
+
+    /**
+     * Create this node's inbound topic (cluster mode).
+     * Other nodes publish ride requests for drivers connected here to this topic.
+     * 
+     * @return NewTopic configuration
+     */
+    @Bean
+    @ConditionalOnProperty(name = "socket.service.cluster.enabled", havingValue = "true")
+    public NewTopic socketNodeTopic(SocketClusterNode socketClusterNode) {
+        return TopicBuilder.name(socketClusterNode.getInboundTopic())
                 .partitions(1)
                 .replicas(1)
                 .build();
     }
-}
 
+    /**
+     * Create the shared broadcast topic (cluster mode).
+     * Every node consumes it in its own consumer group.
+     * 
+     * @return NewTopic configuration
+     */
+    @Bean
+    @ConditionalOnProperty(name = "socket.service.cluster.enabled", havingValue = "true")
+    public NewTopic socketBroadcastTopic() {
+        return TopicBuilder.name(SocketClusterNode.BROADCAST_TOPIC)
+                .partitions(1)
+                .replicas(1)
+                .build();
+    }
+}
@@ -0,0 +1,47 @@
+package com.girikgarg.ubersocketservice.consumers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.girikgarg.ubersocketservice.dto.ClusterRideRequestMessage;
+import com.girikgarg.ubersocketservice.services.RideRequestRouter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Service;
+
+/**
+ * Consumes ride requests forwarded by other Socket Service nodes (cluster mode only).
+ * Listens on this node's own topic and, in a per-node consumer group, on the shared broadcast topic.
+ */
+@Service
+@Slf4j
+public class ClusterMessageConsumer {
+
+    private final RideRequestRouter rideRequestRouter;
+    private final ObjectMapper objectMapper;
+
+    public ClusterMessageConsumer(RideRequestRouter rideRequestRouter, ObjectMapper objectMapper) {
+        this.rideRequestRouter = rideRequestRouter;
+        this.objectMapper = objectMapper;
+    }
+
+    @KafkaListener(topics = "#{@socketClusterNode.inboundTopic}",
+            groupId = "#{@socketClusterNode.inboundTopic}",
+            autoStartup = "${socket.service.cluster.enabled:false}")
+    public void consumeNodeMessage(String message) {
+        deliver(message);
+    }
+
+    @KafkaListener(topics = "socket-broadcast",
+            groupId = "#{@socketClusterNode.broadcastGroupId}",
+            autoStartup = "${socket.service.cluster.enabled:false}")
+    public void consumeBroadcast(String message) {
+        deliver(message);
+    }
+
+    private void deliver(String message) {
+        try {
+            rideRequestRouter.deliverForwarded(objectMapper.readValue(message, ClusterRideRequestMessage.class));
+        } catch (Exception ex) {
+            log.error("Error delivering forwarded ride request: {}", message, ex);
+        }
+    }
+}
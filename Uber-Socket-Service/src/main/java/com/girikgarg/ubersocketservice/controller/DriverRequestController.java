@@ -1,8 +1,11 @@
 package com.girikgarg.ubersocketservice.controller;
 
+import com.girikgarg.uberevents.RideAcceptedEvent;
 import com.girikgarg.ubersocketservice.dto.RideRequestDto;
 import com.girikgarg.ubersocketservice.dto.RideResponseDto;
 import com.girikgarg.ubersocketservice.producers.KafkaProducerService;
+import com.girikgarg.ubersocketservice.services.RideAcceptanceArbiter;
+import com.girikgarg.ubersocketservice.services.RideRequestRouter;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.*;
@@ -16,14 +19,15 @@ import org.springframework.web.client.RestTemplate;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * REST Controller for handling ride request notifications and driver responses.
  * 
  * End-to-End Flow:
  * 1. Booking Service creates a new booking
- * 2. After finding nearby drivers, Booking Service calls /newride
- * 3. Socket Service broadcasts to all connected drivers
+ * 2. After ranking nearby drivers, Booking Service calls /newride with one wave of driver ids
+ * 3. Socket Service pushes the request to each of those drivers (/user/queue/rideRequest)
  * 4. Driver receives notification in browser
  * 5. Driver clicks Accept/Reject
  * 6. Driver client calls /rideResponse endpoint
@@ -37,16 +41,22 @@ public class DriverRequestController {
     private final SimpMessagingTemplate simpMessagingTemplate;
     private final RestTemplate restTemplate;
     private final KafkaProducerService kafkaProducerService;
+    private final RideAcceptanceArbiter rideAcceptanceArbiter;
+    private final RideRequestRouter rideRequestRouter;
     
     @Value("${booking.service.url:http://localhost:7475}")
     private String bookingServiceUrl;
 
     public DriverRequestController(SimpMessagingTemplate simpMessagingTemplate, 
                                    RestTemplate restTemplate,
-                                   KafkaProducerService kafkaProducerService) {
+                                   KafkaProducerService kafkaProducerService,
+                                   RideAcceptanceArbiter rideAcceptanceArbiter,
+                                   RideRequestRouter rideRequestRouter) {
         this.simpMessagingTemplate = simpMessagingTemplate;
         this.restTemplate = restTemplate;
         this.kafkaProducerService = kafkaProducerService;
+        this.rideAcceptanceArbiter = rideAcceptanceArbiter;
+        this.rideRequestRouter = rideRequestRouter;
     }
     
     /**
@@ -90,17 +100,23 @@ public class DriverRequestController {
     }
 
     /**
-     * Endpoint called by Booking Service to broadcast ride request to drivers.
+     * Endpoint called by Booking Service to offer a ride to drivers.
+     * With driverIds the request is pushed only to those drivers; without, it is broadcast to everyone.
      * 
-     * @param requestDto Contains booking details (bookingId, passenger, locations, status)
+     * @param requestDto Contains booking details (bookingId, passenger, locations, status, driverIds)
      * @return ResponseEntity with success message
      */
     @PostMapping("/newride")
     public ResponseEntity<Map<String, String>> raiseRideRequest(@RequestBody RideRequestDto requestDto) {
         log.info("Received ride request for booking ID: {}", requestDto.getBookingId());
-        sendDriversNewRideRequest(requestDto);
         Map<String, String> response = new HashMap<>();
-        response.put("message", "Ride request broadcast to drivers");
+        if (requestDto.getDriverIds() != null && !requestDto.getDriverIds().isEmpty()) {
+            int sent = sendTargetedRideRequest(requestDto);
+            response.put("message", "Ride request sent to " + sent + " drivers");
+        } else {
+            sendDriversNewRideRequest(requestDto);
+            response.put("message", "Ride request broadcast to drivers");
+        }
         response.put("bookingId", String.valueOf(requestDto.getBookingId()));
         return ResponseEntity.ok(response);
     } 
@@ -108,21 +124,34 @@ public class DriverRequestController {
     /**
      * Endpoint called by driver client when driver accepts or rejects a ride.
      * Handles the business logic of forwarding the response to Booking Service.
+     * Not synchronized: RideAcceptanceArbiter lets exactly one acceptance per booking through,
+     * and responses for different bookings are processed in parallel.
      * 
      * @param userId The driver ID extracted from the WebSocket destination path
      * @param rideResponseDto Contains response (true/false), bookingId
      */
     @MessageMapping("/rideResponse/{userId}")
-    public synchronized void rideResponseHandler(@DestinationVariable String userId, RideResponseDto rideResponseDto) {
+    public void rideResponseHandler(@DestinationVariable String userId, RideResponseDto rideResponseDto) {
         log.info("Received ride response from driver {}. Booking ID: {}, Response: {}", 
                 userId,
                 rideResponseDto.getBookingId(),
                 rideResponseDto.getResponse() ? "ACCEPTED" : "REJECTED");
         
         if (rideResponseDto.getResponse()) {
-            // Driver accepted - publish event to Kafka
+            // Driver accepted - only the first acceptance of the booking is published to Kafka
             Long driverId = Long.parseLong(userId);
-            publishRideAcceptedEvent(rideResponseDto.getBookingId(), driverId);
+            if (!rideAcceptanceArbiter.tryAccept(rideResponseDto.getBookingId(), driverId)) {
+                log.info("Driver {} lost booking {} to an earlier acceptance", userId, rideResponseDto.getBookingId());
+                return;
+            }
+            Long bookingId = rideResponseDto.getBookingId();
+            publishRideAcceptedEvent(bookingId, driverId).whenComplete((result, ex) -> {
+                if (ex != null) {
+                    // Booking Service never hears of this acceptance, so let another driver take the booking
+                    log.warn("Releasing booking {} claimed by driver {} after a failed publish", bookingId, driverId);
+                    rideAcceptanceArbiter.release(bookingId, driverId);
+                }
+            });
         } else {
             // Driver rejected - just log it (or implement rejection logic)
             log.info("Driver {} rejected booking {}", userId, rideResponseDto.getBookingId());
@@ -140,12 +169,14 @@ public class DriverRequestController {
      * 
      * @param bookingId The booking ID
      * @param driverId The driver ID who accepted the ride
+     * @return completes when the event is acknowledged, exceptionally when the publish failed
      */
-    private void publishRideAcceptedEvent(Long bookingId, Long driverId) {
-        String message = String.format("{\"bookingId\":%d,\"driverId\":%d}", bookingId, driverId);
+    private CompletableFuture<?> publishRideAcceptedEvent(Long bookingId, Long driverId) {
         log.info("Publishing ride accepted event to Kafka. Booking ID: {}, Driver ID: {}", bookingId, driverId);
-        kafkaProducerService.publishMessage("ride-accepted", message);
-        log.info("Ride accepted event published successfully");
+        return kafkaProducerService.publishRideAcceptedEvent(RideAcceptedEvent.builder()
+                .bookingId(bookingId)
+                .driverId(driverId)
+                .build());
     }
     
     /**
@@ -186,10 +217,26 @@ public class DriverRequestController {
     }
     */
 
+    /**
+     * Pushes a ride request to each targeted driver's private queue.
+     * UserChannelInterceptor sets the STOMP principal to the driver id, so
+     * convertAndSendToUser(driverId, "/queue/rideRequest") reaches only that driver's
+     * "/user/queue/rideRequest" subscription. Outbound messages = offers made, not connected drivers.
+     * In cluster mode drivers connected to other nodes are reached through RideRequestRouter.
+     * 
+     * @param requestDto The ride request details, with the driver ids of this offer
+     * @return number of drivers the request was sent to
+     */
+    public int sendTargetedRideRequest(RideRequestDto requestDto) {
+        int sent = rideRequestRouter.sendToDrivers(requestDto);
+        log.info("Ride request for booking ID {} sent to drivers {}", requestDto.getBookingId(), requestDto.getDriverIds());
+        return sent;
+    }
+
     /**
      * Broadcasts ride request to all connected drivers via WebSocket.
-     * Ideally, this should only send to nearby drivers, but for simplicity
-     * we broadcast to everyone subscribed to /topic/rideRequest.
+     * Only used when the caller does not name the drivers (e.g. Booking Service with dispatch disabled);
+     * everyone subscribed to /topic/rideRequest receives it.
      * 
      * @param requestDto The ride request details to broadcast
      */
@@ -202,12 +249,7 @@ public class DriverRequestController {
                 requestDto.getEndLatitude(), 
                 requestDto.getEndLongitude());
         
-        /*
-        TODO: 
-        Ideally the request should only to nearby drivers, but for simplicity (since we are going to build a basic frontend)
-        we send it to everyone
-        */
-        simpMessagingTemplate.convertAndSend("/topic/rideRequest", requestDto);
+        rideRequestRouter.broadcast(requestDto);
         log.info("Ride request broadcast completed for booking ID: {}", requestDto.getBookingId());
     }
 }
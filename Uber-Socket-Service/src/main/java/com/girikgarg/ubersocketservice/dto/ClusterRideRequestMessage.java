@@ -0,0 +1,20 @@
+package com.girikgarg.ubersocketservice.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * Envelope used to forward a ride request to other Socket Service nodes over Kafka.
+ * driverIds are the drivers connected to the receiving node; null means broadcast.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ClusterRideRequestMessage {
+    private String originNodeId;
+    private List<Long> driverIds;
+    private RideRequestDto rideRequest;
+}
@@ -2,6 +2,8 @@ package com.girikgarg.ubersocketservice.dto;
 
 import lombok.*;
 
+import java.util.List;
+
 /**
  * DTO for ride request notifications sent to drivers via WebSocket.
  * Contains essential booking information for drivers to accept/reject.
@@ -19,4 +21,10 @@ public class RideRequestDto {
     private Double endLatitude;
     private Double endLongitude;
     private BookingStatus bookingStatus;
+
+    /**
+     * Drivers this offer is targeted at (one dispatch wave from Booking Service).
+     * Null means every connected driver.
+     */
+    private List<Long> driverIds;
 }
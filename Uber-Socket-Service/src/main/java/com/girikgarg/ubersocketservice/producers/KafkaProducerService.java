@@ -1,9 +1,18 @@
 package com.girikgarg.ubersocketservice.producers;
 
+import com.girikgarg.uberevents.RideAcceptedEvent;
+import com.girikgarg.uberevents.serde.RideAcceptedEventSerializer;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Service;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * Kafka Producer Service for publishing messages to Kafka topics.
  * Used for event-driven communication between microservices.
@@ -11,11 +20,24 @@ import org.springframework.stereotype.Service;
 @Service
 @Slf4j
 public class KafkaProducerService {
+
+    public static final String RIDE_ACCEPTED_TOPIC = "ride-accepted";
     
     private final KafkaTemplate<String, String> kafkaTemplate;
+    // Not beans: a second KafkaTemplate / ProducerFactory bean would switch off Spring Boot's String ones
+    private final DefaultKafkaProducerFactory<String, RideAcceptedEvent> rideAcceptedProducerFactory;
+    private final KafkaTemplate<String, RideAcceptedEvent> rideAcceptedTemplate;
 
-    public KafkaProducerService(KafkaTemplate<String, String> kafkaTemplate) {
+    public KafkaProducerService(KafkaTemplate<String, String> kafkaTemplate, KafkaProperties kafkaProperties) {
         this.kafkaTemplate = kafkaTemplate;
+        this.rideAcceptedProducerFactory = new DefaultKafkaProducerFactory<>(
+                kafkaProperties.buildProducerProperties(null), new StringSerializer(), new RideAcceptedEventSerializer());
+        this.rideAcceptedTemplate = new KafkaTemplate<>(rideAcceptedProducerFactory);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rideAcceptedProducerFactory.destroy();
     }
 
     /**
@@ -29,4 +51,29 @@ public class KafkaProducerService {
         kafkaTemplate.send(topic, message);
         log.info("Message published successfully to topic '{}'", topic);
     }
-}
\ No newline at end of file
+
+    /**
+     * Publish a ride accepted event in the binary Uber Events encoding (a few bytes instead of JSON),
+     * keyed by booking id so all events of a booking stay on one partition, in order.
+     * 
+     * @param event The ride accepted event
+     * @return completes when the broker acknowledged the event; send failures, including ones
+     *         thrown before the record was handed to the producer, complete it exceptionally
+     */
+    public CompletableFuture<SendResult<String, RideAcceptedEvent>> publishRideAcceptedEvent(RideAcceptedEvent event) {
+        log.info("Publishing {} to Kafka topic '{}'", event, RIDE_ACCEPTED_TOPIC);
+        CompletableFuture<SendResult<String, RideAcceptedEvent>> future;
+        try {
+            future = rideAcceptedTemplate.send(RIDE_ACCEPTED_TOPIC, String.valueOf(event.getBookingId()), event);
+        } catch (RuntimeException ex) {
+            future = CompletableFuture.failedFuture(ex);
+        }
+        return future.whenComplete((result, ex) -> {
+            if (ex != null) {
+                log.error("Failed to publish {} to topic '{}'", event, RIDE_ACCEPTED_TOPIC, ex);
+            } else {
+                log.info("Message published successfully to topic '{}'", RIDE_ACCEPTED_TOPIC);
+            }
+        });
+    }
+}
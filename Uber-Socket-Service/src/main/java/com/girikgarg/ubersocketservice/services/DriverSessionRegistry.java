@@ -0,0 +1,27 @@
+package com.girikgarg.ubersocketservice.services;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Maps a connected driver to the Socket Service node holding its WebSocket session.
+ */
+public interface DriverSessionRegistry {
+
+    void register(String driverId, String nodeId);
+
+    /**
+     * Removes the entry only if the driver is still registered on nodeId.
+     */
+    void unregister(String driverId, String nodeId);
+
+    /**
+     * Re-asserts the entries of drivers connected to nodeId, so they outlive the registry TTL.
+     */
+    void refresh(Collection<String> driverIds, String nodeId);
+
+    /**
+     * @return driverId -> nodeId for the drivers that are connected somewhere; unknown drivers are absent
+     */
+    Map<String, String> findNodes(Collection<String> driverIds);
+}
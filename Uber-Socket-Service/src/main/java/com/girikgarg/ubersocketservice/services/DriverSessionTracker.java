@@ -0,0 +1,89 @@
+package com.girikgarg.ubersocketservice.services;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.messaging.SessionConnectedEvent;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+import java.security.Principal;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps the session registry in sync with the STOMP sessions of this node.
+ *
+ * A driver may have several sessions (browser tabs); it is registered on the first and
+ * unregistered when the last one disconnects. The heartbeat refreshes every local driver,
+ * so registry entries of a node that died expire after the registry TTL.
+ */
+@Slf4j
+@Component
+public class DriverSessionTracker {
+
+    private final DriverSessionRegistry sessionRegistry;
+    private final SocketClusterNode clusterNode;
+    private final Map<String, Set<String>> sessionIdsByDriverId = new ConcurrentHashMap<>();
+
+    public DriverSessionTracker(DriverSessionRegistry sessionRegistry, SocketClusterNode clusterNode) {
+        this.sessionRegistry = sessionRegistry;
+        this.clusterNode = clusterNode;
+    }
+
+    @EventListener
+    public void onConnected(SessionConnectedEvent event) {
+        Principal user = event.getUser();
+        String sessionId = StompHeaderAccessor.wrap(event.getMessage()).getSessionId();
+        if (user == null || sessionId == null) {
+            return;
+        }
+
+        sessionIdsByDriverId.computeIfAbsent(user.getName(), id -> ConcurrentHashMap.newKeySet()).add(sessionId);
+        try {
+            sessionRegistry.register(user.getName(), clusterNode.getNodeId());
+        } catch (Exception ex) {
+            log.error("Could not register session of driver {} on node {}", user.getName(), clusterNode.getNodeId(), ex);
+        }
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        Principal user = event.getUser();
+        if (user == null) {
+            return;
+        }
+
+        String driverId = user.getName();
+        Set<String> remaining = sessionIdsByDriverId.computeIfPresent(driverId, (id, sessionIds) -> {
+            sessionIds.remove(event.getSessionId());
+            return sessionIds.isEmpty() ? null : sessionIds;
+        });
+        if (remaining == null) {
+            try {
+                sessionRegistry.unregister(driverId, clusterNode.getNodeId());
+            } catch (Exception ex) {
+                log.error("Could not unregister session of driver {}", driverId, ex);
+            }
+        }
+    }
+
+    public boolean isConnectedHere(String driverId) {
+        return sessionIdsByDriverId.containsKey(driverId);
+    }
+
+    @Scheduled(fixedDelayString = "${socket.service.cluster.heartbeat-interval-ms:30000}")
+    public void heartbeat() {
+        if (!clusterNode.isClusterEnabled() || sessionIdsByDriverId.isEmpty()) {
+            return;
+        }
+        try {
+            sessionRegistry.refresh(new ArrayList<>(sessionIdsByDriverId.keySet()), clusterNode.getNodeId());
+        } catch (Exception ex) {
+            log.error("Error refreshing {} driver sessions of node {}", sessionIdsByDriverId.size(), clusterNode.getNodeId(), ex);
+        }
+    }
+}
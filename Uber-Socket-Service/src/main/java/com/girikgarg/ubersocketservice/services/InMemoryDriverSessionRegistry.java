@@ -0,0 +1,46 @@
+package com.girikgarg.ubersocketservice.services;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Single-node stand-in for the session registry: only knows the drivers connected to this node.
+ */
+@Service
+@ConditionalOnProperty(name = "socket.service.cluster.enabled", havingValue = "false", matchIfMissing = true)
+public class InMemoryDriverSessionRegistry implements DriverSessionRegistry {
+
+    private final Map<String, String> nodeByDriverId = new ConcurrentHashMap<>();
+
+    @Override
+    public void register(String driverId, String nodeId) {
+        nodeByDriverId.put(driverId, nodeId);
+    }
+
+    @Override
+    public void unregister(String driverId, String nodeId) {
+        nodeByDriverId.remove(driverId, nodeId);
+    }
+
+    @Override
+    public void refresh(Collection<String> driverIds, String nodeId) {
+        // Entries never expire in memory
+    }
+
+    @Override
+    public Map<String, String> findNodes(Collection<String> driverIds) {
+        Map<String, String> nodes = new HashMap<>();
+        for (String driverId : driverIds) {
+            String nodeId = nodeByDriverId.get(driverId);
+            if (nodeId != null) {
+                nodes.put(driverId, nodeId);
+            }
+        }
+        return nodes;
+    }
+}
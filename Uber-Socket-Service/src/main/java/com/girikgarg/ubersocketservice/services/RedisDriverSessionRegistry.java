@@ -0,0 +1,96 @@
+package com.girikgarg.ubersocketservice.services;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Cluster session registry: one key "socket:session:{driverId}" holding the node id, with a TTL
+ * so entries of a crashed node disappear on their own. Live nodes refresh their drivers in one pipeline.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "socket.service.cluster.enabled", havingValue = "true")
+public class RedisDriverSessionRegistry implements DriverSessionRegistry {
+
+    private static final String SESSION_KEY_PREFIX = "socket:session:";
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RedisScript<Long> unregisterScript =
+            RedisScript.of(new ClassPathResource("scripts/session-unregister.lua"), Long.class);
+
+    @Value("${socket.service.cluster.registry-ttl-seconds:90}")
+    private long ttlSeconds;
+
+    public RedisDriverSessionRegistry(StringRedisTemplate stringRedisTemplate) {
+        this.stringRedisTemplate = stringRedisTemplate;
+    }
+
+    @Override
+    public void register(String driverId, String nodeId) {
+        stringRedisTemplate.opsForValue().set(keyFor(driverId), nodeId, Duration.ofSeconds(ttlSeconds));
+    }
+
+    @Override
+    public void unregister(String driverId, String nodeId) {
+        stringRedisTemplate.execute(unregisterScript, Collections.singletonList(keyFor(driverId)), nodeId);
+    }
+
+    @Override
+    public void refresh(Collection<String> driverIds, String nodeId) {
+        if (driverIds.isEmpty()) {
+            return;
+        }
+        stringRedisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+                RedisOperations<String, String> redisOperations = (RedisOperations<String, String>) operations;
+                Duration ttl = Duration.ofSeconds(ttlSeconds);
+                for (String driverId : driverIds) {
+                    redisOperations.opsForValue().set(keyFor(driverId), nodeId, ttl);
+                }
+                return null;
+            }
+        });
+    }
+
+    @Override
+    public Map<String, String> findNodes(Collection<String> driverIds) {
+        List<String> ids = new ArrayList<>(driverIds);
+        List<String> keys = new ArrayList<>(ids.size());
+        for (String driverId : ids) {
+            keys.add(keyFor(driverId));
+        }
+
+        List<String> nodeIds = stringRedisTemplate.opsForValue().multiGet(keys);
+        Map<String, String> nodes = new HashMap<>();
+        if (nodeIds == null) {
+            return nodes;
+        }
+        for (int i = 0; i < ids.size(); i++) {
+            if (nodeIds.get(i) != null) {
+                nodes.put(ids.get(i), nodeIds.get(i));
+            }
+        }
+        return nodes;
+    }
+
+    private static String keyFor(String driverId) {
+        return SESSION_KEY_PREFIX + driverId;
+    }
+}
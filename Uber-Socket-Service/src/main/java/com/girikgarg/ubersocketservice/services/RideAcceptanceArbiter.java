@@ -0,0 +1,125 @@
+package com.girikgarg.ubersocketservice.services;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Decides which driver wins a booking when several drivers accept it.
+ *
+ * Each booking has its own entry in a ConcurrentHashMap and the first acceptance claims it with
+ * putIfAbsent (a CAS on that entry), so responses for different bookings never wait on each other
+ * and exactly one acceptance per booking wins on this node.
+ *
+ * With ride-arbitration.redis-enabled the local winner must also claim "ride:accepted:{bookingId}"
+ * with SET NX, which makes the decision cluster-wide when several Socket Service nodes are running.
+ * If Redis is unreachable the acceptance is refused rather than risking two winners.
+ *
+ * A claim whose ride-accepted event could not be published is given back with release(),
+ * otherwise the booking would stay blocked for every other driver until the retention runs out.
+ */
+@Slf4j
+@Service
+public class RideAcceptanceArbiter {
+
+    private static final String ACCEPTED_KEY_PREFIX = "ride:accepted:";
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final Map<Long, Acceptance> acceptances = new ConcurrentHashMap<>();
+    private final RedisScript<Long> releaseScript =
+            RedisScript.of(new ClassPathResource("scripts/release-ride-acceptance.lua"), Long.class);
+
+    @Value("${socket.service.ride-arbitration.redis-enabled:false}")
+    private boolean redisEnabled;
+
+    @Value("${socket.service.ride-arbitration.retention-seconds:600}")
+    private long retentionSeconds;
+
+    public RideAcceptanceArbiter(StringRedisTemplate stringRedisTemplate) {
+        this.stringRedisTemplate = stringRedisTemplate;
+    }
+
+    /**
+     * Tries to make driverId the driver of bookingId.
+     *
+     * @return true only for the single acceptance that wins the booking
+     */
+    public boolean tryAccept(Long bookingId, Long driverId) {
+        Acceptance candidate = new Acceptance(driverId, System.currentTimeMillis());
+        Acceptance existing = acceptances.putIfAbsent(bookingId, candidate);
+        if (existing != null) {
+            log.info("Booking {} already accepted by driver {}, ignoring acceptance from driver {}",
+                    bookingId, existing.driverId, driverId);
+            return false;
+        }
+
+        if (!redisEnabled) {
+            return true;
+        }
+
+        try {
+            Boolean claimed = stringRedisTemplate.opsForValue().setIfAbsent(
+                    ACCEPTED_KEY_PREFIX + bookingId, String.valueOf(driverId), Duration.ofSeconds(retentionSeconds));
+            if (Boolean.TRUE.equals(claimed)) {
+                return true;
+            }
+            log.info("Booking {} already accepted on another node, ignoring acceptance from driver {}",
+                    bookingId, driverId);
+            return false;
+        } catch (Exception ex) {
+            // Release the local claim so a later acceptance can retry once Redis is back
+            acceptances.remove(bookingId, candidate);
+            log.error("Could not arbitrate acceptance of booking {} by driver {}", bookingId, driverId, ex);
+            return false;
+        }
+    }
+
+    /**
+     * Gives back the claim of driverId on bookingId, e.g. when its ride-accepted event could not be published.
+     * Claims held by another driver are left alone, locally and in Redis.
+     */
+    public void release(Long bookingId, Long driverId) {
+        acceptances.computeIfPresent(bookingId,
+                (id, acceptance) -> acceptance.driverId == driverId ? null : acceptance);
+
+        if (!redisEnabled) {
+            return;
+        }
+
+        try {
+            stringRedisTemplate.execute(releaseScript,
+                    Collections.singletonList(ACCEPTED_KEY_PREFIX + bookingId), String.valueOf(driverId));
+        } catch (Exception ex) {
+            // The key still expires after the retention
+            log.error("Could not release acceptance of booking {} by driver {}", bookingId, driverId, ex);
+        }
+    }
+
+    /**
+     * Forgets decisions older than the retention; by then the booking is no longer offered to anyone.
+     */
+    @Scheduled(fixedDelay = 60000)
+    public void evictExpired() {
+        long cutoff = System.currentTimeMillis() - retentionSeconds * 1000L;
+        acceptances.values().removeIf(acceptance -> acceptance.acceptedAtMs < cutoff);
+    }
+
+    private static final class Acceptance {
+        private final long driverId;
+        private final long acceptedAtMs;
+
+        private Acceptance(long driverId, long acceptedAtMs) {
+            this.driverId = driverId;
+            this.acceptedAtMs = acceptedAtMs;
+        }
+    }
+}
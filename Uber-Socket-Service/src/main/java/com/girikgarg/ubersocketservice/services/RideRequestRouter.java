@@ -0,0 +1,138 @@
+package com.girikgarg.ubersocketservice.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.girikgarg.ubersocketservice.dto.ClusterRideRequestMessage;
+import com.girikgarg.ubersocketservice.dto.RideRequestDto;
+import com.girikgarg.ubersocketservice.producers.KafkaProducerService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Delivers ride requests to drivers wherever they are connected.
+ *
+ * Drivers with a session on this node get the message through the local STOMP broker.
+ * In cluster mode the others are looked up in the session registry and forwarded, one Kafka
+ * message per target node, to that node's own topic; the receiving node delivers locally.
+ */
+@Slf4j
+@Service
+public class RideRequestRouter {
+
+    private static final String USER_RIDE_REQUEST_DESTINATION = "/queue/rideRequest";
+    private static final String BROADCAST_RIDE_REQUEST_DESTINATION = "/topic/rideRequest";
+
+    private final SimpMessagingTemplate simpMessagingTemplate;
+    private final DriverSessionRegistry sessionRegistry;
+    private final DriverSessionTracker sessionTracker;
+    private final SocketClusterNode clusterNode;
+    private final KafkaProducerService kafkaProducerService;
+    private final ObjectMapper objectMapper;
+
+    public RideRequestRouter(SimpMessagingTemplate simpMessagingTemplate,
+                             DriverSessionRegistry sessionRegistry,
+                             DriverSessionTracker sessionTracker,
+                             SocketClusterNode clusterNode,
+                             KafkaProducerService kafkaProducerService,
+                             ObjectMapper objectMapper) {
+        this.simpMessagingTemplate = simpMessagingTemplate;
+        this.sessionRegistry = sessionRegistry;
+        this.sessionTracker = sessionTracker;
+        this.clusterNode = clusterNode;
+        this.kafkaProducerService = kafkaProducerService;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Sends the request to requestDto.driverIds.
+     *
+     * @return number of drivers the request was delivered or forwarded to
+     */
+    public int sendToDrivers(RideRequestDto requestDto) {
+        if (!clusterNode.isClusterEnabled()) {
+            deliverLocally(requestDto, requestDto.getDriverIds());
+            return requestDto.getDriverIds().size();
+        }
+
+        List<Long> localDriverIds = new ArrayList<>();
+        List<String> lookup = new ArrayList<>();
+        for (Long driverId : requestDto.getDriverIds()) {
+            if (sessionTracker.isConnectedHere(String.valueOf(driverId))) {
+                localDriverIds.add(driverId);
+            } else {
+                lookup.add(String.valueOf(driverId));
+            }
+        }
+
+        Map<String, List<Long>> driverIdsByNode = new HashMap<>();
+        if (!lookup.isEmpty()) {
+            sessionRegistry.findNodes(lookup).forEach((driverId, nodeId) ->
+                    driverIdsByNode.computeIfAbsent(nodeId, n -> new ArrayList<>()).add(Long.valueOf(driverId)));
+        }
+
+        deliverLocally(requestDto, localDriverIds);
+        int sent = localDriverIds.size();
+        for (Map.Entry<String, List<Long>> entry : driverIdsByNode.entrySet()) {
+            if (entry.getKey().equals(clusterNode.getNodeId())) {
+                // Stale registry entry pointing back at us - the driver is not connected here any more
+                continue;
+            }
+            forward(SocketClusterNode.topicFor(entry.getKey()), entry.getValue(), requestDto);
+            sent += entry.getValue().size();
+        }
+
+        if (sent < requestDto.getDriverIds().size()) {
+            log.info("{} of {} drivers for booking {} are not connected to any node",
+                    requestDto.getDriverIds().size() - sent, requestDto.getDriverIds().size(), requestDto.getBookingId());
+        }
+        return sent;
+    }
+
+    /**
+     * Sends the request to every connected driver, on every node in cluster mode.
+     */
+    public void broadcast(RideRequestDto requestDto) {
+        simpMessagingTemplate.convertAndSend(BROADCAST_RIDE_REQUEST_DESTINATION, requestDto);
+        if (clusterNode.isClusterEnabled()) {
+            forward(SocketClusterNode.BROADCAST_TOPIC, null, requestDto);
+        }
+    }
+
+    /**
+     * Delivers a request forwarded by another node.
+     */
+    public void deliverForwarded(ClusterRideRequestMessage message) {
+        if (message.getDriverIds() == null) {
+            if (!clusterNode.getNodeId().equals(message.getOriginNodeId())) {
+                simpMessagingTemplate.convertAndSend(BROADCAST_RIDE_REQUEST_DESTINATION, message.getRideRequest());
+            }
+            return;
+        }
+        deliverLocally(message.getRideRequest(), message.getDriverIds());
+    }
+
+    private void deliverLocally(RideRequestDto requestDto, List<Long> driverIds) {
+        for (Long driverId : driverIds) {
+            simpMessagingTemplate.convertAndSendToUser(String.valueOf(driverId), USER_RIDE_REQUEST_DESTINATION, requestDto);
+        }
+    }
+
+    private void forward(String topic, List<Long> driverIds, RideRequestDto requestDto) {
+        ClusterRideRequestMessage message = ClusterRideRequestMessage.builder()
+                .originNodeId(clusterNode.getNodeId())
+                .driverIds(driverIds)
+                .rideRequest(requestDto)
+                .build();
+        try {
+            kafkaProducerService.publishMessage(topic, objectMapper.writeValueAsString(message));
+        } catch (JsonProcessingException ex) {
+            log.error("Could not serialize ride request for booking {}", requestDto.getBookingId(), ex);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.girikgarg.ubersocketservice.services;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Identity of this Socket Service node in cluster mode.
+ *
+ * Every node consumes its own Kafka topic ("socket-node-{nodeId}"), so a message for a driver
+ * connected to node B is published to node B's topic by whichever node received the request.
+ * Broadcasts go to the shared "socket-broadcast" topic, consumed by every node in its own group.
+ */
+@Component
+public class SocketClusterNode {
+
+    public static final String NODE_TOPIC_PREFIX = "socket-node-";
+    public static final String BROADCAST_TOPIC = "socket-broadcast";
+
+    private final boolean clusterEnabled;
+    private final String nodeId;
+
+    public SocketClusterNode(@Value("${socket.service.cluster.enabled:false}") boolean clusterEnabled,
+                             @Value("${socket.service.cluster.node-id:${spring.application.name}-${server.port}}") String nodeId) {
+        this.clusterEnabled = clusterEnabled;
+        // Kafka topic names only allow [a-zA-Z0-9._-]
+        this.nodeId = nodeId.replaceAll("[^a-zA-Z0-9._-]", "-");
+    }
+
+    public boolean isClusterEnabled() {
+        return clusterEnabled;
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public String getInboundTopic() {
+        return topicFor(nodeId);
+    }
+
+    /**
+     * Consumer group of this node's broadcast listener - unique per node so every node gets every broadcast.
+     */
+    public String getBroadcastGroupId() {
+        return "socket-broadcast-" + nodeId;
+    }
+
+    public static String topicFor(String nodeId) {
+        return NODE_TOPIC_PREFIX + nodeId;
+    }
+}
@@ -0,0 +1,10 @@
+-- Releases a booking's acceptance claim only if it is still held by the given driver,
+-- so a failed publish never frees a claim another driver has taken since.
+--
+-- KEYS[1]  ride:accepted:{bookingId}
+-- ARGV[1]  driver id whose claim is released
+
+if redis.call('GET', KEYS[1]) == ARGV[1] then
+    return redis.call('DEL', KEYS[1])
+end
+return 0
@@ -0,0 +1,10 @@
+-- Removes a driver's session entry only if it still points at the calling node,
+-- so a driver who already reconnected to another node is not unregistered by the old one.
+--
+-- KEYS[1]  socket:session:{driverId}
+-- ARGV[1]  node id of the caller
+
+if redis.call('GET', KEYS[1]) == ARGV[1] then
+    return redis.call('DEL', KEYS[1])
+end
+return 0